@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+#
+# Starts CollectorZone from the shaded jar in ../target, with its AppCDS
+# archive when there is one that is newer than the jar.
+#
+#   bin/collectorzone.sh           start the application
+#   bin/collectorzone.sh --train   run the training workload (org.example.CdsTraining)
+#                                  and write the archive next to the jar
+#
+# `mvn -Pcds package` builds the jar and runs --train. The archive only
+# matches the jar at the path it was trained at, so after copying the jar
+# elsewhere, run --train there once.
+#
+# JAVA_OPTS   extra JVM options
+# CDS=off     start without the archive, e.g. to compare startup times
+#
+set -euo pipefail
+
+HOME_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+JAR="$HOME_DIR/target/CollectorZone-1.0-SNAPSHOT.jar"
+ARCHIVE="$HOME_DIR/target/CollectorZone-1.0-SNAPSHOT.jsa"
+
+if [[ ! -f "$JAR" ]]; then
+    echo "No $JAR; build it with: mvn -Pcds package" >&2
+    exit 1
+fi
+if [[ "$JAR" == *" "* && "${CDS:-on}" != "off" ]]; then
+    echo "The JVM does not share application classes loaded from a path with spaces;" \
+         "the AppCDS archive will only cover JDK classes. Install the jar in a path without spaces." >&2
+fi
+
+if [[ "${1:-}" == "--train" ]]; then
+    rm -f "$ARCHIVE"
+    # Classes that cannot be archived, e.g. ones that were never linked, are only warned about.
+    exec java -XX:ArchiveClassesAtExit="$ARCHIVE" -Xlog:cds=error ${JAVA_OPTS:-} -cp "$JAR" org.example.CdsTraining
+fi
+
+CDS_OPTS=()
+if [[ "${CDS:-on}" != "off" ]]; then
+    if [[ -f "$ARCHIVE" && "$ARCHIVE" -nt "$JAR" ]]; then
+        CDS_OPTS=(-XX:SharedArchiveFile="$ARCHIVE" -Xlog:cds=off -Xlog:cds+dynamic=off)
+    else
+        echo "No AppCDS archive for $JAR, starting without it; build it with: bin/collectorzone.sh --train" >&2
+    fi
+fi
+
+# The archive was dumped with -cp <absolute jar path>, so start the same way.
+exec java "${CDS_OPTS[@]}" ${JAVA_OPTS:-} -cp "$JAR" org.example.ApiService "$@"
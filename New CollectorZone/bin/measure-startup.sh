@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+#
+# Measures the time to first request, from launching the JVM until
+# GET /items answers, with and without the AppCDS archive.
+#
+# Usage: mvn -Pcds package && bin/measure-startup.sh [runs]    (default 5 runs each)
+#
+set -euo pipefail
+
+BIN_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+RUNS="${1:-5}"
+URL="http://localhost:4567/items"
+
+if curl -s -o /dev/null "$URL"; then
+    echo "Something already answers on $URL; stop it first." >&2
+    exit 1
+fi
+
+# Prints the milliseconds until the first successful request.
+first_request_millis() {
+    local started pid answered
+    started=$(date +%s%N)
+    CDS="$1" "$BIN_DIR/collectorzone.sh" > /dev/null 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+        sleep 0.005
+    done
+    answered=$(date +%s%N)
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo $(( (answered - started) / 1000000 ))
+}
+
+report() {
+    local mode="$1" times=() sorted
+    for _ in $(seq "$RUNS"); do
+        times+=("$(first_request_millis "$mode")")
+    done
+    sorted=$(printf '%s\n' "${times[@]}" | sort -n)
+    printf '%-8s median %5d ms   min %5d ms   max %5d ms   (%s)\n' "CDS=$mode" \
+        "$(sed -n "$(( (RUNS + 1) / 2 ))p" <<< "$sorted")" "$(head -1 <<< "$sorted")" "$(tail -1 <<< "$sorted")" \
+        "${times[*]}"
+}
+
+report off
+report on
@@ -1,52 +1,61 @@
 package org.example;
 
 import com.google.gson.Gson;
+import org.example.controller.HealthController;
 import org.example.controller.ItemController;
 import org.example.controller.ItemWebController;
 import org.example.controller.OfferController;
+import org.example.controller.OfferStreamController;
+import org.example.controller.RateLimitFilter;
 import org.example.controller.OfferWebController;
+import org.example.json.Json;
 import org.example.model.ApiError;
 import org.example.model.ApiException;
+import org.example.model.BidWriter;
+import org.example.model.BroadcastService;
+import org.example.model.ItemCatalog;
 import org.example.model.ItemService;
 import org.example.model.OfferService;
+import org.example.model.OutboxRelay;
+import org.example.model.SessionHeartbeat;
+import org.example.model.Startup;
 import org.example.model.Database;
+import org.example.model.EventBus;
+import org.example.model.Migrations;
+
+import java.io.IOException;
 import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.BufferedReader;
-import java.util.stream.Collectors;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static spark.Spark.*;
 
 public class ApiService {
 
     /**
-     * Reads and executes the `setup-dev.sql` script from the project's resources.
-     * This method is intended for development environments to initialize or reset
-     * the database schema and any seed data.
+     * Loads the development seed data from `setup-dev.sql`.
+     * The script only runs when the `items` table is empty, so restarting the
+     * application never wipes data that is already there.
      * <p>
      * It prints status messages to standard out and errors to standard err.
      */
-    public static void runInitScript() {
-        String script = "";
-        try (InputStream is = ApiService.class.getClassLoader().getResourceAsStream("setup-dev.sql")) {
-            if (is == null) {
-                System.err.println("setup-dev.sql not found.");
-                return;
-            }
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
-                script = reader.lines().collect(Collectors.joining("\n"));
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            return;
-        }
-
+    public static void seedDevData() {
         try (Connection conn = Database.getConnection();
              Statement stmt = conn.createStatement()) {
+
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM items")) {
+                rs.next();
+                if (rs.getLong(1) > 0) {
+                    System.out.println("Items already present, skipping setup-dev.sql.");
+                    return;
+                }
+            }
+
             System.out.println("Executing setup-dev.sql...");
-            stmt.execute(script);
+            stmt.execute(Migrations.readResource("setup-dev.sql"));
             System.out.println("Script completed.");
         } catch (Exception e) {
             System.err.println("Error when executing setup-dev.sql:");
@@ -56,34 +65,115 @@ public class ApiService {
 
     /**
      * The main application entry point.
-     * This method starts the SparkJava server, configures it,
-     * and defines all application routes.
-     *
+     * <p>
+     * Starts the HTTP server first, with every route but only the health
+     * checks answering, then runs the {@link Startup} pipeline: open the
+     * connection pools, migrate the schema, warm the in-memory caches and
+     * indexes in parallel, and mark the application ready. Services are
+     * constructed up front but do no I/O until their phase. If a phase fails
+     * the process exits, so the orchestrator restarts it.
      *
      * @param args Command line arguments (not used by this application).
      */
     public static void main(String[] args) {
 
-        if (System.getenv("APP_ENV") == null || !System.getenv("APP_ENV").equals("prod")) {
-            runInitScript();
+        Startup startup = new Startup();
+
+        ItemService itemService = new ItemService(ItemCatalog.fromEnvironment());
+        BidWriter bidWriter = BidWriter.fromEnvironment(itemService);
+        OfferService offerService = new OfferService(itemService, bidWriter);
+        EventBus eventBus = EventBus.fromEnvironment(
+                events -> events.forEach(event -> BroadcastService.broadcast(event.itemId(), event.message())));
+        OutboxRelay outboxRelay = OutboxRelay.fromEnvironment(eventBus);
+        SessionHeartbeat sessionHeartbeat = SessionHeartbeat.fromEnvironment();
+
+        startup.phase("http", () -> {
+            mapRoutes(startup, itemService, offerService);
+            awaitInitialization();
+        });
+
+        try {
+            startup.phase("pool", () -> {
+                try {
+                    Database.open();
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Could not open the database", e);
+                }
+            });
+            startup.phase("migrations", () -> {
+                Migrations.migrate();
+                if (System.getenv("APP_ENV") == null || !System.getenv("APP_ENV").equals("prod")) {
+                    seedDevData();
+                }
+            });
+
+            Map<String, Runnable> warmUp = new LinkedHashMap<>();
+            if (bidWriter == null) {
+                warmUp.put("items", itemService::loadItems);
+                warmUp.put("leaderboard", offerService::loadLeaderboard);
+            } else {
+                // Replaying the journal updates the loaded items, and the leaderboard must see the replayed offers.
+                warmUp.put("items", () -> {
+                    itemService.loadItems();
+                    bidWriter.start();
+                    offerService.loadLeaderboard();
+                });
+            }
+            warmUp.put("events", () -> {
+                eventBus.start();
+                outboxRelay.start();
+                sessionHeartbeat.start();
+            });
+            startup.parallel("warm-up", warmUp);
+        } catch (RuntimeException e) {
+            System.err.println("Startup failed:");
+            e.printStackTrace();
+            System.exit(1);
         }
 
-        ItemService itemService = new ItemService();
-        OfferService offerService = new OfferService(itemService);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            sessionHeartbeat.close();
+            outboxRelay.close();
+            eventBus.close();
+            if (bidWriter != null) {
+                try {
+                    bidWriter.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }));
 
-        Gson gson = new Gson();
+        startup.markReady();
+    }
+
+    /**
+     * Configures the HTTP server and maps all API, Web and WebSocket routes.
+     * Until {@code startup} is ready, every route but the health checks
+     * answers 503.
+     */
+    private static void mapRoutes(Startup startup, ItemService itemService, OfferService offerService) {
+        Gson gson = Json.GSON;
 
         ItemController itemController = new ItemController(itemService);
         OfferController offerController = new OfferController(offerService);
+        OfferStreamController offerStreamController = new OfferStreamController();
+        RateLimitFilter rateLimitFilter = RateLimitFilter.fromEnvironment();
 
-        ItemWebController itemWebController = new ItemWebController(itemService, offerService);
+        ItemWebController itemWebController = new ItemWebController(itemService);
         OfferWebController offerWebController = new OfferWebController(offerService);
 
+        HealthController healthController = new HealthController(startup);
+
         port(4567);
         staticFiles.location("/public");
 
         webSocket("/notifications", WebSocketHandler.class);
 
+        before(healthController::requireReady);
+        get("/health/live", healthController::live);
+        get("/health/ready", healthController::ready);
+
         exception(ApiException.class, (exception, req, res) -> {
             res.status(exception.getStatusCode());
             res.type("application/json");
@@ -97,7 +187,12 @@ public class ApiService {
             res.body(gson.toJson(new ApiError("An unexpected internal server error occurred.")));
         });
 
+        before("/offers/:id", rateLimitFilter);
+        before("/offers-web", rateLimitFilter);
+        get("/metrics/rate-limits", rateLimitFilter::metrics);
+
         get("/items", itemController::getAllItems);
+        get("/items/top", itemController::getTopItems);
         get("/items/:id", itemController::getItemById);
         post("/items/:id", itemController::createItem);
         put("/items/:id", itemController::updateItem);
@@ -105,8 +200,11 @@ public class ApiService {
         options("/items/:id", itemController::checkItem);
 
         get("/offers", offerController::getAllOffers);
+        get("/offers/stream", offerStreamController::stream);
         get("/offers/:id", offerController::getOfferById);
         get("/offers/:id/lastest", offerController::getLastOffer);
+        get("/offers/:id/top", offerController::getTopBids);
+        get("/bidders/top", offerController::getTopBidders);
         post("/offers/:id", offerController::createOffer);
         put("/offers/:id", offerController::updateOffer);
         delete("/offers/:id", offerController::deleteOffer);
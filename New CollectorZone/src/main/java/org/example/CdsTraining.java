@@ -0,0 +1,87 @@
+package org.example;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * The training workload for the AppCDS archive built by the {@code cds}
+ * Maven profile.
+ * <p>
+ * Starts the application, sends the requests a typical client sends once
+ * (API reads, the web page, a search, and an offer created, updated and
+ * deleted) and exits. The JVM runs with {@code -XX:ArchiveClassesAtExit},
+ * so every class that a startup and the first requests load ends up in
+ * the archive.
+ * <p>
+ * It creates and deletes an offer, so it refuses to run with {@code APP_ENV=prod}.
+ */
+public final class CdsTraining {
+
+    private static final String BASE_URL = "http://localhost:4567";
+
+    private CdsTraining() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if ("prod".equals(System.getenv("APP_ENV"))) {
+            throw new IllegalStateException("The CDS training workload writes offers; run it against the development database");
+        }
+
+        ApiService.main(args);
+
+        String items = send("GET", "/items", null);
+        String itemId = JsonParser.parseString(items).getAsJsonArray().get(0).getAsJsonObject().get("id").getAsString();
+        send("GET", "/items/" + itemId, null);
+        send("GET", "/items/" + UUID.randomUUID(), null);
+        send("GET", "/items/top?limit=5", null);
+        send("GET", "/items?sort=price&minPrice=100&maxPrice=1000", null);
+        send("GET", "/items-web", null);
+        send("GET", "/items-web?search=autografiada&minPrice=100", null);
+
+        String offer = send("POST", "/offers/" + itemId, "{\"name\":\"CDS Training\",\"email\":\"cds@example.com\","
+                + "\"price\":9999999,\"createdAt\":\"2026-01-01T00:00:00Z\"}");
+        JsonObject created = JsonParser.parseString(offer).getAsJsonObject();
+        String offerId = created.get("id").getAsString();
+        send("GET", "/offers/" + offerId, null);
+        send("GET", "/offers/" + itemId + "/lastest", null);
+        send("GET", "/offers/" + itemId + "/top?limit=5", null);
+        send("GET", "/bidders/top", null);
+        created.addProperty("price", 9999999.5);
+        send("PUT", "/offers/" + offerId, created.toString());
+        send("DELETE", "/offers/" + offerId, null);
+        send("GET", "/health/ready", null);
+
+        System.exit(0);
+    }
+
+    /**
+     * Sends a request and returns the response body, also for error statuses.
+     */
+    private static String send(String method, String path, String body) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(BASE_URL + path).openConnection();
+        conn.setRequestMethod(method);
+        if (body != null) {
+            conn.setDoOutput(true);
+            conn.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = conn.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = conn.getResponseCode();
+        try (InputStream in = status < 400 ? conn.getInputStream() : conn.getErrorStream()) {
+            String response = in != null ? new String(in.readAllBytes(), StandardCharsets.UTF_8) : "";
+            System.out.println(method + " " + path + " -> " + status);
+            return response;
+        } finally {
+            conn.disconnect();
+        }
+    }
+}
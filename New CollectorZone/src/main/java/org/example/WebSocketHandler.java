@@ -1,10 +1,15 @@
 package org.example;
 
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketConnect;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketFrame;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketMessage;
 import org.eclipse.jetty.websocket.api.annotations.WebSocket;
+import org.eclipse.jetty.websocket.api.extensions.Frame;
 import org.example.model.BroadcastService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,7 +21,7 @@ import org.slf4j.LoggerFactory;
  * to manage the lifecycle of client connections on the `/notifications` endpoint.
  * Its primary responsibility is to add and remove client sessions from the
  * {@link BroadcastService}, which is then used by other parts of the application
- * (like the {@code OfferService}) to push updates to all connected clients.
+ * (like the {@code OutboxRelay}) to push updates to all connected clients.
  */
 @WebSocket
 public class WebSocketHandler {
@@ -27,7 +32,8 @@ public class WebSocketHandler {
      * Called when a new WebSocket connection is established.
      * This method is triggered by the {@link OnWebSocketConnect} annotation.
      * It logs the new connection and adds the client's {@link Session} to the
-     * list of active sessions in the {@link BroadcastService}.
+     * list of active sessions in the {@link BroadcastService}, which closes it
+     * instead when the connection limit is reached.
      *
      * @param session The newly connected client's session.
      */
@@ -55,20 +61,43 @@ public class WebSocketHandler {
         BroadcastService.removeSession(session);
     }
 
+    /**
+     * Called for every frame received from a WebSocket client, including the
+     * pongs that answer the server's heartbeat pings. Any frame shows that
+     * the client is still alive.
+     *
+     * @param session The client session that sent the frame.
+     * @param frame   The frame received.
+     */
+    @OnWebSocketFrame
+    public void onFrame(Session session, Frame frame) {
+        BroadcastService.touch(session);
+    }
+
     /**
      * Called when a message is received from a WebSocket client.
      * This method is triggered by the {@link OnWebSocketMessage} annotation.
      * <p>
-     * In this implementation, the server simply logs that a message was received
-     * but does **not** process it or send a response. The communication is
-     * one-way (server-to-client broadcasts).
+     * The only message clients send is a resume request after reconnecting,
+     * {@code {"type":"resume","epoch":..,"lastSeq":..}}, with the last event
+     * they saw. The {@link BroadcastService} replays the events they missed.
+     * Any other message is logged and ignored.
      *
      * @param session The client session that sent the message.
      * @param message The text message received from the client.
      */
     @OnWebSocketMessage
     public void onMessage(Session session, String message) {
+        try {
+            JsonObject json = JsonParser.parseString(message).getAsJsonObject();
+            if (json.has("type") && "resume".equals(json.get("type").getAsString())
+                    && json.has("epoch") && json.has("lastSeq")) {
+                BroadcastService.resume(session, json.get("epoch").getAsLong(), json.get("lastSeq").getAsLong());
+                return;
+            }
+        } catch (JsonParseException | IllegalStateException | UnsupportedOperationException | NumberFormatException e) {
+            // Se ignora igual que cualquier otro mensaje desconocido
+        }
         logger.info("Mensaje recibido (no se hará eco): {}", message);
-
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package org.example.controller;
+
+import org.example.model.ApiException;
+import spark.Request;
+
+/**
+ * Maps row versions to strong entity tags and back, for conditional updates
+ * with {@code If-Match}.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * @param version The row version.
+     * @return The value of the {@code ETag} header, e.g. {@code "3"}.
+     */
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Reads the version a client expects from its {@code If-Match} header.
+     *
+     * @param req The Spark HTTP request object.
+     * @return The expected version, or {@code null} if the update is unconditional
+     * (no header, or {@code *}).
+     * @throws ApiException 412 if the header is not one of our entity tags, since
+     *                      it can never match. Weak tags never match either.
+     */
+    static Long expectedVersion(Request req) {
+        String ifMatch = req.headers("If-Match");
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Falls through: not a tag we issued
+            }
+        }
+        throw new ApiException(412, "If-Match does not match the current version");
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.controller;
+
+import com.google.gson.Gson;
+import org.example.json.Json;
+import org.example.model.ApiException;
+import org.example.model.Startup;
+import spark.Request;
+import spark.Response;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Handles the health checks used by load balancers and orchestrators during
+ * rolling deploys. Liveness only says that the process answers HTTP;
+ * readiness says that the {@link Startup} pipeline finished and the
+ * application can take traffic.
+ */
+public class HealthController {
+
+    private final Startup startup;
+    private final Gson gson = Json.GSON;
+
+    /**
+     * @param startup The startup pipeline whose readiness is reported.
+     */
+    public HealthController(Startup startup) {
+        this.startup = startup;
+    }
+
+    /**
+     * Handles {@code GET /health/live}. Answers as soon as the HTTP server runs.
+     *
+     * @param req The Spark HTTP request object.
+     * @param res The Spark HTTP response object.
+     * @return {@code {"status": "UP"}}.
+     */
+    public String live(Request req, Response res) {
+        res.type("application/json");
+        return gson.toJson(Map.of("status", "UP"));
+    }
+
+    /**
+     * Handles {@code GET /health/ready}.
+     *
+     * @param req The Spark HTTP request object.
+     * @param res The Spark HTTP response object.
+     * @return {@code {"status": "STARTING"}} with HTTP 503 during startup; afterwards
+     *         {@code {"status": "READY"}} with the startup times in milliseconds.
+     */
+    public String ready(Request req, Response res) {
+        res.type("application/json");
+        if (!startup.isReady()) {
+            res.status(503);
+            return gson.toJson(Map.of("status", "STARTING"));
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", "READY");
+        body.put("startupMillis", startup.readyMillis());
+        body.put("jvmStartupMillis", startup.jvmReadyMillis());
+        body.put("phases", startup.phases());
+        return gson.toJson(body);
+    }
+
+    /**
+     * Before-filter that rejects every request but the health checks until
+     * the application is ready.
+     *
+     * @param req The Spark HTTP request object.
+     * @param res The Spark HTTP response object.
+     * @throws ApiException during startup (HTTP 503).
+     */
+    public void requireReady(Request req, Response res) {
+        if (!startup.isReady() && !req.pathInfo().startsWith("/health/")) {
+            res.header("Retry-After", "1");
+            throw new ApiException(503, "The service is starting");
+        }
+    }
+}
@@ -2,8 +2,10 @@ package org.example.controller;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
+import org.example.json.Json;
 import org.example.model.CollectibleItem;
 import org.example.model.ItemService;
+import org.example.model.Money;
 import org.example.model.ApiException;
 import spark.Request;
 import spark.Response;
@@ -18,15 +20,18 @@ import java.util.Map;
 
 public class ItemController {
 
+    private static final int DEFAULT_TOP_ITEMS = 20;
+    private static final int MAX_TOP_ITEMS = 100;
+
     /**
      * The service layer responsible for handling item-related business logic.
      */
     private final ItemService itemService;
 
     /**
-     * A Gson instance for serializing Java objects to JSON and deserializing JSON to objects.
+     * The shared Gson instance for serializing Java objects to JSON and deserializing JSON to objects.
      */
-    private final Gson gson = new Gson();
+    private final Gson gson = Json.GSON;
 
     /**
      * Constructs a new ItemController with a dependency on an {@link ItemService}.
@@ -39,14 +44,52 @@ public class ItemController {
 
     /**
      * Handles the HTTP GET request to fetch all collectible items.
+     * With {@code sort=price}, {@code minPrice} or {@code maxPrice}, only the
+     * items whose display price (the higher of their price and top offer) is
+     * within the bounds are returned, cheapest first.
      *
      * @param req The Spark HTTP request object.
      * @param res The Spark HTTP response object.
-     * @return A JSON string representing a list of all items.
+     * @return A JSON string representing a list of the items.
+     * @throws ApiException 400 if the sort order or a price bound is invalid.
      */
     public String getAllItems(Request req, Response res) {
         res.type("application/json");
-        return gson.toJson(itemService.getAllItems());
+        String sort = req.queryParams("sort");
+        Money minPrice = priceParam(req, "minPrice");
+        Money maxPrice = priceParam(req, "maxPrice");
+
+        if (sort == null && minPrice == null && maxPrice == null) {
+            return gson.toJson(itemService.getAllItems());
+        }
+        if (sort != null && !sort.equals("price")) {
+            throw new ApiException(400, "Unsupported sort order: " + sort);
+        }
+        return gson.toJson(itemService.getItemsByDisplayPrice(minPrice, maxPrice));
+    }
+
+    /**
+     * Handles the HTTP GET request for the items with the highest display
+     * price (e.g., /items/top?limit=20), highest first.
+     *
+     * @param req The Spark HTTP request object, with an optional {@code limit} (default 20, at most 100).
+     * @param res The Spark HTTP response object.
+     * @return A JSON string representing the list of items.
+     * @throws ApiException 400 if the limit is not a number between 1 and 100.
+     */
+    public String getTopItems(Request req, Response res) {
+        res.type("application/json");
+        String limitParam = req.queryParams("limit");
+        int limit;
+        try {
+            limit = limitParam != null ? Integer.parseInt(limitParam) : DEFAULT_TOP_ITEMS;
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Invalid limit");
+        }
+        if (limit < 1 || limit > MAX_TOP_ITEMS) {
+            throw new ApiException(400, "limit must be between 1 and " + MAX_TOP_ITEMS);
+        }
+        return gson.toJson(itemService.getTopItems(limit));
     }
 
     /**
@@ -63,6 +106,7 @@ public class ItemController {
         String id = req.params(":id");
 
         CollectibleItem item = itemService.getItemById(id);
+        res.header("ETag", ETags.of(item.getVersion()));
         return gson.toJson(item);
     }
 
@@ -100,11 +144,14 @@ public class ItemController {
     /**
      * Handles the HTTP PUT request to update an existing item by its ID.
      * The item's data for the update is taken from the JSON request body.
+     * With an {@code If-Match} header carrying the ETag from a previous read,
+     * the update only applies if nobody changed the item in the meantime.
      *
      * @param req The Spark HTTP request object (contains path param and request body).
      * @param res The Spark HTTP response object.
      * @return A JSON string representing the updated item.
-     * @throws ApiException if the request body is invalid or the item is not found.
+     * @throws ApiException if the request body is invalid, the item is not found,
+     *                      or it does not match {@code If-Match} (HTTP 412).
      */
     public String updateItem(Request req, Response res) {
         res.type("application/json");
@@ -120,7 +167,8 @@ public class ItemController {
             throw new ApiException(400, "Invalid item data format");
         }
 
-        CollectibleItem updatedItem = itemService.updateItem(id, itemToUpdate);
+        CollectibleItem updatedItem = itemService.updateItem(id, itemToUpdate, ETags.expectedVersion(req));
+        res.header("ETag", ETags.of(updatedItem.getVersion()));
         return gson.toJson(updatedItem);
     }
 
@@ -161,4 +209,20 @@ public class ItemController {
         res.status(200);
         return "Item exists";
     }
-}
\ No newline at end of file
+
+    /**
+     * @return The price in a query parameter, or null if it is absent or empty.
+     * @throws ApiException 400 if it is not a valid price.
+     */
+    private static Money priceParam(Request req, String name) {
+        String value = req.queryParams(name);
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Money.parse(value);
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Invalid " + name);
+        }
+    }
+}
@@ -20,22 +20,19 @@ import java.util.stream.Collectors;
 public class ItemWebController {
 
     /**
-     * The service layer for item-related business logic, offer-related business logic
+     * The service layer for item-related business logic
      * and template engine used to render .mustache files into HTML.
      */
     private final ItemService itemService;
-    private final OfferService offerService;
     private final MustacheTemplateEngine templateEngine = new MustacheTemplateEngine();
 
     /**
-     * Constructs a new ItemWebController with its required service dependencies.
+     * Constructs a new ItemWebController with its required service dependency.
      *
-     * @param itemService  The service for managing items.
-     * @param offerService The service for managing offers.
+     * @param itemService The service for managing items.
      */
-    public ItemWebController(ItemService itemService, OfferService offerService) {
+    public ItemWebController(ItemService itemService) {
         this.itemService = itemService;
-        this.offerService = offerService;
     }
 
     /**
@@ -71,7 +68,24 @@ public class ItemWebController {
         String minPriceStr = req.queryParams("minPrice");
         String maxPriceStr = req.queryParams("maxPrice");
 
-        Collection<CollectibleItem> allItems = itemService.getAllItems();
+        Money minPrice = parsePriceFilter(minPriceStr);
+        Money maxPrice = parsePriceFilter(maxPriceStr);
+
+        Collection<CollectibleItem> allItems;
+        if (search != null && !search.isBlank()) {
+            // Only the matches are checked against the price range.
+            allItems = itemService.searchItems(search).stream()
+                    .filter(item -> {
+                        Money displayPrice = Money.max(item.getPrice(), item.getCurrentTopOffer());
+                        return (minPrice == null || displayPrice.compareTo(minPrice) >= 0)
+                                && (maxPrice == null || displayPrice.compareTo(maxPrice) <= 0);
+                    })
+                    .collect(Collectors.toList());
+        } else if (minPrice != null || maxPrice != null) {
+            allItems = itemService.getItemsByDisplayPrice(minPrice, maxPrice);
+        } else {
+            allItems = itemService.getAllItems();
+        }
 
         List<ItemWebResponse> itemsWeb = allItems.stream().map(i -> {
             ItemWebResponse itemWeb = new ItemWebResponse();
@@ -79,46 +93,10 @@ public class ItemWebController {
             itemWeb.setName(i.getName());
             itemWeb.setDescription(i.getDescription());
             itemWeb.setPrice(i.getPrice());
-            Optional<Offer> lastOffer = offerService.getLastOffer(UUID.fromString(i.getId()));
-            lastOffer.ifPresent(offer -> itemWeb.setLastOffer(offer.getPrice()));
+            itemWeb.setLastOffer(i.getCurrentTopOffer());
             return itemWeb;
         }).collect(Collectors.toList());
 
-        if (search != null && !search.isEmpty()) {
-            String finalSearch = search.toLowerCase();
-            itemsWeb = itemsWeb.stream()
-                    .filter(item ->
-                            item.getName().toLowerCase().contains(finalSearch) ||
-                                    item.getDescription().toLowerCase().contains(finalSearch)
-                    )
-                    .collect(Collectors.toList());
-        }
-
-        if (minPriceStr != null && !minPriceStr.isEmpty()) {
-            try {
-                double minPrice = Double.parseDouble(minPriceStr);
-                itemsWeb = itemsWeb.stream()
-                        .filter(item -> {
-                            double displayPrice = Math.max(item.getPrice(), item.getLastOffer());
-                            return displayPrice >= minPrice;
-                        })
-                        .collect(Collectors.toList());
-            } catch (NumberFormatException e) { }
-        }
-
-        if (maxPriceStr != null && !maxPriceStr.isEmpty()) {
-            try {
-                double maxPrice = Double.parseDouble(maxPriceStr);
-                itemsWeb = itemsWeb.stream()
-                        .filter(item -> {
-                            double displayPrice = Math.max(item.getPrice(), item.getLastOffer());
-                            return displayPrice <= maxPrice;
-                        })
-                        .collect(Collectors.toList());
-            } catch (NumberFormatException e) { }
-        }
-
-
         model.put("items", itemsWeb);
 
         model.put("search", search);
@@ -144,7 +122,7 @@ public class ItemWebController {
             String name = req.queryParams("itemName");
             String description = req.queryParams("itemDescription");
             String imageUrl = req.queryParams("itemImageUrl");
-            double price = Double.parseDouble(req.queryParams("itemPrice"));
+            Money price = Money.parse(req.queryParams("itemPrice"));
 
             String id = UUID.randomUUID().toString();
             CollectibleItem newItem = new CollectibleItem(id, name, description, price);
@@ -167,4 +145,18 @@ public class ItemWebController {
         }
         return null;
     }
+
+    /**
+     * @return The price in a filter field, or null if it is empty or not a valid price.
+     */
+    private static Money parsePriceFilter(String price) {
+        if (price == null || price.isEmpty()) {
+            return null;
+        }
+        try {
+            return Money.parse(price);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 }
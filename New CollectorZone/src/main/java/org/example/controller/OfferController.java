@@ -2,6 +2,7 @@ package org.example.controller;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
+import org.example.json.Json;
 import org.example.model.ApiException;
 import org.example.model.Offer;
 import org.example.model.OfferService;
@@ -19,9 +20,11 @@ import java.util.UUID;
  */
 public class OfferController {
 
-    private final Offer offer = new Offer();
+    private static final int DEFAULT_TOP_BIDDERS = 10;
+    private static final int MAX_TOP_BIDDERS = 100;
+
     private final OfferService offerService;
-    private final Gson gson = new Gson();
+    private final Gson gson = Json.GSON;
 
     /**
      * Constructs a new OfferController with a dependency on an {@link OfferService}.
@@ -58,6 +61,7 @@ public class OfferController {
         UUID id = UUID.fromString(req.params(":id"));
 
         Offer offer = offerService.getOfferById(id);
+        res.header("ETag", ETags.of(offer.getVersion()));
         return gson.toJson(offer);
     }
 
@@ -78,6 +82,38 @@ public class OfferController {
         return gson.toJson(offer);
     }
 
+    /**
+     * Handles the HTTP GET request to fetch the highest bids on an item,
+     * highest first. The item's ID is extracted from the URL path parameter;
+     * the optional {@code limit} query parameter caps the number of bids.
+     *
+     * @param req The Spark HTTP request object.
+     * @param res The Spark HTTP response object.
+     * @return A JSON array of the item's highest offers, empty if it has none.
+     * @throws ApiException if {@code limit} is not between 1 and {@link OfferService#TOP_BIDS} (HTTP 400).
+     */
+    public String getTopBids(Request req, Response res) {
+        res.type("application/json");
+        UUID id = UUID.fromString(req.params(":id"));
+        int limit = limitParam(req, OfferService.TOP_BIDS, OfferService.TOP_BIDS);
+        return gson.toJson(offerService.getTopBids(id, limit));
+    }
+
+    /**
+     * Handles the HTTP GET request to fetch the bidders with the most offers,
+     * most active first, each with the number of offers they made.
+     *
+     * @param req The Spark HTTP request object.
+     * @param res The Spark HTTP response object.
+     * @return A JSON array of bidders.
+     * @throws ApiException if {@code limit} is not between 1 and 100 (HTTP 400).
+     */
+    public String getTopBidders(Request req, Response res) {
+        res.type("application/json");
+        int limit = limitParam(req, DEFAULT_TOP_BIDDERS, MAX_TOP_BIDDERS);
+        return gson.toJson(offerService.getTopBidders(limit));
+    }
+
     /**
      * Handles the HTTP POST request to create a new offer for a specific item.
      * The item's ID is taken from the URL path parameter, and the offer's data
@@ -104,9 +140,7 @@ public class OfferController {
             throw new ApiException(400, "Invalid offer data format");
         }
 
-        newOffer.setItemId(itemId);
-
-        Offer createdOffer = offerService.createOffer(newOffer);
+        Offer createdOffer = offerService.createOffer(newOffer.withItemId(itemId));
         res.status(201);
         return gson.toJson(createdOffer);
     }
@@ -114,11 +148,14 @@ public class OfferController {
     /**
      * Handles the HTTP PUT request to update an existing offer by its ID.
      * The offer's data for the update is taken from the JSON request body.
+     * With an {@code If-Match} header carrying the ETag from a previous read,
+     * the update only applies if nobody changed the offer in the meantime.
      *
      * @param req The Spark HTTP request object (contains path param and request body).
      * @param res The Spark HTTP response object.
      * @return A JSON string representing the updated offer.
-     * @throws ApiException if the request body is invalid or the offer is not found.
+     * @throws ApiException if the request body is invalid, the offer is not found,
+     *                      or it does not match {@code If-Match} (HTTP 412).
      */
     public String updateOffer(Request req, Response res) {
         res.type("application/json");
@@ -134,7 +171,8 @@ public class OfferController {
             throw new ApiException(400, "Invalid offer data format");
         }
 
-        Offer updatedOffer = offerService.updateOffer(id, offerToUpdate);
+        Offer updatedOffer = offerService.updateOffer(id, offerToUpdate, ETags.expectedVersion(req));
+        res.header("ETag", ETags.of(updatedOffer.getVersion()));
         return gson.toJson(updatedOffer);
     }
 
@@ -173,4 +211,18 @@ public class OfferController {
         res.status(200);
         return "Offer exists";
     }
-}
\ No newline at end of file
+
+    private static int limitParam(Request req, int defaultLimit, int maxLimit) {
+        String limitParam = req.queryParams("limit");
+        int limit;
+        try {
+            limit = limitParam != null ? Integer.parseInt(limitParam) : defaultLimit;
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Invalid limit");
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new ApiException(400, "limit must be between 1 and " + maxLimit);
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.controller;
+
+import org.example.model.ApiException;
+import org.example.model.BroadcastService;
+import spark.Request;
+import spark.Response;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Streams offer notifications as Server-Sent Events, a lighter alternative
+ * to the {@code /notifications} WebSocket for read-only clients such as
+ * dashboards.
+ * <p>
+ * The events are the ones {@link BroadcastService} sends to the WebSocket
+ * clients, with the same sequence numbers. Browsers' {@code EventSource}
+ * reconnects on its own and sends the {@code Last-Event-ID} header, which
+ * replays the missed events. Keep-alive comments are sent by the
+ * {@code SessionHeartbeat}.
+ */
+public class OfferStreamController {
+
+    /**
+     * Handles {@code GET /offers/stream}, optionally limited to one item with
+     * {@code ?itemId=}. The response stays open in async mode after this
+     * method returns; its headers are committed here so Spark writes no body.
+     *
+     * @param req The Spark HTTP request object.
+     * @param res The Spark HTTP response object.
+     * @return An empty body; the events are written asynchronously.
+     * @throws ApiException if the itemId is not a valid UUID (HTTP 400).
+     */
+    public String stream(Request req, Response res) throws IOException {
+        UUID itemId = null;
+        String item = req.queryParams("itemId");
+        if (item != null) {
+            try {
+                itemId = UUID.fromString(item);
+            } catch (IllegalArgumentException e) {
+                throw new ApiException(400, "Invalid itemId");
+            }
+        }
+
+        HttpServletResponse raw = res.raw();
+        raw.setStatus(200);
+        raw.setContentType("text/event-stream");
+        raw.setCharacterEncoding("UTF-8");
+        raw.setHeader("Cache-Control", "no-cache");
+        // Stops nginx from buffering the stream
+        raw.setHeader("X-Accel-Buffering", "no");
+        raw.flushBuffer();
+
+        AsyncContext async = req.raw().startAsync();
+        async.setTimeout(0);
+        BroadcastService.subscribe(new SseStream(async, itemId), req.headers("Last-Event-ID"));
+        return "";
+    }
+}
@@ -3,10 +3,11 @@ package org.example.controller;
 import org.example.model.Offer;
 import org.example.model.OfferService;
 import org.example.model.ApiException;
+import org.example.model.Money;
 import spark.Request;
 import spark.Response;
 
-import java.util.Date;
+import java.time.Instant;
 import java.util.UUID;
 
 /**
@@ -38,11 +39,11 @@ public class OfferWebController {
 
             String name = req.queryParams("name");
             String email = req.queryParams("email");
-            double price = Double.parseDouble(req.queryParams("itemPrice"));
-            String itemId  = req.queryParams("item-id");
+            Money price = Money.parse(req.queryParams("itemPrice"));
+            UUID itemId = itemIdOf(req.queryParams("item-id"));
             UUID id = UUID.randomUUID();
 
-            Offer newOffer = new Offer(name, email, id, price, itemId, new Date());
+            Offer newOffer = new Offer(name, email, id, price, itemId, Instant.now(), 0);
 
             offerService.createOffer(newOffer);
 
@@ -64,4 +65,15 @@ public class OfferWebController {
 
         return null;
     }
+
+    private static UUID itemIdOf(String itemId) {
+        if (itemId != null) {
+            try {
+                return UUID.fromString(itemId);
+            } catch (IllegalArgumentException e) {
+                // Falls through to the same error as a missing ID
+            }
+        }
+        throw new ApiException(400, "Offer must have a valid ID");
+    }
 }
@@ -0,0 +1,197 @@
+package org.example.controller;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.example.json.Json;
+import org.example.model.ApiException;
+import org.example.model.RateLimiter;
+import spark.Filter;
+import spark.Request;
+import spark.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how fast bids can be submitted, as a Spark before-filter on
+ * {@code POST /offers/:id} and {@code POST /offers-web}.
+ * <p>
+ * Every bid takes a token from its client's bucket, keyed by IP address and
+ * again by email, and from its item's bucket. When a bucket is empty the bid
+ * is rejected with {@code 429 Too Many Requests} and a {@code Retry-After}
+ * header, before it reaches the {@code OfferService}.
+ * <p>
+ * Behind a reverse proxy or load balancer, every request comes from the
+ * proxy's address. Requests from one of the trusted proxies are therefore
+ * keyed by the client address in {@code X-Forwarded-For}: the rightmost
+ * entry that is not itself a trusted proxy. The header is ignored on
+ * requests from anyone else, since clients can set it to anything.
+ */
+public class RateLimitFilter implements Filter {
+
+    private static final double DEFAULT_CLIENT_PER_SECOND = 5;
+    private static final int DEFAULT_CLIENT_BURST = 10;
+    private static final double DEFAULT_ITEM_PER_SECOND = 50;
+    private static final int DEFAULT_ITEM_BURST = 100;
+
+    private final RateLimiter clients;
+    private final RateLimiter items;
+    private final Set<String> trustedProxies;
+    private final Gson gson = Json.GSON;
+
+    /**
+     * @param clients Limits each IP address and each email.
+     * @param items   Limits each item.
+     */
+    public RateLimitFilter(RateLimiter clients, RateLimiter items) {
+        this(clients, items, Set.of());
+    }
+
+    /**
+     * @param clients        Limits each IP address and each email.
+     * @param items          Limits each item.
+     * @param trustedProxies The IP addresses of the proxies whose {@code X-Forwarded-For} is used.
+     */
+    public RateLimitFilter(RateLimiter clients, RateLimiter items, Set<String> trustedProxies) {
+        this.clients = clients;
+        this.items = items;
+        this.trustedProxies = Set.copyOf(trustedProxies);
+    }
+
+    /**
+     * Creates a filter configured by {@code RATE_LIMIT_CLIENT_PER_SEC} (default 5),
+     * {@code RATE_LIMIT_CLIENT_BURST} (default 10), {@code RATE_LIMIT_ITEM_PER_SEC}
+     * (default 50), {@code RATE_LIMIT_ITEM_BURST} (default 100) and
+     * {@code RATE_LIMIT_TRUSTED_PROXIES}, a comma-separated list of IP
+     * addresses (default none).
+     *
+     * @return The filter.
+     */
+    public static RateLimitFilter fromEnvironment() {
+        String proxies = System.getenv("RATE_LIMIT_TRUSTED_PROXIES");
+        return new RateLimitFilter(
+                new RateLimiter(doubleEnv("RATE_LIMIT_CLIENT_PER_SEC", DEFAULT_CLIENT_PER_SECOND),
+                        intEnv("RATE_LIMIT_CLIENT_BURST", DEFAULT_CLIENT_BURST)),
+                new RateLimiter(doubleEnv("RATE_LIMIT_ITEM_PER_SEC", DEFAULT_ITEM_PER_SECOND),
+                        intEnv("RATE_LIMIT_ITEM_BURST", DEFAULT_ITEM_BURST)),
+                proxies != null ? Set.copyOf(addresses(proxies)) : Set.of());
+    }
+
+    /**
+     * Takes the bid's tokens, or rejects it.
+     *
+     * @param req The Spark HTTP request object.
+     * @param res The Spark HTTP response object.
+     * @throws ApiException if the client or the item is over its limit (HTTP 429).
+     */
+    @Override
+    public void handle(Request req, Response res) {
+        if (!"POST".equals(req.requestMethod())) {
+            return;
+        }
+
+        String email;
+        String itemId;
+        if (req.params(":id") != null) {
+            email = jsonField(req.body(), "email");
+            itemId = req.params(":id");
+        } else {
+            email = req.queryParams("email");
+            itemId = req.queryParams("item-id");
+        }
+
+        long wait = clients.acquire("ip:" + clientIp(req));
+        if (wait == 0 && email != null) {
+            wait = clients.acquire("email:" + email.trim().toLowerCase());
+        }
+        if (wait == 0 && itemId != null) {
+            wait = items.acquire(itemId);
+        }
+        if (wait > 0) {
+            long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999L));
+            res.header("Retry-After", String.valueOf(seconds));
+            throw new ApiException(429, "Too many bids, try again in " + seconds + " s");
+        }
+    }
+
+    /**
+     * Handles {@code GET /metrics/rate-limits}.
+     *
+     * @param req The Spark HTTP request object.
+     * @param res The Spark HTTP response object.
+     * @return The allowed and throttled bid counts and tracked keys, as JSON.
+     */
+    public String metrics(Request req, Response res) {
+        res.type("application/json");
+        return gson.toJson(Map.of("clients", metrics(clients), "items", metrics(items)));
+    }
+
+    private static Map<String, Long> metrics(RateLimiter limiter) {
+        return Map.of(
+                "allowed", limiter.allowedCount(),
+                "throttled", limiter.throttledCount(),
+                "trackedKeys", (long) limiter.trackedKeys());
+    }
+
+    /**
+     * @return The address of the client that sent the request, which is the
+     *         connection's address unless it is a trusted proxy.
+     */
+    String clientIp(Request req) {
+        String ip = req.ip();
+        if (!trustedProxies.contains(ip)) {
+            return ip;
+        }
+        String forwardedFor = req.headers("X-Forwarded-For");
+        if (forwardedFor == null) {
+            return ip;
+        }
+        List<String> hops = addresses(forwardedFor);
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            ip = hops.get(i);
+            if (!trustedProxies.contains(ip)) {
+                break;
+            }
+        }
+        return ip;
+    }
+
+    private static List<String> addresses(String list) {
+        List<String> addresses = new ArrayList<>();
+        for (String address : list.split(",")) {
+            if (!address.isBlank()) {
+                addresses.add(address.trim());
+            }
+        }
+        return addresses;
+    }
+
+    private static String jsonField(String body, String field) {
+        try {
+            JsonElement json = JsonParser.parseString(body);
+            if (json.isJsonObject()) {
+                JsonElement value = ((JsonObject) json).get(field);
+                return value != null && value.isJsonPrimitive() ? value.getAsString() : null;
+            }
+        } catch (JsonParseException e) {
+            // The route rejects the body; the IP and item limits still apply
+        }
+        return null;
+    }
+
+    private static double doubleEnv(String name, double defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    private static int intEnv(String name, int defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.controller;
+
+import org.example.model.BroadcastService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.UUID;
+
+/**
+ * One open {@code text/event-stream} response, written with non-blocking
+ * servlet output.
+ * <p>
+ * Events are queued by the broadcasting thread and written whenever the
+ * container reports the connection ready, so a slow client never blocks a
+ * broadcast. A client that falls more than {@link #MAX_QUEUED_EVENTS} events
+ * behind, or whose connection fails, is unsubscribed and its response completed.
+ */
+class SseStream implements BroadcastService.Subscriber, WriteListener, AsyncListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SseStream.class);
+
+    static final int MAX_QUEUED_EVENTS = 256;
+
+    private final AsyncContext async;
+    private final ServletOutputStream out;
+    private final UUID itemId;
+
+    // Guarded by this
+    private final Queue<byte[]> pending = new ArrayDeque<>();
+    private boolean flushNeeded;
+    private boolean closed;
+
+    SseStream(AsyncContext async, UUID itemId) throws IOException {
+        this.async = async;
+        this.itemId = itemId;
+        this.out = async.getResponse().getOutputStream();
+        async.addListener(this);
+        out.setWriteListener(this);
+    }
+
+    @Override
+    public UUID itemId() {
+        return itemId;
+    }
+
+    @Override
+    public void send(byte[] event) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (pending.size() >= MAX_QUEUED_EVENTS) {
+                log.warn("SSE client fell {} events behind, closing the stream", pending.size());
+                close();
+                return;
+            }
+            pending.add(event);
+        }
+        drain();
+    }
+
+    @Override
+    public void onWritePossible() {
+        drain();
+    }
+
+    /**
+     * Writes queued events while the connection accepts them, then flushes.
+     * Stops as soon as a write is pending; the container calls
+     * {@link #onWritePossible()} once it completes.
+     */
+    private synchronized void drain() {
+        try {
+            while (!closed && out.isReady()) {
+                byte[] next = pending.poll();
+                if (next != null) {
+                    out.write(next);
+                    flushNeeded = true;
+                } else if (flushNeeded) {
+                    flushNeeded = false;
+                    out.flush();
+                } else {
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("SSE write failed: {}", e.getMessage());
+            close();
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        log.debug("SSE stream failed: {}", t.getMessage());
+        close();
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        release();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+
+    private void close() {
+        if (release()) {
+            try {
+                async.complete();
+            } catch (IllegalStateException e) {
+                // Already completed by the container
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} the first time it is called.
+     */
+    private boolean release() {
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            pending.clear();
+        }
+        BroadcastService.unsubscribe(this);
+        return true;
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.dto;
 
+import org.example.model.Money;
 
 /**
  * This is a data transfer object for an item sent as a web response.
@@ -13,8 +14,8 @@ public class ItemWebResponse {
     private String id;
     private String name;
     private String description;
-    private double price;
-    private double lastOffer;
+    private Money price = Money.ZERO;
+    private Money lastOffer = Money.ZERO;
 
     /**
      * Gets the unique identifier of the item.
@@ -75,16 +76,16 @@ public class ItemWebResponse {
      *
      * @return The item's price.
      */
-    public double getPrice() {
+    public Money getPrice() {
         return price;
     }
 
     /**
      * Sets the price of the item.
      *
-     * @param price The double value to be set as the item's price.
+     * @param price The amount to be set as the item's price.
      */
-    public void setPrice(double price) {
+    public void setPrice(Money price) {
         this.price = price;
     }
 
@@ -93,16 +94,16 @@ public class ItemWebResponse {
      *
      * @return The last offer price.
      */
-    public double getLastOffer() {
+    public Money getLastOffer() {
         return lastOffer;
     }
 
     /**
      * Sets the last offer made for the item.
      *
-     * @param lastOffer The double value to be set as the last offer.
+     * @param lastOffer The amount to be set as the last offer.
      */
-    public void setLastOffer(double lastOffer) {
+    public void setLastOffer(Money lastOffer) {
         this.lastOffer = lastOffer;
     }
 }
@@ -0,0 +1,36 @@
+package org.example.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.example.model.ApiError;
+
+import java.io.IOException;
+
+/**
+ * Streams an {@link ApiError} as {@code {"error": "..."}}, without reflection.
+ */
+final class ApiErrorAdapter extends TypeAdapter<ApiError> {
+
+    @Override
+    public void write(JsonWriter out, ApiError error) throws IOException {
+        out.beginObject();
+        out.name("error").value(error.getError());
+        out.endObject();
+    }
+
+    @Override
+    public ApiError read(JsonReader in) throws IOException {
+        String message = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if (in.nextName().equals("error")) {
+                message = Json.nextString(in);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return new ApiError(message);
+    }
+}
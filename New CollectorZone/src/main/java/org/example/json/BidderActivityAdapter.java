@@ -0,0 +1,38 @@
+package org.example.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.example.model.BidderActivity;
+
+import java.io.IOException;
+
+/**
+ * Streams a {@link BidderActivity} as {@code {"name": "...", "offers": n}}, without reflection.
+ */
+final class BidderActivityAdapter extends TypeAdapter<BidderActivity> {
+
+    @Override
+    public void write(JsonWriter out, BidderActivity bidder) throws IOException {
+        out.beginObject();
+        out.name("name").value(bidder.name());
+        out.name("offers").value(bidder.offers());
+        out.endObject();
+    }
+
+    @Override
+    public BidderActivity read(JsonReader in) throws IOException {
+        String name = null;
+        long offers = 0;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "name" -> name = Json.nextString(in);
+                case "offers" -> offers = Json.nextLong(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new BidderActivity(name, offers);
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.example.model.CollectibleItem;
+import org.example.model.Money;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Streams a {@link CollectibleItem} with the same field names and order as
+ * reflective Gson, without reflection. Unknown fields are skipped.
+ */
+final class CollectibleItemAdapter extends TypeAdapter<CollectibleItem> {
+
+    @Override
+    public void write(JsonWriter out, CollectibleItem item) throws IOException {
+        out.beginObject();
+        out.name("id").value(item.getId());
+        out.name("name").value(item.getName());
+        out.name("description").value(item.getDescription());
+        Json.writeMoney(out.name("price"), item.getPrice());
+        Json.writeMoney(out.name("currentTopOffer"), item.getCurrentTopOffer());
+        out.name("offerCount").value(item.getOfferCount());
+        out.name("version").value(item.getVersion());
+        out.endObject();
+    }
+
+    @Override
+    public CollectibleItem read(JsonReader in) throws IOException {
+        UUID id = null;
+        String name = null;
+        String description = null;
+        Money price = Money.ZERO;
+        Money currentTopOffer = Money.ZERO;
+        int offerCount = 0;
+        long version = 0;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> id = Json.nextUuid(in);
+                case "name" -> name = Json.nextString(in);
+                case "description" -> description = Json.nextString(in);
+                case "price" -> price = Json.nextMoney(in);
+                case "currentTopOffer" -> currentTopOffer = Json.nextMoney(in);
+                case "offerCount" -> offerCount = Json.nextInt(in);
+                case "version" -> version = Json.nextLong(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new CollectibleItem(id, name, description, price, currentTopOffer, offerCount, version);
+    }
+}
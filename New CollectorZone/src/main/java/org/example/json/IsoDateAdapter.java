@@ -0,0 +1,55 @@
+package org.example.json;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Writes dates as ISO-8601 instants in UTC. Reads ISO-8601 with any offset,
+ * epoch milliseconds, and, for clients written against the reflective Gson,
+ * its US-English default format ({@code Oct 19, 2026, 10:00:00 AM}).
+ */
+final class IsoDateAdapter extends TypeAdapter<Date> {
+
+    @Override
+    public void write(JsonWriter out, Date value) throws IOException {
+        out.value(Instant.ofEpochMilli(value.getTime()).toString());
+    }
+
+    @Override
+    public Date read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NUMBER) {
+            return new Date(in.nextLong());
+        }
+        return parse(in.nextString());
+    }
+
+    static Date parse(String value) {
+        try {
+            return Date.from(Instant.parse(value));
+        } catch (DateTimeParseException e) {
+            // Not UTC; try with an offset
+        }
+        try {
+            return Date.from(OffsetDateTime.parse(value).toInstant());
+        } catch (DateTimeParseException e) {
+            // Not ISO-8601; try the legacy format
+        }
+        try {
+            return DateFormat.getDateTimeInstance(DateFormat.DEFAULT, DateFormat.DEFAULT, Locale.US).parse(value);
+        } catch (ParseException e) {
+            throw new JsonSyntaxException("Invalid date: " + value, e);
+        }
+    }
+}
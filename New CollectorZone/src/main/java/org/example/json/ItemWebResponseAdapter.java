@@ -0,0 +1,44 @@
+package org.example.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.example.dto.ItemWebResponse;
+
+import java.io.IOException;
+
+/**
+ * Streams an {@link ItemWebResponse} with the same field names and order as
+ * reflective Gson, without reflection. Unknown fields are skipped.
+ */
+final class ItemWebResponseAdapter extends TypeAdapter<ItemWebResponse> {
+
+    @Override
+    public void write(JsonWriter out, ItemWebResponse item) throws IOException {
+        out.beginObject();
+        out.name("id").value(item.getId());
+        out.name("name").value(item.getName());
+        out.name("description").value(item.getDescription());
+        Json.writeMoney(out.name("price"), item.getPrice());
+        Json.writeMoney(out.name("lastOffer"), item.getLastOffer());
+        out.endObject();
+    }
+
+    @Override
+    public ItemWebResponse read(JsonReader in) throws IOException {
+        ItemWebResponse item = new ItemWebResponse();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> item.setId(Json.nextString(in));
+                case "name" -> item.setName(Json.nextString(in));
+                case "description" -> item.setDescription(Json.nextString(in));
+                case "price" -> item.setPrice(Json.nextMoney(in));
+                case "lastOffer" -> item.setLastOffer(Json.nextMoney(in));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return item;
+    }
+}
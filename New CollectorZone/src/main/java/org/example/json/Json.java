@@ -0,0 +1,107 @@
+package org.example.json;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.example.dto.ItemWebResponse;
+import org.example.model.ApiError;
+import org.example.model.BidderActivity;
+import org.example.model.CollectibleItem;
+import org.example.model.Money;
+import org.example.model.Offer;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * The application's shared {@link Gson} instance.
+ * <p>
+ * The API types are written and read by hand-written streaming adapters
+ * instead of reflection, prices are exact decimals with two fraction digits,
+ * and timestamps are ISO-8601 in UTC
+ * ({@code 2026-10-19T10:00:00Z}) instead of the JVM's locale-dependent
+ * {@code DateFormat}. Gson is thread-safe, so everything uses this one instance.
+ */
+public final class Json {
+
+    public static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(Date.class, new IsoDateAdapter().nullSafe())
+            .registerTypeAdapter(CollectibleItem.class, new CollectibleItemAdapter().nullSafe())
+            .registerTypeAdapter(Offer.class, new OfferAdapter().nullSafe())
+            .registerTypeAdapter(ItemWebResponse.class, new ItemWebResponseAdapter().nullSafe())
+            .registerTypeAdapter(ApiError.class, new ApiErrorAdapter().nullSafe())
+            .registerTypeAdapter(BidderActivity.class, new BidderActivityAdapter().nullSafe())
+            .create();
+
+    private Json() {
+    }
+
+    /**
+     * Reads a string, or {@code null} for a JSON {@code null}.
+     */
+    static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    /**
+     * Reads an amount of money from its literal digits, so it is never rounded
+     * through a double. Accepts a number or a numeric string; {@code null} is zero.
+     *
+     * @throws JsonSyntaxException if the value is not an amount with at most two decimals.
+     */
+    static Money nextMoney(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return Money.ZERO;
+        }
+        try {
+            return Money.parse(in.nextString());
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * Writes an amount of money as a JSON number with two decimals, e.g. {@code 1250.50}.
+     */
+    static void writeMoney(JsonWriter out, Money amount) throws IOException {
+        out.jsonValue(amount.toString());
+    }
+
+    static long nextLong(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0;
+        }
+        try {
+            return in.nextLong();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    static int nextInt(JsonReader in) throws IOException {
+        long value = nextLong(in);
+        if (value != (int) value) {
+            throw new JsonSyntaxException("Number out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    static UUID nextUuid(JsonReader in) throws IOException {
+        String value = nextString(in);
+        try {
+            return value != null ? UUID.fromString(value) : null;
+        } catch (IllegalArgumentException e) {
+            throw new JsonSyntaxException("Invalid UUID: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.example.model.Money;
+import org.example.model.Offer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Streams an {@link Offer} with the same field names and order as
+ * reflective Gson, without reflection, and {@code createdAt} as ISO-8601.
+ * Unknown fields are skipped.
+ */
+final class OfferAdapter extends TypeAdapter<Offer> {
+
+    private final IsoDateAdapter dates = new IsoDateAdapter();
+
+    @Override
+    public void write(JsonWriter out, Offer offer) throws IOException {
+        out.beginObject();
+        out.name("name").value(offer.getName());
+        out.name("email").value(offer.getEmail());
+        if (offer.getId() != null) {
+            out.name("id").value(offer.getId().toString());
+        }
+        Json.writeMoney(out.name("price"), offer.getPrice());
+        out.name("itemId").value(offer.getItemId());
+        if (offer.getCreatedAt() != null) {
+            out.name("createdAt").value(offer.getCreatedAt().toString());
+        }
+        out.name("version").value(offer.getVersion());
+        out.endObject();
+    }
+
+    @Override
+    public Offer read(JsonReader in) throws IOException {
+        String name = null;
+        String email = null;
+        UUID id = null;
+        Money price = Money.ZERO;
+        UUID itemId = null;
+        Instant createdAt = null;
+        long version = 0;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "name" -> name = Json.nextString(in);
+                case "email" -> email = Json.nextString(in);
+                case "id" -> id = Json.nextUuid(in);
+                case "price" -> price = Json.nextMoney(in);
+                case "itemId" -> itemId = Json.nextUuid(in);
+                case "createdAt" -> {
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                    } else {
+                        createdAt = dates.read(in).toInstant();
+                    }
+                }
+                case "version" -> version = Json.nextLong(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Offer(name, email, id, price, itemId, createdAt, version);
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.model;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * An alternative path for validating and storing new bids, used by
+ * {@link OfferService#createOffer(Offer)} instead of its one-transaction-per-bid
+ * insert. Selected with {@code OFFER_WRITE_MODE}, see {@link #fromEnvironment(ItemService)}.
+ */
+public interface BidWriter extends AutoCloseable {
+
+    /**
+     * Validates a bid and stores it, or makes it durable enough to acknowledge.
+     *
+     * @param offer  The bid.
+     * @param itemId The item's ID.
+     * @return The accepted offer, with its generated ID.
+     * @throws ApiException 404 if the item does not exist, 409 if the bid is too low.
+     */
+    Offer write(Offer offer, UUID itemId);
+
+    /**
+     * Starts the writer. Must be called after the schema migrations and before the first bid.
+     */
+    default void start() {}
+
+    /**
+     * Waits until every accepted bid is visible in the database.
+     */
+    default void flush() {}
+
+    /**
+     * Drops anything cached about an item after its rows were changed directly in the database.
+     *
+     * @param itemId The item's ID.
+     */
+    default void forget(UUID itemId) {}
+
+    /**
+     * Writes the pending bids and stops the writer.
+     */
+    @Override
+    void close() throws IOException;
+
+    /**
+     * Creates the writer selected by {@code OFFER_WRITE_MODE}: {@code write-behind}
+     * or {@code group-commit}. Any other value keeps the default synchronous insert.
+     *
+     * @param itemService The item service.
+     * @return The writer, not yet started, or null for the default.
+     * @throws IllegalStateException if {@code write-behind} is selected without single-writer mode.
+     */
+    static BidWriter fromEnvironment(ItemService itemService) {
+        return forMode(System.getenv("OFFER_WRITE_MODE"), itemService);
+    }
+
+    /**
+     * Creates the writer for a write mode, see {@link #fromEnvironment(ItemService)}.
+     * <p>
+     * {@code write-behind} checks bids against the top offers this process
+     * has accepted, which misses bids stored by other nodes, so it needs
+     * single-writer mode ({@code ITEM_CATALOG=memory}).
+     */
+    static BidWriter forMode(String mode, ItemService itemService) {
+        if ("write-behind".equals(mode)) {
+            if (!itemService.isSingleWriter()) {
+                throw new IllegalStateException("OFFER_WRITE_MODE=write-behind requires ITEM_CATALOG=memory, "
+                        + "with this process as the only one writing to the database");
+            }
+            return WriteBehindOfferStore.fromEnvironment(itemService);
+        }
+        if ("group-commit".equals(mode)) {
+            return GroupCommitOfferWriter.fromEnvironment(itemService);
+        }
+        return null;
+    }
+}
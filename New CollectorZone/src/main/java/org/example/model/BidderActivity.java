@@ -0,0 +1,10 @@
+package org.example.model;
+
+/**
+ * How many offers a bidder has on the items, for the "most active bidders" ranking.
+ *
+ * @param name   The name on the bidder's most recent offer.
+ * @param offers The number of offers.
+ */
+public record BidderActivity(String name, long offers) {
+}
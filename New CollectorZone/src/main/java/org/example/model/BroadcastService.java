@@ -1,45 +1,468 @@
 package org.example.model;
 
+import com.google.gson.Gson;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
 import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.common.WebSocketRemoteEndpoint;
+import org.eclipse.jetty.websocket.common.frames.TextFrame;
+import org.example.json.Json;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
+/**
+ * Sends offer events to the connected WebSocket clients.
+ * <p>
+ * Every event gets a sequence number that increases by one per event and is
+ * kept in a bounded history. Frames are JSON:
+ * <ul>
+ *     <li>{@code {"type":"hello","epoch":..,"seq":..}} when a client connects, with the last sequence number sent.</li>
+ *     <li>{@code {"type":"offer","epoch":..,"seq":..,"message":".."}} for every event.</li>
+ *     <li>{@code {"type":"snapshot","epoch":..,"seq":..}} when missed events can no longer be replayed;
+ *     the client must reload the current state.</li>
+ * </ul>
+ * A client that reconnects sends its last seen epoch and sequence number, see
+ * {@link #resume(Session, long, long)}, and receives the events it missed
+ * while disconnected. The epoch identifies this run of the server, since
+ * sequence numbers start over on every start. Events after the hello's
+ * sequence number are sent live as soon as the client connects, possibly
+ * before the replay; the client holds them back until the replay reaches
+ * the hello's sequence number.
+ * <p>
+ * At most {@code WS_MAX_CONNECTIONS} sessions are accepted; further clients
+ * are closed with {@code 1013 Try Again Later}. Sessions that have not sent
+ * anything, not even a pong, for a while are evicted by
+ * {@link #reapIdleSessions(long)}, see {@link SessionHeartbeat}.
+ * <p>
+ * Each frame is serialized and UTF-8 encoded once, into a read-only heap
+ * buffer that every session's asynchronous send shares. A client that falls
+ * more than {@code WS_MAX_QUEUED_FRAMES} frames behind is evicted.
+ * <p>
+ * The same events, with the same sequence numbers, also go to the
+ * Server-Sent Events {@link Subscriber}s of {@code GET /offers/stream}, which
+ * resume from the standard {@code Last-Event-ID} header instead.
+ */
 public class BroadcastService {
 
     private static final Logger logger = LoggerFactory.getLogger(BroadcastService.class);
 
-    // Usamos CopyOnWriteArrayList para seguridad en concurrencia (thread-safety).
-    // Es eficiente cuando hay muchas lecturas (broadcasts) y pocas escrituras (conexiones/desconexiones).
-    private static final List<Session> sessions = new CopyOnWriteArrayList<>();
+    private static final int DEFAULT_HISTORY_SIZE = 1024;
 
-    public static void addSession(Session session) {
-        sessions.add(session);
+    static final int HISTORY_SIZE = System.getenv("BROADCAST_HISTORY") != null
+            ? Integer.parseInt(System.getenv("BROADCAST_HISTORY"))
+            : DEFAULT_HISTORY_SIZE;
+
+    static final long EPOCH = System.currentTimeMillis();
+
+    private static final int DEFAULT_MAX_SESSIONS = 10_000;
+
+    private static volatile int maxSessions = System.getenv("WS_MAX_CONNECTIONS") != null
+            ? Integer.parseInt(System.getenv("WS_MAX_CONNECTIONS"))
+            : DEFAULT_MAX_SESSIONS;
+
+    private static final int DEFAULT_MAX_QUEUED_FRAMES = 256;
+
+    private static final int MAX_QUEUED_FRAMES = System.getenv("WS_MAX_QUEUED_FRAMES") != null
+            ? Integer.parseInt(System.getenv("WS_MAX_QUEUED_FRAMES"))
+            : DEFAULT_MAX_QUEUED_FRAMES;
+
+    private static final ByteBuffer PING = ByteBuffer.allocate(0);
+
+    private static final Gson gson = Json.GSON;
+
+    private record Frame(String type, long epoch, long seq, UUID itemId, String message) {}
+
+    // Un evento del historial, codificado una vez para WebSocket y otra para SSE.
+    private record Event(UUID itemId, ByteBuffer frame, byte[] sse) {}
+
+    /**
+     * A Server-Sent Events client of {@code GET /offers/stream}.
+     */
+    public interface Subscriber {
+
+        /**
+         * @return The only item whose offers are sent, or {@code null} for all items.
+         */
+        UUID itemId();
+
+        /**
+         * Queues an encoded event for the client. Must not block.
+         */
+        void send(byte[] event);
+    }
+
+    private static final byte[] KEEP_ALIVE = ": keep-alive\n\n".getBytes(StandardCharsets.UTF_8);
+
+    // Suscriptor SSE -> último número de secuencia enviado cuando se suscribió.
+    private static final Map<Subscriber, Long> subscribers = new ConcurrentHashMap<>();
+
+    private static final class Client implements WriteCallback {
+        final Session session;
+        // Último número de secuencia enviado cuando se conectó.
+        // Las secuencias posteriores le llegan en directo; las anteriores, con resume().
+        final long connectSeq;
+        // Última vez que el cliente envió algo, en milisegundos.
+        volatile long lastSeen = System.currentTimeMillis();
+
+        Client(Session session, long connectSeq) {
+            this.session = session;
+            this.connectSeq = connectSeq;
+        }
+
+        @Override
+        public void writeFailed(Throwable x) {
+            logger.error("Error al enviar mensaje a la sesión {}: {}", session.getRemoteAddress(), x.getMessage());
+            evict(session, x.getMessage());
+        }
+
+        @Override
+        public void writeSuccess() {
+        }
+    }
+
+    private static final SessionRegistry<Client> sessions = new SessionRegistry<>();
+
+    // Plazas ocupadas frente a maxSessions, reservadas antes de registrar la sesión.
+    private static final AtomicInteger admitted = new AtomicInteger();
+
+    // Historial circular de frames: el evento con secuencia s está en history[s % HISTORY_SIZE].
+    private static final Object historyLock = new Object();
+    private static final Event[] history = new Event[HISTORY_SIZE];
+    private static long lastSeq;
+
+    /**
+     * Registers a new client, or closes it when the server already has the
+     * maximum number of sessions.
+     *
+     * @param session The newly connected client's session.
+     * @return {@code false} if the session was rejected.
+     */
+    public static boolean addSession(Session session) {
+        if (!admit()) {
+            logger.warn("Límite de {} sesiones alcanzado, rechazando {}", maxSessions, session.getRemoteAddress());
+            session.close(StatusCode.TRY_AGAIN_LATER, "Too many connections");
+            return false;
+        }
+        Client client;
+        Client previous;
+        // Solo se toma historyLock para leer lastSeq y registrar la sesión a la
+        // vez, de modo que broadcast() la vea o resume() le repita el evento.
+        synchronized (historyLock) {
+            client = new Client(session, lastSeq);
+            previous = sessions.put(session, client);
+        }
+        if (previous != null) {
+            admitted.decrementAndGet();
+        }
         logger.info("Nueva sesión añadida. Total de sesiones: {}", sessions.size());
+        if (session.getRemote() instanceof WebSocketRemoteEndpoint remote) {
+            remote.setMaxOutgoingFrames(MAX_QUEUED_FRAMES);
+        }
+        send(client, encode(new Frame("hello", EPOCH, client.connectSeq, null, null)));
+        return true;
+    }
+
+    /**
+     * Takes one of the {@code maxSessions} places, without locking.
+     *
+     * @return {@code false} if they are all taken.
+     */
+    private static boolean admit() {
+        int current;
+        do {
+            current = admitted.get();
+            if (current >= maxSessions) {
+                return false;
+            }
+        } while (!admitted.compareAndSet(current, current + 1));
+        return true;
     }
 
     public static void removeSession(Session session) {
-        sessions.remove(session);
+        if (sessions.remove(session) != null) {
+            admitted.decrementAndGet();
+        }
         logger.info("Sesión eliminada. Total de sesiones: {}", sessions.size());
     }
 
     /**
-     * Envía un mensaje de texto a TODOS los clientes conectados.
+     * Records that the client sent something, e.g. a pong or a message.
      */
-    public static void broadcast(String message) {
-        logger.info("Iniciando broadcast: {}", message);
+    public static void touch(Session session) {
+        Client client = sessions.get(session);
+        if (client != null) {
+            client.lastSeen = System.currentTimeMillis();
+        }
+    }
 
-        for (Session session : sessions) {
+    /**
+     * Sends a ping to every session. Pings are sent asynchronously, so a
+     * half-open connection does not hold up the others.
+     */
+    public static void pingSessions() {
+        sessions.forEach((session, client) -> {
             if (session.isOpen()) {
                 try {
-                    // Envía el mensaje a este cliente específico
-                    session.getRemote().sendString(message);
+                    session.getRemote().sendPing(PING.duplicate());
                 } catch (IOException e) {
-                    logger.error("Error al enviar mensaje a la sesión {}: {}", session.getRemoteAddress(), e.getMessage());
+                    evict(session, e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Evicts the sessions that are closed or have not sent anything since the
+     * given time, dropping their connections without a close handshake.
+     *
+     * @param cutoffMillis Sessions last seen before this time are evicted.
+     * @return The number of sessions evicted.
+     */
+    public static int reapIdleSessions(long cutoffMillis) {
+        int[] evicted = {0};
+        sessions.forEach((session, client) -> {
+            if (!session.isOpen() || client.lastSeen < cutoffMillis) {
+                evict(session, "inactiva");
+                evicted[0]++;
+            }
+        });
+        return evicted[0];
+    }
+
+    /**
+     * @return The number of registered sessions.
+     */
+    public static int sessionCount() {
+        return sessions.size();
+    }
+
+    static void setMaxSessions(int max) {
+        maxSessions = max;
+    }
+
+    /**
+     * Envía un mensaje de texto a TODOS los clientes conectados, como evento
+     * con el siguiente número de secuencia, y lo guarda en el historial.
+     */
+    public static void broadcast(String message) {
+        broadcast(null, message);
+    }
+
+    /**
+     * Envía el mensaje de una oferta a todos los clientes WebSocket y a los
+     * suscriptores SSE de ese item.
+     *
+     * @param itemId  El item de la oferta, o {@code null} si no se conoce.
+     * @param message El texto de la notificación.
+     */
+    public static void broadcast(UUID itemId, String message) {
+        logger.info("Iniciando broadcast: {}", message);
+
+        long seq;
+        Event event;
+        synchronized (historyLock) {
+            seq = ++lastSeq;
+            Frame frame = new Frame("offer", EPOCH, seq, itemId, message);
+            event = new Event(itemId, encode(frame), sse(frame));
+            history[(int) (seq % HISTORY_SIZE)] = event;
+        }
+        ByteBuffer frame = event.frame();
+
+        // Las sesiones con connectSeq < seq se registraron antes de asignar la
+        // secuencia (ambas cosas bajo historyLock), así que el recorrido las ve.
+        // Las demás lo reciben con resume(): cada evento llega una sola vez.
+        sessions.forEach((session, client) -> {
+            if (client.connectSeq < seq) {
+                send(client, frame);
+            }
+        });
+        subscribers.forEach((subscriber, connectSeq) -> {
+            if (connectSeq < seq && matches(subscriber, itemId)) {
+                subscriber.send(event.sse());
+            }
+        });
+    }
+
+    /**
+     * Registers a Server-Sent Events client. A client that reconnects with
+     * the {@code Last-Event-ID} of the last event it saw first gets the
+     * events for its item that it missed, or a snapshot event when they are
+     * no longer in the history. Every client then gets the current position
+     * as its event id, so a later reconnect resumes from there.
+     *
+     * @param subscriber  The new client.
+     * @param lastEventId The client's {@code Last-Event-ID} header, or {@code null}.
+     */
+    public static void subscribe(Subscriber subscriber, String lastEventId) {
+        // Todo se encola bajo historyLock, así que la repetición llega antes que
+        // cualquier evento en directo con una secuencia mayor.
+        synchronized (historyLock) {
+            long connectSeq = lastSeq;
+            subscribers.put(subscriber, connectSeq);
+            if (lastEventId != null) {
+                long[] cursor = parseEventId(lastEventId);
+                if (cursor == null || !replay(cursor[0], cursor[1], connectSeq, event -> {
+                    if (matches(subscriber, event.itemId())) {
+                        subscriber.send(event.sse());
+                    }
+                })) {
+                    subscriber.send(sse(new Frame("snapshot", EPOCH, connectSeq, null, null)));
                 }
             }
+            subscriber.send(("retry: 3000\nid: " + EPOCH + "-" + connectSeq + "\n\n").getBytes(StandardCharsets.UTF_8));
+        }
+        logger.info("Nuevo suscriptor SSE. Total de suscriptores: {}", subscribers.size());
+    }
+
+    public static void unsubscribe(Subscriber subscriber) {
+        if (subscribers.remove(subscriber) != null) {
+            logger.info("Suscriptor SSE eliminado. Total de suscriptores: {}", subscribers.size());
+        }
+    }
+
+    /**
+     * Sends a comment to every Server-Sent Events client, so proxies keep
+     * the connection open and dead clients fail their next write.
+     */
+    public static void keepAliveStreams() {
+        subscribers.keySet().forEach(subscriber -> subscriber.send(KEEP_ALIVE));
+    }
+
+    /**
+     * @return The number of Server-Sent Events clients.
+     */
+    public static int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private static boolean matches(Subscriber subscriber, UUID itemId) {
+        return subscriber.itemId() == null || subscriber.itemId().equals(itemId);
+    }
+
+    /**
+     * Parses an SSE event id, {@code <epoch>-<seq>}.
+     *
+     * @return The epoch and sequence number, or {@code null} if the id is malformed.
+     */
+    private static long[] parseEventId(String eventId) {
+        int dash = eventId.indexOf('-');
+        try {
+            return new long[]{Long.parseLong(eventId.substring(0, dash)), Long.parseLong(eventId.substring(dash + 1))};
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Hands the events after {@code seq} up to {@code connectSeq} to the
+     * action, if they are all still in the history. Caller holds historyLock.
+     *
+     * @return {@code false} if the events cannot be replayed and the client needs a snapshot.
+     */
+    private static boolean replay(long epoch, long seq, long connectSeq, Consumer<Event> action) {
+        long oldest = Math.max(1, lastSeq - HISTORY_SIZE + 1);
+        if (epoch != EPOCH || seq > connectSeq || seq + 1 < oldest) {
+            return false;
+        }
+        for (long s = seq + 1; s <= connectSeq; s++) {
+            action.accept(history[(int) (s % HISTORY_SIZE)]);
+        }
+        return true;
+    }
+
+    /**
+     * Replays the events a reconnecting client missed: those after its last
+     * seen sequence number up to the moment it connected again. Sends a
+     * snapshot frame instead when the events are no longer in the history or
+     * the client's sequence number belongs to another run or node.
+     *
+     * @param session The client's new session.
+     * @param epoch   The epoch of the last event the client saw.
+     * @param seq     The sequence number of the last event the client saw.
+     */
+    public static void resume(Session session, long epoch, long seq) {
+        List<ByteBuffer> missed = new ArrayList<>();
+        long current;
+        boolean snapshot;
+
+        Client client = sessions.get(session);
+        if (client == null) {
+            return;
+        }
+        synchronized (historyLock) {
+            current = lastSeq;
+            snapshot = !replay(epoch, seq, client.connectSeq, event -> missed.add(event.frame()));
+        }
+
+        if (snapshot) {
+            logger.info("Sesión {} sin historial suficiente desde {}, enviando snapshot", session.getRemoteAddress(), seq);
+            send(client, encode(new Frame("snapshot", EPOCH, current, null, null)));
+            return;
+        }
+        for (ByteBuffer frame : missed) {
+            send(client, frame);
+        }
+    }
+
+    /**
+     * Serializes and encodes a frame once, for all the sessions it is sent to.
+     */
+    private static ByteBuffer encode(Frame frame) {
+        byte[] utf8 = gson.toJson(frame).getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.wrap(utf8).asReadOnlyBuffer();
+    }
+
+    /**
+     * Encodes a frame as a Server-Sent Event, with its JSON as the data.
+     */
+    private static byte[] sse(Frame frame) {
+        return ("id: " + frame.epoch() + "-" + frame.seq() + "\nevent: " + frame.type()
+                + "\ndata: " + gson.toJson(frame) + "\n\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void send(Client client, ByteBuffer frame) {
+        Session session = client.session;
+        if (!session.isOpen()) {
+            return;
+        }
+        try {
+            // Envía el mensaje a este cliente específico, sin esperar a que se escriba.
+            // Cada sesión recibe su propia vista (duplicate) del mismo buffer.
+            RemoteEndpoint remote = session.getRemote();
+            // La API pública de Jetty solo envía Strings, que re-codifica por sesión;
+            // uncheckedSendFrame de su implementación es la única forma de enviar
+            // un frame de texto ya codificado. Otros endpoints usan sendString.
+            if (remote instanceof WebSocketRemoteEndpoint jetty) {
+                jetty.uncheckedSendFrame(new TextFrame().setPayload(frame.duplicate()), client);
+            } else {
+                remote.sendString(StandardCharsets.UTF_8.decode(frame.duplicate()).toString(), client);
+            }
+        } catch (RuntimeException e) {
+            client.writeFailed(e);
+        }
+    }
+
+    private static void evict(Session session, String reason) {
+        if (sessions.remove(session) == null) {
+            return;
+        }
+        admitted.decrementAndGet();
+        logger.info("Sesión {} expulsada ({}). Total de sesiones: {}", session.getRemoteAddress(), reason, sessions.size());
+        try {
+            session.disconnect();
+        } catch (IOException e) {
+            logger.warn("Error al desconectar la sesión {}: {}", session.getRemoteAddress(), e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
@@ -1,52 +1,147 @@
 package org.example.model;
 
-public class CollectibleItem {
-    private String id;
-    private String name;
-    private String description;
-    private double price;
+import java.util.Objects;
+import java.util.UUID;
 
-    public CollectibleItem () {
+/**
+ * An item up for auction.
+ * <p>
+ * Immutable, so caches and in-memory catalogs can share instances freely; the
+ * {@code with...} methods return changed copies. The fields are compact for
+ * large catalogs: the ID is held as the two halves of its UUID instead of a
+ * 36-character string, and prices as whole cents, handed out as {@link Money}.
+ * The nil UUID stands for "no ID yet", e.g. in a request body.
+ */
+public final class CollectibleItem {
 
+    private final long idMsb;
+    private final long idLsb;
+    private final String name;
+    private final String description;
+    private final long priceCents;
+    private final long currentTopOfferCents;
+    private final int offerCount;
+    private final long version;
+
+    public CollectibleItem(String id, String name, String description, Money price) {
+        this(id, name, description, price, Money.ZERO, 0);
+    }
+
+    public CollectibleItem(String id, String name, String description, Money price,
+                           Money currentTopOffer, int offerCount) {
+        this(id != null ? UUID.fromString(id) : null, name, description, price, currentTopOffer, offerCount, 0);
+    }
+
+    public CollectibleItem(UUID id, String name, String description, Money price,
+                           Money currentTopOffer, int offerCount, long version) {
+        this(id != null ? id.getMostSignificantBits() : 0, id != null ? id.getLeastSignificantBits() : 0,
+                name, description, price.cents(), currentTopOffer.cents(), offerCount, version);
     }
 
-    public CollectibleItem (String id, String name, String description, double price){
-        this.id = id;
+    /**
+     * From the raw fields, for stores that already hold them, like {@link ItemCatalog}.
+     */
+    CollectibleItem(long idMsb, long idLsb, String name, String description, long priceCents,
+                    long currentTopOfferCents, int offerCount, long version) {
+        this.idMsb = idMsb;
+        this.idLsb = idLsb;
         this.name = name;
         this.description = description;
-        this.price = price;
+        this.priceCents = priceCents;
+        this.currentTopOfferCents = currentTopOfferCents;
+        this.offerCount = offerCount;
+        this.version = version;
     }
 
+    /**
+     * @return The ID as a string, or null if the item has none yet.
+     */
     public String getId() {
-        return id;
+        UUID id = getUuid();
+        return id != null ? id.toString() : null;
     }
 
-    public void setId(String id) {
-        this.id = id;
+    /**
+     * @return The ID, or null if the item has none yet.
+     */
+    public UUID getUuid() {
+        return idMsb != 0 || idLsb != 0 ? new UUID(idMsb, idLsb) : null;
     }
 
     public String getName() {
         return name;
     }
 
-    public void setName(String name) {
-        this.name = name;
-    }
-
     public String getDescription() {
         return description;
     }
 
-    public void setDescription(String description) {
-        this.description = description;
+    public Money getPrice() {
+        return Money.ofCents(priceCents);
+    }
+
+    /**
+     * The highest offer placed on this item, or zero when there are none.
+     * Maintained by {@link OfferService} on every offer write.
+     */
+    public Money getCurrentTopOffer() {
+        return Money.ofCents(currentTopOfferCents);
+    }
+
+    public int getOfferCount() {
+        return offerCount;
+    }
+
+    /**
+     * Incremented on every update of the item's own fields. Exposed as the
+     * item's ETag, so clients can make updates conditional with {@code If-Match}.
+     */
+    public long getVersion() {
+        return version;
     }
 
-    public double getPrice() {
-        return price;
+    /**
+     * @return A copy with the given ID.
+     */
+    public CollectibleItem withId(String id) {
+        UUID uuid = UUID.fromString(id);
+        return new CollectibleItem(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), name, description,
+                priceCents, currentTopOfferCents, offerCount, version);
     }
 
-    public void setPrice(double price) {
-        this.price = price;
+    /**
+     * @return A copy with the given top offer.
+     */
+    public CollectibleItem withCurrentTopOffer(Money currentTopOffer) {
+        return new CollectibleItem(idMsb, idLsb, name, description,
+                priceCents, currentTopOffer.cents(), offerCount, version);
     }
 
-}
\ No newline at end of file
+    /**
+     * @return A copy with the given version.
+     */
+    public CollectibleItem withVersion(long version) {
+        return new CollectibleItem(idMsb, idLsb, name, description,
+                priceCents, currentTopOfferCents, offerCount, version);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CollectibleItem other)) {
+            return false;
+        }
+        return idMsb == other.idMsb && idLsb == other.idLsb
+                && priceCents == other.priceCents
+                && currentTopOfferCents == other.currentTopOfferCents
+                && offerCount == other.offerCount && version == other.version
+                && Objects.equals(name, other.name) && Objects.equals(description, other.description);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(idMsb ^ idLsb) * 31 + Long.hashCode(version);
+    }
+}
@@ -1,17 +1,123 @@
 package org.example.model;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Map;
 
+/**
+ * Hands out pooled JDBC connections.
+ * <p>
+ * Writes and anything that must see the latest data use {@link #getConnection()},
+ * which always goes to the primary database. Read-only queries that can
+ * tolerate replication lag use {@link #getReadConnection()}, which goes to a
+ * read replica when one is configured and to the primary otherwise.
+ * <p>
+ * In production the primary is set with {@code PROD_DB_URL}, {@code PROD_DB_USER}
+ * and {@code PROD_DB_PASS}; the optional replica with {@code PROD_DB_REPLICA_URL},
+ * plus {@code PROD_DB_REPLICA_USER}/{@code PROD_DB_REPLICA_PASS} when its
+ * credentials differ. {@code DB_POOL_SIZE} sets the size of each pool.
+ * <p>
+ * Outside production the database is H2. It is in-memory by default; with
+ * {@code H2_MODE=file} it is an embedded, file-backed MVStore database for
+ * single-node deployments, see {@link #devUrl(Map)}.
+ */
 public class Database {
 
     private static final String DEV_DB_URL = "jdbc:h2:mem:collectorzone;DB_CLOSE_DELAY=-1";
     private static final String DEV_USER = "sa";
     private static final String DEV_PASS = "";
 
-    public static Connection getConnection() throws SQLException{
+    private static final String DEFAULT_H2_FILE_PATH = "./data/collectorzone";
+    private static final String DEFAULT_H2_CACHE_SIZE_KB = "65536";
+    private static final String DEFAULT_H2_WRITE_DELAY_MS = "200";
+    private static final String DEFAULT_H2_MAX_COMPACT_TIME_MS = "2000";
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private static volatile HikariDataSource primary;
+    private static volatile HikariDataSource replica;
+    private static volatile boolean replicaResolved;
+
+    /**
+     * Returns a connection to the primary database.
+     *
+     * @return A pooled connection; closing it returns it to the pool.
+     * @throws SQLException if the database is not configured or unreachable.
+     */
+    public static Connection getConnection() throws SQLException {
+        return primary().getConnection();
+    }
+
+    /**
+     * Returns a connection for read-only queries, served by the read replica
+     * when one is configured. Results may lag slightly behind the primary, so
+     * reads that validate a write must use {@link #getConnection()} instead.
+     *
+     * @return A pooled connection; closing it returns it to the pool.
+     * @throws SQLException if the database is not configured or unreachable.
+     */
+    public static Connection getReadConnection() throws SQLException {
+        HikariDataSource readPool = replica();
+        return readPool != null ? readPool.getConnection() : getConnection();
+    }
+
+    /**
+     * Creates the connection pools now rather than on the first query, and
+     * checks out a connection from each, so startup fails early when a
+     * database is unreachable.
+     *
+     * @throws SQLException if the database is not configured or unreachable.
+     */
+    public static void open() throws SQLException {
+        try (Connection conn = getConnection()) {
+            conn.isValid(0);
+        }
+        try (Connection conn = getReadConnection()) {
+            conn.isValid(0);
+        }
+    }
+
+    /**
+     * Points read-only queries at the given database, or back at the primary
+     * when {@code url} is null. Replaces any replica read from the environment.
+     */
+    static synchronized void setReplica(String url, String user, String pass) {
+        if (replica != null) {
+            replica.close();
+        }
+        replica = url == null ? null : createPool("collectorzone-replica", url, user, pass, true);
+        replicaResolved = true;
+    }
+
+    private static HikariDataSource primary() throws SQLException {
+        HikariDataSource pool = primary;
+        if (pool == null) {
+            synchronized (Database.class) {
+                if (primary == null) {
+                    primary = createPrimary();
+                }
+                pool = primary;
+            }
+        }
+        return pool;
+    }
+
+    private static HikariDataSource replica() throws SQLException {
+        if (!replicaResolved) {
+            synchronized (Database.class) {
+                if (!replicaResolved) {
+                    replica = createReplica();
+                    replicaResolved = true;
+                }
+            }
+        }
+        return replica;
+    }
 
+    private static HikariDataSource createPrimary() throws SQLException {
         String env = System.getenv("APP_ENV");
 
         if ("prod".equals(env)) {
@@ -24,21 +130,114 @@ public class Database {
                 throw new SQLException("Production's environment variables not found.");
             }
 
-            try {
-                Class.forName("org.postgresql.Driver");
-            } catch (ClassNotFoundException e){
-                throw new SQLException("PostgreSQL's driver not found", e);
-            }
-            return DriverManager.getConnection(dbUrl, dbUser, dbPass);
+            loadDriver("org.postgresql.Driver", "PostgreSQL's driver not found");
+            return createPool("collectorzone-primary", dbUrl, dbUser, dbPass, false);
 
         } else {
 
+            loadDriver("org.h2.Driver", "H2 driver not found");
+            return createPool("collectorzone-primary", devUrl(System.getenv()), DEV_USER, DEV_PASS, false);
+        }
+    }
+
+    /**
+     * Builds the H2 URL used outside production.
+     * <p>
+     * With {@code H2_MODE=file} the database lives in {@code H2_FILE_PATH}
+     * (default {@value #DEFAULT_H2_FILE_PATH}) and the MVStore is tuned with:
+     * <ul>
+     *     <li>{@code H2_CACHE_SIZE_KB}: page cache size, default 64 MB instead of H2's 16 MB,
+     *     so a kiosk's whole catalog stays cached.</li>
+     *     <li>{@code H2_WRITE_DELAY_MS}: how long committed changes may stay in memory
+     *     before the background writer stores them, default 200 ms. This bounds the
+     *     data lost on a power cut; H2's own default is 500 ms.</li>
+     *     <li>{@code H2_MAX_COMPACT_TIME_MS}: time spent compacting the file on close,
+     *     default 2 s, so the file does not keep growing across restarts.</li>
+     * </ul>
+     * Any other mode uses the in-memory database.
+     *
+     * @param env The environment to read the settings from.
+     * @return The JDBC URL.
+     */
+    public static String devUrl(Map<String, String> env) {
+        if (!"file".equals(env.get("H2_MODE"))) {
+            return DEV_DB_URL;
+        }
+        return "jdbc:h2:file:" + env.getOrDefault("H2_FILE_PATH", DEFAULT_H2_FILE_PATH)
+                + ";CACHE_SIZE=" + env.getOrDefault("H2_CACHE_SIZE_KB", DEFAULT_H2_CACHE_SIZE_KB)
+                + ";WRITE_DELAY=" + env.getOrDefault("H2_WRITE_DELAY_MS", DEFAULT_H2_WRITE_DELAY_MS)
+                + ";MAX_COMPACT_TIME=" + env.getOrDefault("H2_MAX_COMPACT_TIME_MS", DEFAULT_H2_MAX_COMPACT_TIME_MS);
+    }
+
+    private static HikariDataSource createReplica() throws SQLException {
+        String replicaUrl = System.getenv("PROD_DB_REPLICA_URL");
+        if (!"prod".equals(System.getenv("APP_ENV")) || replicaUrl == null) {
+            return null;
+        }
+
+        String user = System.getenv("PROD_DB_REPLICA_USER");
+        String pass = System.getenv("PROD_DB_REPLICA_PASS");
+
+        loadDriver("org.postgresql.Driver", "PostgreSQL's driver not found");
+        return createPool("collectorzone-replica", replicaUrl,
+                user != null ? user : System.getenv("PROD_DB_USER"),
+                pass != null ? pass : System.getenv("PROD_DB_PASS"),
+                true);
+    }
+
+    private static HikariDataSource createPool(String name, String url, String user, String pass, boolean readOnly) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        config.setUsername(user);
+        config.setPassword(pass);
+        config.setReadOnly(readOnly);
+
+        String poolSize = System.getenv("DB_POOL_SIZE");
+        config.setMaximumPoolSize(poolSize != null ? Integer.parseInt(poolSize) : DEFAULT_POOL_SIZE);
+        return new HikariDataSource(config);
+    }
+
+    private static void loadDriver(String driverClass, String message) throws SQLException {
+        try {
+            Class.forName(driverClass);
+        } catch (ClassNotFoundException e) {
+            throw new SQLException(message, e);
+        }
+    }
+
+    /**
+     * A unit of work that runs on a connection and may throw {@link SQLException}.
+     *
+     * @param <T> The type of the result.
+     */
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Runs the given work in a single transaction on a new connection.
+     * The transaction is committed when the work returns and rolled back when
+     * it throws, whether with an {@link SQLException} or an unchecked exception
+     * such as {@link ApiException}, which is rethrown unchanged.
+     *
+     * @param work The statements to run.
+     * @param <T>  The type of the result.
+     * @return The value returned by the work.
+     * @throws SQLException if the work or the commit fails.
+     */
+    public static <T> T inTransaction(SqlWork<T> work) throws SQLException {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
             try {
-                Class.forName("org.h2.Driver");
-            } catch (ClassNotFoundException e) {
-                throw new SQLException("H2 driver not found", e);
+                T result = work.run(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
             }
-            return DriverManager.getConnection(DEV_DB_URL, DEV_USER, DEV_PASS);
         }
     }
 }
@@ -0,0 +1,58 @@
+package org.example.model;
+
+import java.sql.DriverManager;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Carries offer events from the {@link OutboxRelay} to every node's local
+ * WebSocket sessions.
+ * <p>
+ * A single node uses {@link LocalEventBus}. With several nodes behind a load
+ * balancer, {@code EVENT_BUS=postgres} selects {@link PostgresEventBus}, which
+ * sends the events through the primary database so each node fans them out to
+ * its own sessions. See {@link #fromEnvironment(Consumer)}.
+ */
+public interface EventBus extends AutoCloseable {
+
+    /**
+     * Publishes a batch of events to every node.
+     *
+     * @param events The events, in sequence order.
+     * @throws IllegalStateException if the events could not be published; the
+     *                               relay then keeps them and tries again.
+     */
+    void publish(List<OfferEvent> events);
+
+    /**
+     * Starts receiving events from other nodes.
+     */
+    default void start() {}
+
+    @Override
+    default void close() {}
+
+    /**
+     * Creates the event bus selected by {@code EVENT_BUS}. {@code postgres}
+     * listens on the production database configured by {@code PROD_DB_URL},
+     * {@code PROD_DB_USER} and {@code PROD_DB_PASS}; anything else keeps events
+     * inside this process.
+     *
+     * @param localSink Fans a batch of events out to this node's sessions.
+     * @return The event bus, not yet started.
+     * @throws IllegalStateException if {@code EVENT_BUS=postgres} but the database is not configured.
+     */
+    static EventBus fromEnvironment(Consumer<List<OfferEvent>> localSink) {
+        if (!"postgres".equals(System.getenv("EVENT_BUS"))) {
+            return new LocalEventBus(localSink);
+        }
+
+        String url = System.getenv("PROD_DB_URL");
+        String user = System.getenv("PROD_DB_USER");
+        String pass = System.getenv("PROD_DB_PASS");
+        if (url == null || user == null || pass == null) {
+            throw new IllegalStateException("EVENT_BUS=postgres needs PROD_DB_URL, PROD_DB_USER and PROD_DB_PASS");
+        }
+        return new PostgresEventBus(() -> DriverManager.getConnection(url, user, pass), localSink);
+    }
+}
@@ -0,0 +1,285 @@
+package org.example.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Group commit for concurrent bids.
+ * <p>
+ * Callers hand their bid to a single writer thread and wait for it. The
+ * writer takes every bid that is queued at that moment and handles them in
+ * one transaction: it locks the items involved (in ID order), validates the
+ * bids in arrival order against each other and the stored top offers, writes
+ * the accepted ones with one batched INSERT and answers every caller once
+ * the transaction commits. Under load, the cost of a commit is shared by the
+ * whole batch.
+ * <p>
+ * A bid that arrives while the writer is idle is written straight away, so
+ * latency is unchanged without contention. Only after a batch of more than
+ * one bid does the writer linger briefly ({@code OFFER_GROUP_COMMIT_LINGER_US},
+ * default 200 µs) to let the next batch fill up.
+ * <p>
+ * A caller waits at most {@code OFFER_WRITE_TIMEOUT_MS} (default 5000) for
+ * its batch and then gets a 503; a bid still queued at that point is
+ * withdrawn.
+ * <p>
+ * Enabled with {@code OFFER_WRITE_MODE=group-commit}.
+ */
+public class GroupCommitOfferWriter implements BidWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitOfferWriter.class);
+
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final long DEFAULT_LINGER_MICROS = 200;
+    private static final long DEFAULT_TIMEOUT_MILLIS = 5000;
+
+    private final ItemService itemService;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final long timeoutMillis;
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean running;
+    private volatile boolean stopped;
+
+    private record Pending(Offer offer, UUID itemId, CompletableFuture<Offer> result) {}
+
+    /**
+     * @param itemService  Used to lock the items of a batch.
+     * @param batchSize    The maximum number of bids per transaction.
+     * @param lingerMicros How long to wait for more bids after a contended batch; 0 never waits.
+     */
+    public GroupCommitOfferWriter(ItemService itemService, int batchSize, long lingerMicros) {
+        this(itemService, batchSize, lingerMicros, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param itemService   Used to lock the items of a batch.
+     * @param batchSize     The maximum number of bids per transaction.
+     * @param lingerMicros  How long to wait for more bids after a contended batch; 0 never waits.
+     * @param timeoutMillis How long {@link #write} waits for a bid's batch to commit.
+     */
+    public GroupCommitOfferWriter(ItemService itemService, int batchSize, long lingerMicros, long timeoutMillis) {
+        this.itemService = itemService;
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MICROSECONDS.toNanos(lingerMicros);
+        this.timeoutMillis = timeoutMillis;
+        this.writer = new Thread(this::drain, "offer-group-commit");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Creates the writer configured by {@code OFFER_WRITE_BATCH} (default 500),
+     * {@code OFFER_GROUP_COMMIT_LINGER_US} (default 200) and
+     * {@code OFFER_WRITE_TIMEOUT_MS} (default 5000).
+     *
+     * @param itemService The item service.
+     * @return The writer, not yet started.
+     */
+    public static GroupCommitOfferWriter fromEnvironment(ItemService itemService) {
+        String batch = System.getenv("OFFER_WRITE_BATCH");
+        String linger = System.getenv("OFFER_GROUP_COMMIT_LINGER_US");
+        String timeout = System.getenv("OFFER_WRITE_TIMEOUT_MS");
+        return new GroupCommitOfferWriter(itemService,
+                batch != null ? Integer.parseInt(batch) : DEFAULT_BATCH_SIZE,
+                linger != null ? Long.parseLong(linger) : DEFAULT_LINGER_MICROS,
+                timeout != null ? Long.parseLong(timeout) : DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer.start();
+    }
+
+    /**
+     * Queues a bid for the next batch and waits until that batch committed.
+     *
+     * @throws ApiException 503 if the batch did not commit in time or the
+     *                      writer is stopped. A bid that timed out while
+     *                      its batch was already being written may still
+     *                      be stored.
+     */
+    @Override
+    public Offer write(Offer offer, UUID itemId) {
+        Pending pending = new Pending(offer, itemId, new CompletableFuture<>());
+        enqueue(pending);
+        try {
+            return pending.result().get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            queue.remove(pending);
+            throw new ApiException(503, "Timed out waiting for the offer to be written");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queue.remove(pending);
+            throw new ApiException(503, "Interrupted while waiting for the offer to be written");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ApiException apiException) {
+                throw apiException;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    /**
+     * Queues a bid for the next batch.
+     *
+     * @param offer  The bid.
+     * @param itemId The item's ID.
+     * @return Completes with the accepted offer and its generated ID once the
+     *         bid is committed, or exceptionally with an {@link ApiException}
+     *         if it is rejected.
+     */
+    CompletableFuture<Offer> submit(Offer offer, UUID itemId) {
+        Pending pending = new Pending(offer, itemId, new CompletableFuture<>());
+        enqueue(pending);
+        return pending.result();
+    }
+
+    private void enqueue(Pending pending) {
+        queue.add(pending);
+        if (stopped) {
+            // The writer may have exited before it saw this bid.
+            failQueued();
+        }
+    }
+
+    /**
+     * Stops the writer after the queued bids have been written. Bids queued
+     * after that fail with a 503.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        stopped = true;
+        failQueued();
+    }
+
+    private void drain() {
+        try {
+            drainQueue();
+        } finally {
+            stopped = true;
+            failQueued();
+        }
+    }
+
+    private void failQueued() {
+        ApiException failure = new ApiException(503, "The offer writer is stopped");
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(failure);
+        }
+    }
+
+    private void drainQueue() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        int lastBatchSize = 0;
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    lastBatchSize = 0;
+                    continue;
+                }
+                batch.add(first);
+                if (lastBatchSize > 1 && lingerNanos > 0) {
+                    LockSupport.parkNanos(lingerNanos);
+                }
+                queue.drainTo(batch, batchSize - 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.result().completeExceptionally(
+                        new ApiException(503, "The offer writer is stopped")));
+                return;
+            }
+
+            commit(batch);
+            lastBatchSize = batch.size();
+            batch.clear();
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        Map<Pending, RuntimeException> rejected = new HashMap<>();
+        Map<Pending, Offer> accepted = new LinkedHashMap<>();
+        Map<UUID, CollectibleItem> items = new HashMap<>();
+
+        try {
+            Database.inTransaction(conn -> {
+                for (UUID itemId : new TreeSet<>(batch.stream().map(Pending::itemId).toList())) {
+                    try {
+                        items.put(itemId, itemService.lockItem(conn, itemId));
+                    } catch (ApiException e) {
+                        // Unknown item: its bids are rejected below.
+                    }
+                }
+
+                // Every bid is checked before the insert, so one bad bid is
+                // rejected on its own instead of failing the whole batch.
+                for (Pending pending : batch) {
+                    CollectibleItem item = items.get(pending.itemId());
+                    try {
+                        if (item == null) {
+                            throw new ApiException(404, "Item not found");
+                        }
+                        OfferService.checkNewOffer(pending.offer());
+                        OfferService.checkBid(pending.offer(), item.getPrice(), item.getCurrentTopOffer());
+                    } catch (ApiException e) {
+                        rejected.put(pending, e);
+                        continue;
+                    } catch (RuntimeException e) {
+                        log.error("Could not check offer {}", pending.offer(), e);
+                        rejected.put(pending, new ApiException(500, "Could not create offer"));
+                        continue;
+                    }
+                    accepted.put(pending, pending.offer().withId(UUID.randomUUID()));
+                    items.put(pending.itemId(), item.withCurrentTopOffer(pending.offer().getPrice()));
+                }
+
+                if (!accepted.isEmpty()) {
+                    OfferService.insertOffers(itemService, conn, new ArrayList<>(accepted.values()));
+                }
+                return null;
+            });
+        } catch (SQLException | RuntimeException e) {
+            log.error("Could not write a batch of {} offers", batch.size(), e);
+            itemService.reloadItems(items.keySet());
+            ApiException failure = new ApiException(500, "Database error when creating offer");
+            batch.forEach(pending -> pending.result().completeExceptionally(failure));
+            return;
+        }
+
+        for (Pending pending : batch) {
+            RuntimeException rejection = rejected.get(pending);
+            if (rejection != null) {
+                pending.result().completeExceptionally(rejection);
+            } else {
+                pending.result().complete(accepted.get(pending));
+            }
+        }
+    }
+}
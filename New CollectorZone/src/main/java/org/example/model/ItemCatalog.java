@@ -0,0 +1,500 @@
+package org.example.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory copy of the item catalog, stored column by column in
+ * primitive arrays instead of as one object per item.
+ * <p>
+ * Each item is a row: its ID halves, price, top offer, offer count and
+ * version sit in parallel {@code long}/{@code int} arrays, and its name and
+ * description are UTF-8 bytes in one shared byte array. IDs are found through
+ * an open-addressing table keyed by the two halves of the UUID (linear
+ * probing, no boxing). A row costs about 70 bytes plus its text, against
+ * several hundred for a map of {@link CollectibleItem}s with string keys, and
+ * the GC has a handful of arrays to trace instead of millions of objects.
+ * Price-range and top-N queries scan the price columns sequentially.
+ * <p>
+ * The <em>display price</em> used by the queries is the higher of an item's
+ * price and its top offer, as shown on {@code /items-web}.
+ * <p>
+ * Thread-safe: reads share a read lock, writes take the write lock.
+ * {@link CollectibleItem}s are only created for the rows a read returns.
+ */
+public final class ItemCatalog {
+
+    private static final int EMPTY = 0;
+    private static final int DELETED = -1;
+    private static final int NO_TEXT = -1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Row + 1 of the item in each slot, or {@link #EMPTY} / {@link #DELETED}. */
+    private int[] slots;
+    private int usedSlots;
+
+    /** A row whose ID is the nil UUID is free. */
+    private long[] idMsb;
+    private long[] idLsb;
+    private long[] priceCents;
+    private long[] topOfferCents;
+    private long[] versions;
+    private int[] offerCounts;
+    private int[] textOffsets;
+    private int[] nameLengths;
+    private int[] descriptionLengths;
+    private int rowCount;
+    private int size;
+    private int[] freeRows = new int[16];
+    private int freeRowCount;
+
+    private byte[] text;
+    private int textLength;
+    private int garbageBytes;
+
+    public ItemCatalog() {
+        this(1024);
+    }
+
+    /**
+     * @param expectedItems The number of items to size the arrays for; they grow as needed.
+     */
+    public ItemCatalog(int expectedItems) {
+        int rows = Math.max(16, expectedItems);
+        slots = new int[tableSizeFor(rows)];
+        idMsb = new long[rows];
+        idLsb = new long[rows];
+        priceCents = new long[rows];
+        topOfferCents = new long[rows];
+        versions = new long[rows];
+        offerCounts = new int[rows];
+        textOffsets = new int[rows];
+        nameLengths = new int[rows];
+        descriptionLengths = new int[rows];
+        text = new byte[rows * 64];
+    }
+
+    /**
+     * Creates the catalog selected by {@code ITEM_CATALOG}: {@code memory}
+     * keeps the items in memory, sized by {@code ITEM_CATALOG_EXPECTED_ITEMS}
+     * (default 1024). Any other value reads every item from the database.
+     *
+     * @return The empty catalog, or null for none.
+     */
+    public static ItemCatalog fromEnvironment() {
+        if (!"memory".equals(System.getenv("ITEM_CATALOG"))) {
+            return null;
+        }
+        String expected = System.getenv("ITEM_CATALOG_EXPECTED_ITEMS");
+        return new ItemCatalog(expected != null ? Integer.parseInt(expected) : 1024);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The item, or null if it is not in the catalog.
+     */
+    public CollectibleItem get(UUID id) {
+        lock.readLock().lock();
+        try {
+            int row = rowOf(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            return row >= 0 ? item(row) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Every item, in no particular order.
+     */
+    public List<CollectibleItem> all() {
+        lock.readLock().lock();
+        try {
+            List<CollectibleItem> items = new ArrayList<>(size);
+            for (int row = 0; row < rowCount; row++) {
+                if (isLive(row)) {
+                    items.add(item(row));
+                }
+            }
+            return items;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The items whose display price is between the bounds, inclusive, in no particular order.
+     */
+    public List<CollectibleItem> inPriceRange(Money min, Money max) {
+        long minCents = min.cents();
+        long maxCents = max.cents();
+        lock.readLock().lock();
+        try {
+            List<CollectibleItem> items = new ArrayList<>();
+            for (int row = 0; row < rowCount; row++) {
+                long displayCents = Math.max(priceCents[row], topOfferCents[row]);
+                if (displayCents >= minCents && displayCents <= maxCents && isLive(row)) {
+                    items.add(item(row));
+                }
+            }
+            return items;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The {@code n} items with the highest display price, highest first.
+     */
+    public List<CollectibleItem> top(int n) {
+        lock.readLock().lock();
+        try {
+            // A min-heap of rows by display price: the root is the cheapest of the best n so far.
+            int[] heap = new int[Math.max(0, Math.min(n, size))];
+            int heapSize = 0;
+            for (int row = 0; row < rowCount && heap.length > 0; row++) {
+                if (!isLive(row)) {
+                    continue;
+                }
+                if (heapSize < heap.length) {
+                    heap[heapSize] = row;
+                    siftUp(heap, heapSize++);
+                } else if (displayCents(row) > displayCents(heap[0])) {
+                    heap[0] = row;
+                    siftDown(heap, heapSize);
+                }
+            }
+
+            CollectibleItem[] items = new CollectibleItem[heapSize];
+            for (int i = heapSize - 1; i >= 0; i--) {
+                items[i] = item(heap[0]);
+                heap[0] = heap[i];
+                siftDown(heap, i);
+            }
+            return Arrays.asList(items);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds an item, or replaces every field of the item with the same ID.
+     */
+    public void put(CollectibleItem item) {
+        UUID id = item.getUuid();
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            if (row < 0) {
+                row = insert(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            }
+            setText(row, item.getName(), item.getDescription());
+            priceCents[row] = item.getPrice().cents();
+            topOfferCents[row] = item.getCurrentTopOffer().cents();
+            offerCounts[row] = item.getOfferCount();
+            versions[row] = item.getVersion();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces an item's own fields and keeps its offer totals. Does nothing
+     * if the item is not in the catalog.
+     */
+    public void updateDetails(UUID id, String name, String description, Money price, long version) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            if (row >= 0) {
+                setText(row, name, description);
+                priceCents[row] = price.cents();
+                versions[row] = version;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records new offers on an item: raises its top offer to at least
+     * {@code topOffer} and adds {@code count} to its offer count. Does
+     * nothing if the item is not in the catalog.
+     */
+    public void addOffers(UUID id, Money topOffer, int count) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            if (row >= 0) {
+                topOfferCents[row] = Math.max(topOfferCents[row], topOffer.cents());
+                offerCounts[row] += count;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets an item's top offer and offer count, e.g. after an offer was
+     * changed or deleted. Does nothing if the item is not in the catalog.
+     */
+    public void setTotals(UUID id, Money topOffer, int count) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            if (row >= 0) {
+                topOfferCents[row] = topOffer.cents();
+                offerCounts[row] = count;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Whether the item was in the catalog.
+     */
+    public boolean remove(UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        lock.writeLock().lock();
+        try {
+            int slot = slotOf(msb, lsb);
+            if (slots[slot] <= EMPTY) {
+                return false;
+            }
+            int row = slots[slot] - 1;
+            slots[slot] = DELETED;
+            garbageBytes += textBytes(row);
+            idMsb[row] = 0;
+            idLsb[row] = 0;
+            if (freeRowCount == freeRows.length) {
+                freeRows = Arrays.copyOf(freeRows, freeRowCount * 2);
+            }
+            freeRows[freeRowCount++] = row;
+            size--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isLive(int row) {
+        return (idMsb[row] | idLsb[row]) != 0;
+    }
+
+    private long displayCents(int row) {
+        return Math.max(priceCents[row], topOfferCents[row]);
+    }
+
+    private CollectibleItem item(int row) {
+        int offset = textOffsets[row];
+        int nameLength = nameLengths[row];
+        int descriptionLength = descriptionLengths[row];
+        String name = nameLength != NO_TEXT ? new String(text, offset, nameLength, StandardCharsets.UTF_8) : null;
+        String description = descriptionLength != NO_TEXT
+                ? new String(text, offset + Math.max(nameLength, 0), descriptionLength, StandardCharsets.UTF_8)
+                : null;
+        return new CollectibleItem(idMsb[row], idLsb[row], name, description,
+                priceCents[row], topOfferCents[row], offerCounts[row], versions[row]);
+    }
+
+    // ID table
+
+    private static int tableSizeFor(int items) {
+        return Integer.highestOneBit(Math.max(items, 8) * 4 - 1);
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = msb * 0x9E3779B97F4A7C15L + lsb;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /**
+     * @return The slot holding the ID, or the empty slot that ends its probe sequence.
+     */
+    private int slotOf(long msb, long lsb) {
+        int mask = slots.length - 1;
+        for (int slot = hash(msb, lsb) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == EMPTY) {
+                return slot;
+            }
+            if (entry > 0 && idMsb[entry - 1] == msb && idLsb[entry - 1] == lsb) {
+                return slot;
+            }
+        }
+    }
+
+    private int rowOf(long msb, long lsb) {
+        int entry = slots[slotOf(msb, lsb)];
+        return entry > 0 ? entry - 1 : -1;
+    }
+
+    private int insert(long msb, long lsb) {
+        if ((usedSlots + 1) * 2 > slots.length) {
+            rehash(tableSizeFor(size + 1));
+        }
+        int row = freeRowCount > 0 ? freeRows[--freeRowCount] : newRow();
+        idMsb[row] = msb;
+        idLsb[row] = lsb;
+        textOffsets[row] = textLength;
+        nameLengths[row] = NO_TEXT;
+        descriptionLengths[row] = NO_TEXT;
+
+        int mask = slots.length - 1;
+        int slot = hash(msb, lsb) & mask;
+        while (slots[slot] > EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        if (slots[slot] == EMPTY) {
+            usedSlots++;
+        }
+        slots[slot] = row + 1;
+        size++;
+        return row;
+    }
+
+    private void rehash(int tableSize) {
+        int[] old = slots;
+        slots = new int[tableSize];
+        usedSlots = 0;
+        int mask = tableSize - 1;
+        for (int entry : old) {
+            if (entry > 0) {
+                int slot = hash(idMsb[entry - 1], idLsb[entry - 1]) & mask;
+                while (slots[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = entry;
+                usedSlots++;
+            }
+        }
+    }
+
+    private int newRow() {
+        if (rowCount == idMsb.length) {
+            int rows = Math.max(16, rowCount + (rowCount >> 1));
+            idMsb = Arrays.copyOf(idMsb, rows);
+            idLsb = Arrays.copyOf(idLsb, rows);
+            priceCents = Arrays.copyOf(priceCents, rows);
+            topOfferCents = Arrays.copyOf(topOfferCents, rows);
+            versions = Arrays.copyOf(versions, rows);
+            offerCounts = Arrays.copyOf(offerCounts, rows);
+            textOffsets = Arrays.copyOf(textOffsets, rows);
+            nameLengths = Arrays.copyOf(nameLengths, rows);
+            descriptionLengths = Arrays.copyOf(descriptionLengths, rows);
+        }
+        return rowCount++;
+    }
+
+    // Text
+
+    private int textBytes(int row) {
+        return Math.max(nameLengths[row], 0) + Math.max(descriptionLengths[row], 0);
+    }
+
+    /**
+     * Appends a row's name and description to the text array. The bytes they
+     * replace become garbage, which is reclaimed when it outweighs the live text.
+     */
+    private void setText(int row, String name, String description) {
+        byte[] nameBytes = name != null ? name.getBytes(StandardCharsets.UTF_8) : null;
+        byte[] descriptionBytes = description != null ? description.getBytes(StandardCharsets.UTF_8) : null;
+        int needed = (nameBytes != null ? nameBytes.length : 0) + (descriptionBytes != null ? descriptionBytes.length : 0);
+
+        garbageBytes += textBytes(row);
+        nameLengths[row] = NO_TEXT;
+        descriptionLengths[row] = NO_TEXT;
+        if (text.length - textLength < needed) {
+            if (garbageBytes > textLength / 2) {
+                compactText();
+            }
+            if (text.length - textLength < needed) {
+                long grown = Math.max((long) text.length * 2, (long) textLength + needed);
+                text = Arrays.copyOf(text, (int) Math.min(grown, Integer.MAX_VALUE - 8));
+                if (text.length - textLength < needed) {
+                    throw new IllegalStateException("Item catalog text is full");
+                }
+            }
+        }
+
+        textOffsets[row] = textLength;
+        if (nameBytes != null) {
+            System.arraycopy(nameBytes, 0, text, textLength, nameBytes.length);
+            textLength += nameBytes.length;
+            nameLengths[row] = nameBytes.length;
+        }
+        if (descriptionBytes != null) {
+            System.arraycopy(descriptionBytes, 0, text, textLength, descriptionBytes.length);
+            textLength += descriptionBytes.length;
+            descriptionLengths[row] = descriptionBytes.length;
+        }
+    }
+
+    private void compactText() {
+        byte[] compacted = new byte[text.length];
+        int length = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (isLive(row)) {
+                int bytes = textBytes(row);
+                System.arraycopy(text, textOffsets[row], compacted, length, bytes);
+                textOffsets[row] = length;
+                length += bytes;
+            }
+        }
+        text = compacted;
+        textLength = length;
+        garbageBytes = 0;
+    }
+
+    // Heap of rows ordered by display price, cheapest at the root
+
+    private void siftUp(int[] heap, int i) {
+        int row = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (displayCents(heap[parent]) <= displayCents(row)) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = row;
+    }
+
+    private void siftDown(int[] heap, int heapSize) {
+        int i = 0;
+        int row = heap[0];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && displayCents(heap[child + 1]) < displayCents(heap[child])) {
+                child++;
+            }
+            if (displayCents(heap[child]) >= displayCents(row)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = row;
+    }
+}
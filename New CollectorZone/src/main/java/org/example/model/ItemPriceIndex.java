@@ -0,0 +1,139 @@
+package org.example.model;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * The item IDs sorted by display price, the higher of an item's price and
+ * its top offer, for price-range filters and "highest bid" rankings.
+ * <p>
+ * The IDs are kept in a skip list ordered by display price, so a range or
+ * the top {@code n} costs O(log n + k) for k results, and prices can change
+ * concurrently with reads. Each item's price and top offer are kept next to
+ * it, and an item's entry is only moved by one thread at a time. A read
+ * that runs concurrently with a move may miss that one item.
+ */
+public final class ItemPriceIndex {
+
+    /**
+     * An item's place in the skip list: by display price, then by ID, so
+     * items with the same display price are distinct.
+     */
+    private record Key(long displayCents, long idMsb, long idLsb) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int c = Long.compare(displayCents, other.displayCents);
+            if (c == 0) {
+                c = Long.compare(idMsb, other.idMsb);
+            }
+            return c != 0 ? c : Long.compare(idLsb, other.idLsb);
+        }
+
+        UUID id() {
+            return new UUID(idMsb, idLsb);
+        }
+    }
+
+    /** The prices an item's display price is the higher of. */
+    private record Prices(long priceCents, long topOfferCents) {
+
+        long displayCents() {
+            return Math.max(priceCents, topOfferCents);
+        }
+    }
+
+    private final ConcurrentSkipListSet<Key> byDisplayPrice = new ConcurrentSkipListSet<>();
+    private final ConcurrentHashMap<UUID, Prices> prices = new ConcurrentHashMap<>();
+
+    public int size() {
+        return prices.size();
+    }
+
+    /**
+     * Adds an item, or replaces the prices of the item with the same ID.
+     */
+    public void put(UUID id, Money price, Money topOffer) {
+        prices.compute(id, (key, old) -> move(id, old, new Prices(price.cents(), topOffer.cents())));
+    }
+
+    /**
+     * Changes an item's own price and keeps its top offer. Does nothing if
+     * the item is not in the index.
+     */
+    public void setPrice(UUID id, Money price) {
+        prices.computeIfPresent(id, (key, old) -> move(id, old, new Prices(price.cents(), old.topOfferCents())));
+    }
+
+    /**
+     * Raises an item's top offer to at least {@code topOffer}, after new
+     * offers. Does nothing if the item is not in the index.
+     */
+    public void raiseTopOffer(UUID id, Money topOffer) {
+        prices.computeIfPresent(id, (key, old) -> move(id, old,
+                new Prices(old.priceCents(), Math.max(old.topOfferCents(), topOffer.cents()))));
+    }
+
+    /**
+     * Sets an item's top offer, e.g. after an offer was changed or deleted.
+     * Does nothing if the item is not in the index.
+     */
+    public void setTopOffer(UUID id, Money topOffer) {
+        prices.computeIfPresent(id, (key, old) -> move(id, old, new Prices(old.priceCents(), topOffer.cents())));
+    }
+
+    public void remove(UUID id) {
+        prices.computeIfPresent(id, (key, old) -> move(id, old, null));
+    }
+
+    /**
+     * @return The IDs of the items whose display price is between the bounds,
+     *         inclusive, cheapest first.
+     */
+    public List<UUID> inRange(Money min, Money max) {
+        List<UUID> ids = new ArrayList<>();
+        if (min.compareTo(max) > 0) {
+            return ids;
+        }
+        Key from = new Key(min.cents(), Long.MIN_VALUE, Long.MIN_VALUE);
+        Key to = new Key(max.cents(), Long.MAX_VALUE, Long.MAX_VALUE);
+        for (Key key : byDisplayPrice.subSet(from, true, to, true)) {
+            ids.add(key.id());
+        }
+        return ids;
+    }
+
+    /**
+     * @return The IDs of the {@code n} items with the highest display price, highest first.
+     */
+    public List<UUID> top(int n) {
+        List<UUID> ids = new ArrayList<>(Math.max(0, Math.min(n, 1024)));
+        Iterator<Key> keys = byDisplayPrice.descendingIterator();
+        while (ids.size() < n && keys.hasNext()) {
+            ids.add(keys.next().id());
+        }
+        return ids;
+    }
+
+    /**
+     * Moves an item's skip-list entry from its old to its new display price.
+     * Runs inside {@code compute} for the item, so moves of one item never interleave.
+     *
+     * @return The new prices, or null to remove the item.
+     */
+    private Prices move(UUID id, Prices old, Prices updated) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        if (old != null && (updated == null || old.displayCents() != updated.displayCents())) {
+            byDisplayPrice.remove(new Key(old.displayCents(), msb, lsb));
+        }
+        if (updated != null && (old == null || old.displayCents() != updated.displayCents())) {
+            byDisplayPrice.add(new Key(updated.displayCents(), msb, lsb));
+        }
+        return updated;
+    }
+}
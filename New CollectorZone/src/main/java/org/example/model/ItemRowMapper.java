@@ -0,0 +1,46 @@
+package org.example.model;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Index-based {@link RowMapper} for the {@code items} table.
+ * <p>
+ * Queries must project exactly {@link #COLUMNS}, in that order, so each
+ * column can be read by position. Prices are projected as whole cents, so
+ * they are read with {@code getLong} instead of through a {@code BigDecimal}.
+ */
+public final class ItemRowMapper implements RowMapper<CollectibleItem> {
+
+    /**
+     * The projected columns, in the order the mapper reads them.
+     */
+    public static final String COLUMNS = "id, name, description, CAST(price * 100 AS BIGINT), "
+            + "CAST(current_top_offer * 100 AS BIGINT), offer_count, version";
+
+    public static final ItemRowMapper INSTANCE = new ItemRowMapper();
+
+    private static final int ID = 1;
+    private static final int NAME = 2;
+    private static final int DESCRIPTION = 3;
+    private static final int PRICE = 4;
+    private static final int CURRENT_TOP_OFFER = 5;
+    private static final int OFFER_COUNT = 6;
+    private static final int VERSION = 7;
+
+    private ItemRowMapper() {
+    }
+
+    @Override
+    public CollectibleItem map(ResultSet rs) throws SQLException {
+        return new CollectibleItem(
+                rs.getObject(ID, UUID.class),
+                rs.getString(NAME),
+                rs.getString(DESCRIPTION),
+                Money.ofCents(rs.getLong(PRICE)),
+                Money.ofCents(rs.getLong(CURRENT_TOP_OFFER)),
+                rs.getInt(OFFER_COUNT),
+                rs.getLong(VERSION));
+    }
+}
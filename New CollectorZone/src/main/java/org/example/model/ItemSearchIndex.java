@@ -0,0 +1,169 @@
+package org.example.model;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An inverted index of the words in item names and descriptions, for the
+ * keyword search on {@code /items-web}.
+ * <p>
+ * Text is split into words of letters and digits, lower-cased and stripped
+ * of accents, so {@code Rosalía} is found by {@code rosalia}. A query matches
+ * the items that have, for every word of the query, a word starting with it:
+ * {@code "guitarra del"} finds {@code Guitarra de Fernando Delgadillo}.
+ * <p>
+ * The words are kept sorted, so the items for a prefix are one range of the
+ * map. A search reads the postings of a single query word and checks the
+ * others against the words of each candidate, so its cost follows the number
+ * of matches rather than the size of the catalog.
+ * <p>
+ * Thread-safe: searches share a read lock, changes take the write lock.
+ */
+public final class ItemSearchIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** The items containing each word. */
+    private final TreeMap<String, Set<UUID>> postings = new TreeMap<>();
+    /** The distinct words of each item, to unindex it. */
+    private final Map<UUID, String[]> wordsByItem = new HashMap<>();
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return wordsByItem.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes an item, replacing what was indexed for it before.
+     */
+    public void put(UUID id, String name, String description) {
+        Set<String> words = new LinkedHashSet<>(words(name));
+        words.addAll(words(description));
+        lock.writeLock().lock();
+        try {
+            unindex(id);
+            String[] itemWords = words.toArray(new String[0]);
+            wordsByItem.put(id, itemWords);
+            for (String word : itemWords) {
+                postings.computeIfAbsent(word, w -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            unindex(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return The IDs of the items with a word starting with each word of the
+     *         query, in no particular order. Empty if the query has no words.
+     */
+    public Set<UUID> search(String query) {
+        List<String> prefixes = new ArrayList<>(new LinkedHashSet<>(words(query)));
+        if (prefixes.isEmpty()) {
+            return Collections.emptySet();
+        }
+        // The longest prefix usually has the fewest matches; the others are checked per candidate.
+        prefixes.sort((a, b) -> b.length() - a.length());
+
+        lock.readLock().lock();
+        try {
+            Set<UUID> matches = new HashSet<>();
+            for (Set<UUID> ids : withPrefix(prefixes.get(0)).values()) {
+                for (UUID id : ids) {
+                    if (matches.contains(id)) {
+                        continue;
+                    }
+                    if (hasEveryPrefix(wordsByItem.get(id), prefixes)) {
+                        matches.add(id);
+                    }
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits text into lower-cased, accent-free words of letters and digits.
+     */
+    static List<String> words(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (word.length() > 0) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    private SortedMap<String, Set<UUID>> withPrefix(String prefix) {
+        return postings.subMap(prefix, prefix + Character.MAX_VALUE);
+    }
+
+    private static boolean hasEveryPrefix(String[] words, List<String> prefixes) {
+        next:
+        for (int i = 1; i < prefixes.size(); i++) {
+            for (String word : words) {
+                if (word.startsWith(prefixes.get(i))) {
+                    continue next;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private void unindex(UUID id) {
+        String[] words = wordsByItem.remove(id);
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            Set<UUID> ids = postings.get(word);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(word);
+            }
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package org.example.model;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -9,21 +12,113 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 
 public class ItemService {
 
+    private static final Logger log = LoggerFactory.getLogger(ItemService.class);
+
+    /**
+     * An item that was updated or deleted.
+     *
+     * @param itemId  The item's ID.
+     * @param deleted Whether the item, and with it its offers, was deleted.
+     */
+    public record ItemChange(UUID itemId, boolean deleted) {}
+
+    private final List<Consumer<ItemChange>> changeListeners = new CopyOnWriteArrayList<>();
+    private final ItemCatalog catalog;
+    private final ItemSearchIndex searchIndex;
+    private final ItemPriceIndex priceIndex;
+
+    public ItemService() {
+        this(null);
+    }
+
+    /**
+     * Folds the text of an item for {@link #searchItems(String)} without a
+     * search index: lower case, common accents removed and punctuation as
+     * spaces, with a leading space so every word starts after one.
+     */
+    private static final String SEARCH_TEXT = "(' ' || TRANSLATE(LOWER(COALESCE(name, '') || ' ' || COALESCE(description, '')), "
+            + "'áàâäãåéèêëíìîïóòôöõúùûüñçý-.,;:()/', 'aaaaaaeeeeiiiiooooouuuuncy        '))";
+
+    /** An item's display price, the higher of its price and top offer, without a price index. */
+    private static final String DISPLAY_PRICE = "GREATEST(price, COALESCE(current_top_offer, 0))";
+
+    /**
+     * @param catalog Serves item reads from memory, or null to read every item
+     *                from the database. Once {@link #loadItems() loaded}, it is
+     *                kept current by every item and offer write of this process,
+     *                so it must not be used when other instances write to the same database.
+     *                The search and price indexes are kept alongside it, for the same reason.
+     */
+    public ItemService(ItemCatalog catalog) {
+        this.catalog = catalog;
+        this.searchIndex = catalog != null ? new ItemSearchIndex() : null;
+        this.priceIndex = catalog != null ? new ItemPriceIndex() : null;
+    }
 
+    /**
+     * Fills the catalog, if there is one, and its search and price indexes
+     * with every item in the database. Call once at startup, after the migrations and before
+     * the first request.
+     */
+    public void loadItems() {
+        if (catalog == null) {
+            return;
+        }
+        String sql = "SELECT " + ItemRowMapper.COLUMNS + " FROM items";
+
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                remember(ItemRowMapper.INSTANCE.map(rs));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not load the items", e);
+        }
+    }
+
+    /**
+     * @return Whether item state is held in memory, which is only correct when
+     *         this process is the only one writing to the database.
+     */
+    boolean isSingleWriter() {
+        return catalog != null;
+    }
+
+    /**
+     * Registers a callback that is told of every item that was updated or
+     * deleted, so caches of item data can drop it.
+     *
+     * @param listener Called after the change is written.
+     */
+    public void addChangeListener(Consumer<ItemChange> listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Lists every item. Served by the catalog when there is one, otherwise
+     * by the read replica when one is configured.
+     */
     public Collection<CollectibleItem> getAllItems() {
+        if (catalog != null) {
+            return catalog.all();
+        }
         List<CollectibleItem> items = new ArrayList<>();
-        String sql = "SELECT * FROM items"; // SQL para obtener todos
+        String sql = "SELECT " + ItemRowMapper.COLUMNS + " FROM items";
 
-        try (Connection conn = Database.getConnection();
+        try (Connection conn = Database.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                items.add(mapRowToItem(rs));
+                items.add(ItemRowMapper.INSTANCE.map(rs));
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -33,7 +128,14 @@ public class ItemService {
     }
 
     public CollectibleItem getItemById(String id) {
-        String sql = "SELECT * FROM items WHERE id = ?";
+        if (catalog != null) {
+            CollectibleItem item = catalog.get(UUID.fromString(id));
+            if (item == null) {
+                throw new ApiException(404, "Item not found");
+            }
+            return item;
+        }
+        String sql = "SELECT " + ItemRowMapper.COLUMNS + " FROM items WHERE id = ?";
 
         try (Connection conn = Database.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -42,7 +144,7 @@ public class ItemService {
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapRowToItem(rs);
+                    return ItemRowMapper.INSTANCE.map(rs);
                 } else {
                     throw new ApiException(404, "Item not found");
                 }
@@ -63,7 +165,7 @@ public class ItemService {
             pstmt.setObject(1, uuid);
             pstmt.setString(2, item.getName());
             pstmt.setString(3, item.getDescription());
-            pstmt.setDouble(4, item.getPrice());
+            pstmt.setBigDecimal(4, item.getPrice().toBigDecimal());
 
             int affectedRows = pstmt.executeUpdate();
 
@@ -71,8 +173,9 @@ public class ItemService {
                 throw new ApiException(500, "No se pudo crear el item");
             }
 
-            item.setId(id);
-            return item;
+            CollectibleItem created = new CollectibleItem(uuid, item.getName(), item.getDescription(), item.getPrice(), Money.ZERO, 0, 0);
+            remember(created);
+            return created;
 
         } catch (SQLException e) {
 
@@ -85,31 +188,72 @@ public class ItemService {
     }
 
     public CollectibleItem updateItem(String id, CollectibleItem item) {
-        String sql = "UPDATE items SET name = ?, description = ?, price = ? WHERE id = ?";
-
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, item.getName());
-            pstmt.setString(2, item.getDescription());
-            pstmt.setDouble(3, item.getPrice());
-            pstmt.setObject(4, UUID.fromString(id));
-
-            int affectedRows = pstmt.executeUpdate();
+        return updateItem(id, item, null);
+    }
 
-            if (affectedRows == 0) {
-                throw new ApiException(404, "Item not found, cannot update");
-            }
+    /**
+     * Updates an item's name, description and price and increments its version.
+     * <p>
+     * With an expected version the update is conditional: it only applies if
+     * the item is still at that version, so a client cannot overwrite changes
+     * it has not seen. No row is locked while the client edits.
+     *
+     * @param id              The item's ID.
+     * @param item            The new item values.
+     * @param expectedVersion The version the client read, or {@code null} to update unconditionally.
+     * @return The updated item, with its new version.
+     * @throws ApiException 404 if the item does not exist, 412 if it is at another version.
+     */
+    public CollectibleItem updateItem(String id, CollectibleItem item, Long expectedVersion) {
+        String sql = "UPDATE items SET name = ?, description = ?, price = ?, version = version + 1 WHERE id = ?"
+                + (expectedVersion != null ? " AND version = ?" : "");
+        UUID uuid = UUID.fromString(id);
+
+        try {
+            long version = Database.inTransaction(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, item.getName());
+                    pstmt.setString(2, item.getDescription());
+                    pstmt.setBigDecimal(3, item.getPrice().toBigDecimal());
+                    pstmt.setObject(4, uuid);
+                    if (expectedVersion != null) {
+                        pstmt.setLong(5, expectedVersion);
+                    }
+
+                    if (pstmt.executeUpdate() == 0) {
+                        throw versionOf(conn, uuid) == null
+                                ? new ApiException(404, "Item not found, cannot update")
+                                : new ApiException(412, "Item was modified by another request");
+                    }
+                }
+                long newVersion = expectedVersion != null ? expectedVersion + 1 : versionOf(conn, uuid);
+                if (catalog != null) {
+                    catalog.updateDetails(uuid, item.getName(), item.getDescription(), item.getPrice(), newVersion);
+                    searchIndex.put(uuid, item.getName(), item.getDescription());
+                    priceIndex.setPrice(uuid, item.getPrice());
+                }
+                return newVersion;
+            });
 
-            item.setId(id);
-            return item;
+            notifyChanged(new ItemChange(uuid, false));
+            return item.withId(id).withVersion(version);
 
         } catch (SQLException e) {
+            reloadItems(List.of(uuid));
             e.printStackTrace();
             throw new ApiException(500, "Error de base de datos al actualizar item");
         }
     }
 
+    private static Long versionOf(Connection conn, UUID id) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT version FROM items WHERE id = ?")) {
+            pstmt.setObject(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        }
+    }
+
     public void deleteItem(String id) {
         String sql = "DELETE FROM items WHERE id = ?";
 
@@ -127,19 +271,220 @@ public class ItemService {
             e.printStackTrace();
             throw new ApiException(500, "Error de base de datos al borrar item");
         }
+        forget(UUID.fromString(id));
+        notifyChanged(new ItemChange(UUID.fromString(id), true));
+    }
+
+    /**
+     * Finds the items with a word starting with each word of the query, in
+     * their name or description, ignoring case and accents. Served by the
+     * search index and the catalog when there is one, otherwise by a scan of
+     * the items on the read replica, if configured.
+     *
+     * @param query Words or word beginnings, e.g. {@code "rosalia casco"}.
+     * @return The matching items, in no particular order.
+     */
+    public List<CollectibleItem> searchItems(String query) {
+        if (searchIndex != null) {
+            return itemsWithIds(searchIndex.search(query));
+        }
+        List<String> prefixes = ItemSearchIndex.words(query);
+        if (prefixes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        StringBuilder sql = new StringBuilder("SELECT " + ItemRowMapper.COLUMNS + " FROM items WHERE ");
+        for (int i = 0; i < prefixes.size(); i++) {
+            sql.append(i > 0 ? " AND " : "").append(SEARCH_TEXT).append(" LIKE ?");
+        }
+        return queryItems(sql.toString(), pstmt -> {
+            for (int i = 0; i < prefixes.size(); i++) {
+                // Words are letters and digits only, so there is nothing to escape.
+                pstmt.setString(i + 1, "% " + prefixes.get(i) + "%");
+            }
+        });
+    }
+
+    /**
+     * Lists the items whose display price, the higher of their price and top
+     * offer, is within the bounds, cheapest first. Served by the price index
+     * when there is a catalog, otherwise by the (replica) database.
+     *
+     * @param min The lowest display price, inclusive, or null for no lower bound.
+     * @param max The highest display price, inclusive, or null for no upper bound.
+     */
+    public List<CollectibleItem> getItemsByDisplayPrice(Money min, Money max) {
+        Money lowest = min != null ? min : Money.ofCents(Long.MIN_VALUE);
+        Money highest = max != null ? max : Money.ofCents(Long.MAX_VALUE);
+        if (priceIndex != null) {
+            return itemsWithIds(priceIndex.inRange(lowest, highest));
+        }
+        if (lowest.compareTo(highest) > 0) {
+            return new ArrayList<>();
+        }
+        String sql = "SELECT " + ItemRowMapper.COLUMNS + " FROM items"
+                + (min != null || max != null ? " WHERE " + DISPLAY_PRICE + " BETWEEN ? AND ?" : "")
+                + " ORDER BY " + DISPLAY_PRICE + ", id";
+        return queryItems(sql, pstmt -> {
+            if (min != null || max != null) {
+                pstmt.setBigDecimal(1, lowest.toBigDecimal());
+                pstmt.setBigDecimal(2, highest.toBigDecimal());
+            }
+        });
+    }
+
+    /**
+     * Lists the {@code n} items with the highest display price, highest first.
+     * Served by the price index when there is a catalog, otherwise by the
+     * (replica) database.
+     */
+    public List<CollectibleItem> getTopItems(int n) {
+        if (priceIndex != null) {
+            return itemsWithIds(priceIndex.top(n));
+        }
+        String sql = "SELECT " + ItemRowMapper.COLUMNS + " FROM items ORDER BY " + DISPLAY_PRICE + " DESC, id DESC LIMIT ?";
+        return queryItems(sql, pstmt -> pstmt.setInt(1, n));
+    }
+
+    private interface Parameters {
+        void set(PreparedStatement pstmt) throws SQLException;
+    }
+
+    private static List<CollectibleItem> queryItems(String sql, Parameters parameters) {
+        List<CollectibleItem> items = new ArrayList<>();
+
+        try (Connection conn = Database.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            parameters.set(pstmt);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    items.add(ItemRowMapper.INSTANCE.map(rs));
+                }
+            }
+            return items;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new ApiException(500, "Error de base de datos al obtener items");
+        }
+    }
+
+    /**
+     * Reads the items with the given IDs from the catalog. Keeps the order of
+     * the IDs and skips items that no longer exist. Only called in
+     * single-writer mode, where the ID indexes are kept.
+     */
+    private List<CollectibleItem> itemsWithIds(Collection<UUID> ids) {
+        List<CollectibleItem> items = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            CollectibleItem item = catalog.get(id);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Mirrors new offers into the catalog and the price index: raises the
+     * item's top offer and adds to its offer count. Called by offer writes
+     * inside their transaction, while it holds the item's row lock, so both
+     * see concurrent writes in commit order.
+     */
+    void offersAdded(UUID itemId, Money topOffer, int count) {
+        if (catalog != null) {
+            catalog.addOffers(itemId, topOffer, count);
+            priceIndex.raiseTopOffer(itemId, topOffer);
+        }
+    }
+
+    /**
+     * Mirrors an item's recomputed top offer and offer count into the catalog
+     * and the price index, like {@link #offersAdded(UUID, Money, int)}.
+     */
+    void totalsChanged(UUID itemId, Money topOffer, int count) {
+        if (catalog != null) {
+            catalog.setTotals(itemId, topOffer, count);
+            priceIndex.setTopOffer(itemId, topOffer);
+        }
+    }
+
+    /**
+     * Reads items back from the database into the catalog and the indexes
+     * after a transaction that already changed them there failed to commit.
+     */
+    void reloadItems(Collection<UUID> itemIds) {
+        if (catalog == null) {
+            return;
+        }
+        String sql = "SELECT " + ItemRowMapper.COLUMNS + " FROM items WHERE id = ?";
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            for (UUID itemId : itemIds) {
+                pstmt.setObject(1, itemId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        remember(ItemRowMapper.INSTANCE.map(rs));
+                    } else {
+                        forget(itemId);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            log.error("Could not reload items {} into memory", itemIds, e);
+        }
+    }
+
+    private void remember(CollectibleItem item) {
+        if (catalog != null) {
+            catalog.put(item);
+            searchIndex.put(item.getUuid(), item.getName(), item.getDescription());
+            priceIndex.put(item.getUuid(), item.getPrice(), item.getCurrentTopOffer());
+        }
+    }
+
+    private void forget(UUID itemId) {
+        if (catalog != null) {
+            catalog.remove(itemId);
+            searchIndex.remove(itemId);
+            priceIndex.remove(itemId);
+        }
+    }
+
+    private void notifyChanged(ItemChange change) {
+        for (Consumer<ItemChange> listener : changeListeners) {
+            listener.accept(change);
+        }
     }
 
     public void itemExists(String id) {
         getItemById(id);
     }
 
-    private CollectibleItem mapRowToItem(ResultSet rs) throws SQLException {
-        CollectibleItem item = new CollectibleItem();
-        item.setId(rs.getObject("id", UUID.class).toString());
-        item.setName(rs.getString("name"));
-        item.setDescription(rs.getString("description"));
-        item.setPrice(rs.getDouble("price"));
-        return item;
+    /**
+     * Reads an item and locks its row until the surrounding transaction ends.
+     * Offer writes take this lock first, so concurrent bids on the same item
+     * are validated and applied one at a time.
+     *
+     * @param conn A connection with an open transaction.
+     * @param id   The item's ID.
+     * @return The locked item.
+     * @throws ApiException with status 404 if the item does not exist.
+     */
+    CollectibleItem lockItem(Connection conn, UUID id) throws SQLException {
+        String sql = "SELECT " + ItemRowMapper.COLUMNS + " FROM items WHERE id = ? FOR UPDATE";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setObject(1, id);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return ItemRowMapper.INSTANCE.map(rs);
+                }
+                throw new ApiException(404, "Item not found");
+            }
+        }
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package org.example.model;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Delivers events straight to this node's sessions. Events the relay
+ * delivers twice, e.g. after a crash, are dropped.
+ */
+public class LocalEventBus implements EventBus {
+
+    private final Consumer<List<OfferEvent>> localSink;
+    private final SeenSequences seen = new SeenSequences();
+
+    public LocalEventBus(Consumer<List<OfferEvent>> localSink) {
+        this.localSink = localSink;
+    }
+
+    @Override
+    public void publish(List<OfferEvent> events) {
+        List<OfferEvent> fresh = seen.filter(events);
+        if (!fresh.isEmpty()) {
+            localSink.accept(fresh);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Applies the versioned schema migrations under {@code db/migration} at startup.
+ * <p>
+ * Every script is named {@code V<version>__<description>.sql} and is applied
+ * once, in version order, inside its own transaction. Applied versions are
+ * recorded in the {@code schema_version} table, so running {@link #migrate()}
+ * again is a no-op. The scripts only use SQL understood by both H2 and
+ * PostgreSQL, so the same history is applied in development and production.
+ */
+public class Migrations {
+
+    private static final Logger logger = LoggerFactory.getLogger(Migrations.class);
+
+    private static final String LOCATION = "db/migration/";
+
+    /**
+     * All known migrations, in the order they must be applied.
+     * New scripts are appended here; applied scripts must never be edited.
+     */
+    static final List<String> SCRIPTS = List.of(
+            "V1__create_items_and_offers.sql",
+            "V2__offer_indexes.sql",
+            "V3__item_top_offer.sql",
+            "V4__notifications_outbox.sql",
+            "V5__notifications_item_id.sql",
+            "V6__row_versions.sql"
+    );
+
+    private static final String CREATE_VERSION_TABLE =
+            "CREATE TABLE IF NOT EXISTS schema_version (" +
+            "version INT PRIMARY KEY, " +
+            "description VARCHAR(255) NOT NULL, " +
+            "installed_on TIMESTAMP DEFAULT NOW())";
+
+    /**
+     * Brings the schema up to the latest version.
+     *
+     * @throws IllegalStateException if a migration cannot be read or fails to apply.
+     */
+    public static void migrate() {
+        try (Connection conn = Database.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(CREATE_VERSION_TABLE);
+            }
+
+            int current = currentVersion(conn);
+            for (String script : SCRIPTS) {
+                int version = versionOf(script);
+                if (version > current) {
+                    apply(conn, script, version);
+                    current = version;
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not migrate the database schema", e);
+        }
+    }
+
+    /**
+     * Returns the highest applied migration version, or 0 on an empty database.
+     *
+     * @return The current schema version.
+     */
+    public static int currentVersion() {
+        try (Connection conn = Database.getConnection()) {
+            return currentVersion(conn);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read the schema version", e);
+        }
+    }
+
+    /**
+     * Reads a text resource from the classpath.
+     *
+     * @param name The resource path, relative to the classpath root.
+     * @return The resource contents.
+     * @throws IllegalStateException if the resource does not exist or cannot be read.
+     */
+    public static String readResource(String name) {
+        try (InputStream is = Migrations.class.getClassLoader().getResourceAsStream(name)) {
+            if (is == null) {
+                throw new IllegalStateException(name + " not found in classpath");
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+                return reader.lines().collect(Collectors.joining("\n"));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Error reading " + name, e);
+        }
+    }
+
+    private static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static void apply(Connection conn, String script, int version) throws SQLException {
+        String sql = readResource(LOCATION + script);
+        logger.info("Applying migration {}", script);
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement();
+             PreparedStatement record = conn.prepareStatement(
+                     "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+            stmt.execute(sql);
+            record.setInt(1, version);
+            record.setString(2, script);
+            record.executeUpdate();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    static int versionOf(String script) {
+        int end = script.indexOf("__");
+        if (!script.startsWith("V") || end < 2) {
+            throw new IllegalStateException("Invalid migration name: " + script);
+        }
+        return Integer.parseInt(script.substring(1, end));
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.model;
+
+import java.math.BigDecimal;
+
+/**
+ * An exact amount of money in whole cents, matching the {@code DECIMAL(10, 2)}
+ * price columns.
+ * <p>
+ * Comparisons are on the {@code long}, so bid ordering is exact and never
+ * goes through binary floating point or {@code BigDecimal}. Amounts are read
+ * from and written as plain decimals with two fraction digits, such as
+ * {@code 1250.50}. The domain objects store the cents themselves; a
+ * {@code Money} only exists while a price is being passed around.
+ *
+ * @param cents The amount in cents.
+ */
+public record Money(long cents) implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    /**
+     * @return The amount of the given number of cents.
+     */
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * @return The amount of the given number of whole units, e.g. dollars.
+     * @throws ArithmeticException if the amount does not fit in a long of cents.
+     */
+    public static Money of(long units) {
+        return ofCents(Math.multiplyExact(units, 100));
+    }
+
+    /**
+     * Parses a plain decimal such as {@code 12}, {@code 12.5} or {@code -0.05}.
+     *
+     * @throws NumberFormatException if the text is not a decimal, is more precise
+     *                               than a cent or does not fit in a long of cents.
+     */
+    public static Money parse(CharSequence text) {
+        return ofCents(parseCents(text));
+    }
+
+    /**
+     * Parses a plain decimal into cents without allocating, see {@link #parse(CharSequence)}.
+     * Fraction digits after the second must be zeros.
+     */
+    public static long parseCents(CharSequence text) {
+        if (text == null) {
+            throw new NumberFormatException("null");
+        }
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i++;
+        }
+
+        long cents = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        try {
+            for (; i < length; i++) {
+                char c = text.charAt(i);
+                if (c == '.' && fractionDigits < 0) {
+                    fractionDigits = 0;
+                } else if (c >= '0' && c <= '9') {
+                    digits++;
+                    if (fractionDigits < 0 || ++fractionDigits <= 2) {
+                        cents = Math.addExact(Math.multiplyExact(cents, 10), c - '0');
+                    } else if (c != '0') {
+                        throw new NumberFormatException("More precise than a cent: " + text);
+                    }
+                } else {
+                    throw new NumberFormatException("Invalid amount: " + text);
+                }
+            }
+            if (digits == 0) {
+                throw new NumberFormatException("Invalid amount: " + text);
+            }
+            for (int scale = Math.max(fractionDigits, 0); scale < 2; scale++) {
+                cents = Math.multiplyExact(cents, 10);
+            }
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+        return negative ? -cents : cents;
+    }
+
+    /**
+     * @return The larger of two amounts.
+     */
+    public static Money max(Money a, Money b) {
+        return a.cents >= b.cents ? a : b;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return cents > other.cents;
+    }
+
+    /**
+     * For binding to a {@code DECIMAL} parameter. Only used where a statement
+     * needs it; reads go through {@code CAST(price * 100 AS BIGINT)} instead.
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    /**
+     * @return The amount as a plain decimal with two fraction digits, e.g. {@code 1250.50}.
+     */
+    @Override
+    public String toString() {
+        long units = Math.abs(cents / 100);
+        int fraction = (int) Math.abs(cents % 100);
+        StringBuilder sb = new StringBuilder(24);
+        if (cents < 0) {
+            sb.append('-');
+        }
+        sb.append(units).append('.');
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        return sb.append(fraction).toString();
+    }
+}
@@ -1,75 +1,157 @@
 package org.example.model;
 
+import java.time.Instant;
 import java.util.Date;
+import java.util.Objects;
 import java.util.UUID;
 
-public class Offer {
-
-    private String name;
-    private String email;
-    private UUID id;
-    private double price;
-    private String itemId;
-    private Date createdAt;
+/**
+ * A bid on an item.
+ * <p>
+ * Immutable, like {@link CollectibleItem}: the {@code with...} methods return
+ * changed copies. The offer's and its item's IDs are held as the halves of
+ * their UUIDs, the price as whole cents (handed out as {@link Money}) and the creation time as epoch
+ * milliseconds. The nil UUID stands for "no ID yet".
+ */
+public final class Offer {
+
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private final String name;
+    private final String email;
+    private final long idMsb;
+    private final long idLsb;
+    private final long priceCents;
+    private final long itemIdMsb;
+    private final long itemIdLsb;
+    private final long createdAtMillis;
+    private final long version;
+
+    public Offer(String name, String email, UUID id, Money price, String itemId, Date createdAt) {
+        this(name, email, id, price, itemId != null ? UUID.fromString(itemId) : null,
+                createdAt != null ? createdAt.toInstant() : null, 0);
+    }
 
-    public Offer() {}
+    public Offer(String name, String email, UUID id, Money price, UUID itemId, Instant createdAt, long version) {
+        this(name, email,
+                id != null ? id.getMostSignificantBits() : 0, id != null ? id.getLeastSignificantBits() : 0,
+                price.cents(),
+                itemId != null ? itemId.getMostSignificantBits() : 0, itemId != null ? itemId.getLeastSignificantBits() : 0,
+                createdAt != null ? createdAt.toEpochMilli() : NO_TIME, version);
+    }
 
-    public Offer(String name, String email, UUID id, double price, String itemId, Date createdAt) {
+    private Offer(String name, String email, long idMsb, long idLsb, long priceCents,
+                  long itemIdMsb, long itemIdLsb, long createdAtMillis, long version) {
         this.name = name;
         this.email = email;
-        this.id = id;
-        this.price = price;
-        this.itemId = itemId;
-        this.createdAt = createdAt;
+        this.idMsb = idMsb;
+        this.idLsb = idLsb;
+        this.priceCents = priceCents;
+        this.itemIdMsb = itemIdMsb;
+        this.itemIdLsb = itemIdLsb;
+        this.createdAtMillis = createdAtMillis;
+        this.version = version;
     }
 
     public String getName() {
         return name;
     }
 
-    public void setName(String name) {
-        this.name = name;
-    }
-
     public String getEmail() {
         return email;
     }
 
-    public void setEmail(String email) {
-        this.email = email;
+    /**
+     * @return The ID, or null if the offer has none yet.
+     */
+    public UUID getId() {
+        return idMsb != 0 || idLsb != 0 ? new UUID(idMsb, idLsb) : null;
     }
 
-    public UUID getId() {
-        return id;
+    public Money getPrice() {
+        return Money.ofCents(priceCents);
     }
 
-    public void setId(UUID id) {
-        this.id = id;
+    /**
+     * @return The item's ID as a string, or null if it is not set.
+     */
+    public String getItemId() {
+        UUID itemId = getItemUuid();
+        return itemId != null ? itemId.toString() : null;
     }
 
-    public double getPrice() {
-        return price;
+    /**
+     * @return The item's ID, or null if it is not set.
+     */
+    public UUID getItemUuid() {
+        return itemIdMsb != 0 || itemIdLsb != 0 ? new UUID(itemIdMsb, itemIdLsb) : null;
     }
 
-    public void setPrice(double price) {
-        this.price = price;
+    /**
+     * @return When the offer was made, or null if it is not set.
+     */
+    public Instant getCreatedAt() {
+        return createdAtMillis != NO_TIME ? Instant.ofEpochMilli(createdAtMillis) : null;
     }
 
-    public String getItemId() {
-        return itemId;
+    /**
+     * Incremented on every update of the offer. Exposed as the offer's ETag,
+     * so clients can make updates conditional with {@code If-Match}.
+     */
+    public long getVersion() {
+        return version;
     }
 
-    public void setItemId(String itemId) {
-        this.itemId = itemId;
+    /**
+     * @return A copy with the given ID.
+     */
+    public Offer withId(UUID id) {
+        return new Offer(name, email, id.getMostSignificantBits(), id.getLeastSignificantBits(), priceCents,
+                itemIdMsb, itemIdLsb, createdAtMillis, version);
     }
 
-    public Date getCreatedAt() {
-        return createdAt;
+    /**
+     * @return A copy for the given item.
+     */
+    public Offer withItemId(String itemId) {
+        UUID uuid = UUID.fromString(itemId);
+        return new Offer(name, email, idMsb, idLsb, priceCents,
+                uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), createdAtMillis, version);
     }
 
-    public void setCreatedAt(Date createdAt) {
-        this.createdAt = createdAt;
+    /**
+     * @return A copy created at the given time.
+     */
+    public Offer withCreatedAt(Instant createdAt) {
+        return new Offer(name, email, idMsb, idLsb, priceCents,
+                itemIdMsb, itemIdLsb, createdAt.toEpochMilli(), version);
+    }
+
+    /**
+     * @return A copy with the given version.
+     */
+    public Offer withVersion(long version) {
+        return new Offer(name, email, idMsb, idLsb, priceCents,
+                itemIdMsb, itemIdLsb, createdAtMillis, version);
     }
-}
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Offer other)) {
+            return false;
+        }
+        return idMsb == other.idMsb && idLsb == other.idLsb
+                && priceCents == other.priceCents
+                && itemIdMsb == other.itemIdMsb && itemIdLsb == other.itemIdLsb
+                && createdAtMillis == other.createdAtMillis && version == other.version
+                && Objects.equals(name, other.name) && Objects.equals(email, other.email);
+    }
 
+    @Override
+    public int hashCode() {
+        return Long.hashCode(idMsb ^ idLsb) * 31 + Long.hashCode(version);
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.model;
+
+import java.util.UUID;
+
+/**
+ * A notification about an offer, as queued in {@code notifications_outbox}.
+ *
+ * @param seq     Its position in the outbox; increases with every notification.
+ * @param itemId  The item the offer was made on, or {@code null} for older notifications.
+ * @param message The text sent to the clients.
+ */
+public record OfferEvent(long seq, UUID itemId, String message) {}
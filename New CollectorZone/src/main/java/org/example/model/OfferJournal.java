@@ -0,0 +1,287 @@
+package org.example.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * A memory-mapped, append-only log of accepted offers.
+ * <p>
+ * The file starts with a header holding the checkpoint: the offset of the
+ * first record that has not been written to the database yet. Records follow,
+ * each stored as {@code [int length][int crc32][payload]}; a zero length marks
+ * the end of the log. A record whose checksum does not match (a write torn by
+ * a power cut) also ends the log, so it and anything after it are ignored.
+ * <p>
+ * {@link #append(Offer)} only copies the record into the mapping. It is made
+ * durable by {@link #sync(long)}, which forces every record appended so far in
+ * one call, so concurrent appenders share a single fsync. Once everything up
+ * to the end of the log has been written to the database, {@link #reset(long)}
+ * starts the log over from the beginning of the file.
+ */
+public class OfferJournal implements AutoCloseable {
+
+    static final int HEADER_SIZE = 16;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int FIXED_PAYLOAD_SIZE = 6 * Long.BYTES + 2 * Short.BYTES;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    private int writePosition;
+    private int dirtyFrom = Integer.MAX_VALUE;
+    private long appended;
+    private boolean stopped;
+
+    private final Object syncLock = new Object();
+    private volatile long synced;
+
+    /**
+     * One offer read back from the log.
+     *
+     * @param offer The offer.
+     * @param end   The offset just past the record; checkpoint here once the offer is in the database.
+     */
+    public record Entry(Offer offer, long end) {}
+
+    /**
+     * Opens the log, creating a file of the given size if it does not exist.
+     * The write position is placed after the last valid record.
+     *
+     * @param path     The log file.
+     * @param capacity The size of the file in bytes.
+     * @throws IOException if the file cannot be opened or mapped.
+     */
+    public OfferJournal(Path path, int capacity) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.capacity = Math.max(capacity, (int) Math.min(channel.size(), Integer.MAX_VALUE));
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, this.capacity);
+
+        if (checkpoint() < HEADER_SIZE) {
+            buffer.putLong(0, HEADER_SIZE);
+        }
+        writePosition = scan(null);
+    }
+
+    /**
+     * Appends an offer to the log. The record is not durable until
+     * {@link #sync(long)} has been called with the returned sequence number.
+     * Blocks while the log is full, until {@link #reset(long)} frees it.
+     *
+     * @param offer The accepted offer; its ID and creation date must be set.
+     * @return The sequence number of the record.
+     * @throws IllegalArgumentException if the record can never fit in the log.
+     * @throws IllegalStateException if appends were {@link #stopAppends() stopped}.
+     */
+    public synchronized long append(Offer offer) throws InterruptedException {
+        byte[] payload = encode(offer);
+        int size = RECORD_HEADER_SIZE + payload.length;
+        if (HEADER_SIZE + size + Integer.BYTES > capacity) {
+            throw new IllegalArgumentException("Offer too large for the journal: " + size + " bytes");
+        }
+        while (!stopped && writePosition + size + Integer.BYTES > capacity) {
+            wait();
+        }
+        if (stopped) {
+            throw new IllegalStateException("The journal no longer accepts offers");
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        int start = writePosition;
+        buffer.putInt(start + size, 0);
+        buffer.put(start + RECORD_HEADER_SIZE, payload);
+        buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+        buffer.putInt(start, payload.length);
+
+        writePosition = start + size;
+        dirtyFrom = Math.min(dirtyFrom, start);
+        return ++appended;
+    }
+
+    /**
+     * Returns the offset just past the last appended record.
+     */
+    public synchronized long end() {
+        return writePosition;
+    }
+
+    /**
+     * Makes every record up to the given sequence number durable. When
+     * several threads call this at once, one of them forces the mapping for
+     * all of them and the others return without another fsync.
+     *
+     * @param sequence A sequence number returned by {@link #append(Offer)}.
+     */
+    public void sync(long sequence) {
+        if (synced >= sequence) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (synced >= sequence) {
+                return;
+            }
+            int from;
+            int to;
+            long upTo;
+            synchronized (this) {
+                from = dirtyFrom;
+                to = writePosition;
+                upTo = appended;
+                dirtyFrom = Integer.MAX_VALUE;
+            }
+            if (from < to) {
+                // Include the end marker after the last record.
+                buffer.force(from, to - from + Integer.BYTES);
+            }
+            synced = upTo;
+        }
+    }
+
+    /**
+     * Returns the offset of the first record not yet written to the database.
+     */
+    public long checkpoint() {
+        return buffer.getLong(0);
+    }
+
+    /**
+     * Records that every offer up to the given offset is in the database.
+     * The checkpoint is not forced to disk: replaying a few offers that are
+     * already stored is harmless, see {@link WriteBehindOfferStore#recover()}.
+     *
+     * @param end The {@link Entry#end()} of the last stored record.
+     */
+    public synchronized void checkpoint(long end) {
+        buffer.putLong(0, end);
+    }
+
+    /**
+     * Starts the log over once everything up to {@code end} is in the
+     * database and nothing was appended since. Otherwise does nothing.
+     *
+     * @param end The offset the database has caught up with.
+     * @return Whether the log was reset.
+     */
+    public synchronized boolean reset(long end) {
+        if (writePosition != end) {
+            return false;
+        }
+        buffer.putInt(HEADER_SIZE, 0);
+        buffer.putLong(0, HEADER_SIZE);
+        buffer.force(0, HEADER_SIZE + Integer.BYTES);
+        writePosition = HEADER_SIZE;
+        dirtyFrom = Integer.MAX_VALUE;
+        notifyAll();
+        return true;
+    }
+
+    /**
+     * Rejects every further append, including those waiting for space, when
+     * nothing will free the log any more.
+     */
+    public synchronized void stopAppends() {
+        stopped = true;
+        notifyAll();
+    }
+
+    /**
+     * Reads every record after the checkpoint, i.e. the offers that may not
+     * have reached the database before the application stopped.
+     *
+     * @return The records in the order they were appended.
+     */
+    public synchronized List<Entry> unapplied() {
+        List<Entry> entries = new ArrayList<>();
+        scan(entries);
+        return entries;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            buffer.force();
+        }
+        channel.close();
+    }
+
+    /**
+     * Walks the valid records from the checkpoint on, collecting them into
+     * {@code entries} when it is not null.
+     *
+     * @return The offset just past the last valid record.
+     */
+    private int scan(List<Entry> entries) {
+        int position = (int) checkpoint();
+        while (position + RECORD_HEADER_SIZE <= capacity) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER_SIZE + length > capacity) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(position + RECORD_HEADER_SIZE, payload);
+
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES)) {
+                break;
+            }
+
+            position += RECORD_HEADER_SIZE + length;
+            if (entries != null) {
+                entries.add(new Entry(decode(payload), position));
+            }
+        }
+        return position;
+    }
+
+    private static byte[] encode(Offer offer) {
+        UUID itemId = offer.getItemUuid();
+        byte[] name = offer.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] email = offer.getEmail().getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer out = ByteBuffer.allocate(FIXED_PAYLOAD_SIZE + name.length + email.length);
+        out.putLong(offer.getId().getMostSignificantBits());
+        out.putLong(offer.getId().getLeastSignificantBits());
+        out.putLong(itemId.getMostSignificantBits());
+        out.putLong(itemId.getLeastSignificantBits());
+        out.putLong(offer.getPrice().cents());
+        out.putLong(offer.getCreatedAt().toEpochMilli());
+        out.putShort((short) name.length).put(name);
+        out.putShort((short) email.length).put(email);
+        return out.array();
+    }
+
+    private static Offer decode(byte[] payload) {
+        ByteBuffer in = ByteBuffer.wrap(payload);
+        UUID id = new UUID(in.getLong(), in.getLong());
+        UUID itemId = new UUID(in.getLong(), in.getLong());
+        Money price = Money.ofCents(in.getLong());
+        Instant createdAt = Instant.ofEpochMilli(in.getLong());
+        String name = readString(in);
+        String email = readString(in);
+        return new Offer(name, email, id, price, itemId, createdAt, 0);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[Short.toUnsignedInt(in.getShort())];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
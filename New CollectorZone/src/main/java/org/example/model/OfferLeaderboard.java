@@ -0,0 +1,244 @@
+package org.example.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Supplier;
+
+/**
+ * Rankings of the offers kept in memory and updated with every offer write:
+ * the highest bids on each item, and the bidders with the most offers.
+ * <p>
+ * Each item keeps only its best {@code topBids} offers, highest first, plus
+ * the number of offers per bidder on it. Bidders are identified by their
+ * email, ignoring case, and sorted by their total number of offers in a
+ * skip list, so the most active ones are read in O(k).
+ * <p>
+ * Thread-safe: changes to one item are applied one at a time. The rankings
+ * are not transactional; a read that runs concurrently with a change may
+ * see it partly.
+ */
+public final class OfferLeaderboard {
+
+    /** Highest price first; the earlier of two equal bids wins, as in {@link OfferService#checkBid}. */
+    static final Comparator<Offer> HIGHEST_FIRST = Comparator
+            .comparingLong((Offer offer) -> -offer.getPrice().cents())
+            .thenComparing(Offer::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Offer::getId);
+
+    private static final Comparator<Bidder> MOST_ACTIVE_FIRST = Comparator
+            .comparingLong((Bidder bidder) -> -bidder.offers())
+            .thenComparing(Bidder::key);
+
+    /**
+     * The offers on one item. Only changed inside {@code compute} for the
+     * item; {@link #top} is replaced rather than modified so it can be read at any time.
+     */
+    private static final class ItemBids {
+        volatile List<Offer> top = List.of();
+        final Map<String, Long> offersByBidder = new HashMap<>();
+    }
+
+    private record Bidder(String key, String name, long offers) {}
+
+    private final int topBids;
+    private final ConcurrentHashMap<UUID, ItemBids> items = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Bidder> bidders = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Bidder> byActivity = new ConcurrentSkipListSet<>(MOST_ACTIVE_FIRST);
+
+    /**
+     * @param topBids The number of highest bids kept per item.
+     */
+    public OfferLeaderboard(int topBids) {
+        this.topBids = topBids;
+    }
+
+    /**
+     * Counts a new offer and ranks it among its item's bids.
+     */
+    public void offerAdded(Offer offer) {
+        items.compute(offer.getItemUuid(), (itemId, bids) -> {
+            bids = bids != null ? bids : new ItemBids();
+            List<Offer> top = new ArrayList<>(bids.top);
+            int at = 0;
+            while (at < top.size() && HIGHEST_FIRST.compare(top.get(at), offer) < 0) {
+                at++;
+            }
+            // A concurrent update may have read the offer back from the database already.
+            boolean ranked = at < top.size() && top.get(at).getId().equals(offer.getId());
+            if (at < topBids && !ranked) {
+                top.add(at, offer);
+                bids.top = List.copyOf(top.subList(0, Math.min(top.size(), topBids)));
+            }
+            count(bids, offer.getEmail(), offer.getName(), 1);
+            return bids;
+        });
+    }
+
+    /**
+     * Stops counting a deleted offer. Its item's top bids are left as they are;
+     * refill them with {@link #setTopBids(UUID, List)}.
+     */
+    public void offerRemoved(Offer offer) {
+        items.computeIfPresent(offer.getItemUuid(), (itemId, bids) -> {
+            count(bids, offer.getEmail(), offer.getName(), -1);
+            return bids;
+        });
+    }
+
+    /**
+     * Moves an updated offer to its new bidder when its email changed. Its
+     * item's top bids are left as they are; refresh them with {@link #setTopBids(UUID, List)}.
+     */
+    public void offerChanged(Offer before, Offer after) {
+        if (bidderKey(before.getEmail()).equals(bidderKey(after.getEmail()))) {
+            return;
+        }
+        items.computeIfPresent(after.getItemUuid(), (itemId, bids) -> {
+            count(bids, before.getEmail(), before.getName(), -1);
+            count(bids, after.getEmail(), after.getName(), 1);
+            return bids;
+        });
+    }
+
+    /**
+     * Counts {@code offers} offers by one bidder on an item at once, when
+     * loading the counts from the database.
+     */
+    public void addBids(UUID itemId, String email, String name, long offers) {
+        items.compute(itemId, (id, bids) -> {
+            bids = bids != null ? bids : new ItemBids();
+            count(bids, email, name, offers);
+            return bids;
+        });
+    }
+
+    /**
+     * Replaces an item's top bids, e.g. with the ones read from the database.
+     */
+    public void setTopBids(UUID itemId, List<Offer> offers) {
+        List<Offer> kept = highest(offers);
+        items.compute(itemId, (id, bids) -> {
+            bids = bids != null ? bids : new ItemBids();
+            bids.top = kept;
+            return bids;
+        });
+    }
+
+    /**
+     * Replaces an item's top bids with ones read from the database after a
+     * change was committed. The read runs while changes to the item are held
+     * back, so an offer added concurrently is either already in what it
+     * reads or ranked after it.
+     *
+     * @param loader Reads the item's top bids, or returns {@code null} to keep the current ones.
+     */
+    public void reloadTopBids(UUID itemId, Supplier<List<Offer>> loader) {
+        items.compute(itemId, (id, bids) -> {
+            List<Offer> offers = loader.get();
+            if (offers == null) {
+                return bids;
+            }
+            bids = bids != null ? bids : new ItemBids();
+            bids.top = highest(offers);
+            return bids;
+        });
+    }
+
+    /**
+     * Forgets an item and every one of its offers, after the item was deleted.
+     */
+    public void removeItem(UUID itemId) {
+        items.computeIfPresent(itemId, (id, bids) -> {
+            for (Map.Entry<String, Long> entry : bids.offersByBidder.entrySet()) {
+                addActivity(entry.getKey(), null, -entry.getValue());
+            }
+            return null;
+        });
+    }
+
+    private List<Offer> highest(List<Offer> offers) {
+        List<Offer> top = new ArrayList<>(offers);
+        top.sort(HIGHEST_FIRST);
+        return List.copyOf(top.subList(0, Math.min(top.size(), topBids)));
+    }
+
+    /**
+     * @return Up to {@code n} of the highest bids on the item, highest first;
+     *         never more than the number kept per item.
+     */
+    public List<Offer> topBids(UUID itemId, int n) {
+        ItemBids bids = items.get(itemId);
+        List<Offer> top = bids != null ? bids.top : List.of();
+        return top.subList(0, Math.max(0, Math.min(n, top.size())));
+    }
+
+    /**
+     * @return The {@code n} bidders with the most offers, most active first.
+     */
+    public List<BidderActivity> topBidders(int n) {
+        List<BidderActivity> top = new ArrayList<>(Math.max(0, Math.min(n, 1024)));
+        Iterator<Bidder> ranked = byActivity.iterator();
+        while (top.size() < n && ranked.hasNext()) {
+            Bidder bidder = ranked.next();
+            top.add(new BidderActivity(bidder.name(), bidder.offers()));
+        }
+        return top;
+    }
+
+    private static String bidderKey(String email) {
+        return email != null ? email.toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Adds to a bidder's offers on an item and in total. Called inside
+     * {@code compute} for the item.
+     */
+    private void count(ItemBids bids, String email, String name, long delta) {
+        String key = bidderKey(email);
+        Long onItem = bids.offersByBidder.get(key);
+        if (delta < 0) {
+            // Never count below what this item contributed.
+            delta = -Math.min(-delta, onItem != null ? onItem : 0);
+            if (delta == 0) {
+                return;
+            }
+        }
+        long offers = (onItem != null ? onItem : 0) + delta;
+        if (offers > 0) {
+            bids.offersByBidder.put(key, offers);
+        } else {
+            bids.offersByBidder.remove(key);
+        }
+        addActivity(key, delta > 0 ? name : null, delta);
+    }
+
+    /**
+     * Moves a bidder's entry in the activity ranking. Runs inside
+     * {@code compute} for the bidder, so moves of one bidder never interleave.
+     *
+     * @param name The bidder's latest name, or null to keep the current one.
+     */
+    private void addActivity(String key, String name, long delta) {
+        bidders.compute(key, (k, old) -> {
+            long offers = (old != null ? old.offers() : 0) + delta;
+            String latestName = name != null ? name : old != null ? old.name() : null;
+            if (old != null) {
+                byActivity.remove(old);
+            }
+            if (offers <= 0) {
+                return null;
+            }
+            Bidder updated = new Bidder(key, latestName, offers);
+            byActivity.add(updated);
+            return updated;
+        });
+    }
+}
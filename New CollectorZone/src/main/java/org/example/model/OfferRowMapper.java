@@ -0,0 +1,46 @@
+package org.example.model;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Index-based {@link RowMapper} for the {@code offers} table.
+ * <p>
+ * Queries must project exactly {@link #COLUMNS}, in that order, so each
+ * column can be read by position. The price is projected as whole cents, see
+ * {@link ItemRowMapper}.
+ */
+public final class OfferRowMapper implements RowMapper<Offer> {
+
+    /**
+     * The projected columns, in the order the mapper reads them.
+     */
+    public static final String COLUMNS = "id, name, email, CAST(price * 100 AS BIGINT), item_id, created_at, version";
+
+    public static final OfferRowMapper INSTANCE = new OfferRowMapper();
+
+    private static final int ID = 1;
+    private static final int NAME = 2;
+    private static final int EMAIL = 3;
+    private static final int PRICE = 4;
+    private static final int ITEM_ID = 5;
+    private static final int CREATED_AT = 6;
+    private static final int VERSION = 7;
+
+    private OfferRowMapper() {
+    }
+
+    @Override
+    public Offer map(ResultSet rs) throws SQLException {
+        return new Offer(
+                rs.getString(NAME),
+                rs.getString(EMAIL),
+                rs.getObject(ID, UUID.class),
+                Money.ofCents(rs.getLong(PRICE)),
+                rs.getObject(ITEM_ID, UUID.class),
+                Instant.ofEpochMilli(rs.getTimestamp(CREATED_AT).getTime()),
+                rs.getLong(VERSION));
+    }
+}
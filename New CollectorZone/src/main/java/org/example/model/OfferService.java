@@ -4,30 +4,137 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
+import java.time.Instant;
 import java.util.*;
-import java.util.Date;
 
 
 public class OfferService {
 
-    private final Logger log = LoggerFactory.getLogger(OfferService.class);
+    /**
+     * Highest offer for an item, served by {@code idx_offers_item_price}.
+     */
+    static final String LAST_OFFER_SQL =
+            "SELECT " + OfferRowMapper.COLUMNS + " FROM offers WHERE item_id = ? ORDER BY price DESC LIMIT 1";
+
+    /**
+     * Highest price in cents and number of offers for an item. Only reads columns held in
+     * {@code idx_offers_item_price}, so recomputing an item's totals never touches
+     * the offer rows.
+     */
+    static final String OFFER_TOTALS_SQL =
+            "SELECT CAST(MAX(price) * 100 AS BIGINT), COUNT(*) FROM offers WHERE item_id = ?";
+
+    /**
+     * The highest offers for an item, best first, served by {@code idx_offers_item_price}.
+     */
+    private static final String TOP_BIDS_SQL = "SELECT " + OfferRowMapper.COLUMNS + " FROM offers " +
+            "WHERE item_id = ? ORDER BY price DESC, created_at, id LIMIT ?";
+
+    /**
+     * The bidders with the most offers, most active first, without a leaderboard.
+     */
+    private static final String TOP_BIDDERS_SQL = "SELECT MAX(name), COUNT(*) FROM offers " +
+            "GROUP BY LOWER(email) ORDER BY COUNT(*) DESC, LOWER(email) LIMIT ?";
+
+    /**
+     * The highest offers for every item, for loading the leaderboard.
+     */
+    private static final String ALL_TOP_BIDS_SQL = "SELECT " + OfferRowMapper.COLUMNS + " FROM (" +
+            "SELECT offers.*, ROW_NUMBER() OVER (PARTITION BY item_id ORDER BY price DESC, created_at, id) AS bid_rank " +
+            "FROM offers) ranked WHERE bid_rank <= ?";
+
+    /**
+     * The number of offers per bidder and item, for loading the leaderboard.
+     */
+    private static final String BIDDER_COUNTS_SQL =
+            "SELECT item_id, LOWER(email), MAX(name), COUNT(*) FROM offers GROUP BY item_id, LOWER(email)";
+
+    /** The largest price a {@code DECIMAL(10, 2)} column holds. */
+    private static final Money MAX_PRICE = Money.ofCents(9_999_999_999L);
+
+    /** The length of the {@code VARCHAR(255)} name and email columns. */
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    /**
+     * The number of highest bids the leaderboard keeps per item.
+     */
+    public static final int TOP_BIDS = 10;
+
+    private static final String INSERT_OFFER_SQL =
+            "INSERT INTO offers (id, name, email, price, item_id, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String ADD_NOTIFICATION_SQL =
+            "INSERT INTO notifications_outbox (item_id, message) SELECT id, CONCAT(?, name) FROM items WHERE id = ?";
+
+    private static final Logger log = LoggerFactory.getLogger(OfferService.class);
 
    private final ItemService itemService;
+   private final BidWriter bidWriter;
+   private final OfferLeaderboard leaderboard;
 
    public OfferService (ItemService itemService){
-       this.itemService= itemService;
+       this(itemService, null);
    }
 
+    /**
+     * @param itemService The item service.
+     * @param bidWriter   Validates and stores new bids, or null to insert every
+     *                    bid in its own transaction.
+     */
+    public OfferService(ItemService itemService, BidWriter bidWriter) {
+        this.itemService = itemService;
+        this.bidWriter = bidWriter;
+        // Like the item catalog, the leaderboard only sees the offer writes of this process.
+        this.leaderboard = itemService.isSingleWriter() ? new OfferLeaderboard(TOP_BIDS) : null;
+        itemService.addChangeListener(this::itemChanged);
+    }
+
+    /**
+     * Fills the leaderboard with the offers in the database, in single-writer
+     * mode. Call once at startup, after the bid writer has started and before
+     * the first request.
+     */
+    public void loadLeaderboard() {
+        if (leaderboard == null) {
+            return;
+        }
+        try (Connection conn = Database.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(BIDDER_COUNTS_SQL);
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    leaderboard.addBids(rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3), rs.getLong(4));
+                }
+            }
+
+            Map<UUID, List<Offer>> topBids = new HashMap<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(ALL_TOP_BIDS_SQL)) {
+                pstmt.setInt(1, TOP_BIDS);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        Offer offer = OfferRowMapper.INSTANCE.map(rs);
+                        topBids.computeIfAbsent(offer.getItemUuid(), id -> new ArrayList<>()).add(offer);
+                    }
+                }
+            }
+            topBids.forEach(leaderboard::setTopBids);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not load the offer leaderboard", e);
+        }
+    }
+
+    /**
+     * Lists every offer. Read-only, so it is served by the read replica when one is configured.
+     */
     public Collection<Offer> getAllOffers() {
         List<Offer> offers = new ArrayList<>();
-        String sql = "SELECT * FROM offers";
+        String sql = "SELECT " + OfferRowMapper.COLUMNS + " FROM offers";
 
-        try (Connection conn = Database.getConnection();
+        try (Connection conn = Database.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                offers.add(mapRowToOffer(rs));
+                offers.add(OfferRowMapper.INSTANCE.map(rs));
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -36,17 +143,20 @@ public class OfferService {
         return offers;
     }
 
+    /**
+     * Fetches one offer. Read-only, so it is served by the read replica when one is configured.
+     */
     public Offer getOfferById(UUID id) {
-        String sql = "SELECT * FROM offers WHERE id = ?";
+        String sql = "SELECT " + OfferRowMapper.COLUMNS + " FROM offers WHERE id = ?";
 
-        try (Connection conn = Database.getConnection();
+        try (Connection conn = Database.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setObject(1, id);
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapRowToOffer(rs);
+                    return OfferRowMapper.INSTANCE.map(rs);
                 } else {
                     throw new ApiException(404, "Offer not found");
                 }
@@ -57,99 +167,188 @@ public class OfferService {
         }
     }
 
-    public Offer createOffer(Offer offer) {
-        String itemId = offer.getItemId();
+    /**
+     * Validates and stores a new bid.
+     * <p>
+     * The item row is locked for the whole transaction, so the bid is compared
+     * against the item's current top offer and the offer row and the item's
+     * denormalized {@code current_top_offer}/{@code offer_count} are written
+     * atomically. Competing bids on the same item wait for the lock. The whole
+     * path runs on the primary, never on the read replica, so a bid is always
+     * checked against the latest accepted one.
+     * <p>
+     * The "new offer" notification is written to {@code notifications_outbox}
+     * in the same transaction and sent to the WebSocket clients by the
+     * {@link OutboxRelay}, so it goes out if and only if the offer is stored.
+     * <p>
+     * When a {@link BidWriter} is configured it validates and stores the bid
+     * instead: batched with concurrent bids ({@link GroupCommitOfferWriter}) or
+     * journaled locally and written behind ({@link WriteBehindOfferStore}).
+     *
+     * @param newOffer The offer to create; its item ID must be set. Without a
+     *                 creation time it is created now.
+     * @return The created offer, with its generated ID.
+     * @throws ApiException 400 if the offers table cannot store the offer,
+     *                      404 if the item does not exist, 409 if the bid is too low.
+     */
+    public Offer createOffer(Offer newOffer) {
+        String itemId = newOffer.getItemId();
         if (itemId == null || itemId.isEmpty()) {
             throw new ApiException(400, "Offer must have a valid ID");
         }
-
-        CollectibleItem item = itemService.getItemById(itemId);
-        if (item == null) {
-            throw new ApiException(404, "Item not found");
-        }
-
-        Optional<Offer> lastOfferOpt = getLastOffer(UUID.fromString(itemId));
-
-        double priceToBeat = item.getPrice();
-        if (lastOfferOpt.isPresent()) {
-            priceToBeat = Math.max(priceToBeat, lastOfferOpt.get().getPrice());
-        }
-
-        if (offer.getPrice() <= priceToBeat) {
-            log.warn("Bid rejected: {} <= {}", offer.getPrice(), priceToBeat);
-            throw new ApiException(409, "Offer must be higher than $" + priceToBeat);
+        UUID itemUuid = UUID.fromString(itemId);
+        Offer offer = newOffer.getCreatedAt() != null ? newOffer : newOffer.withCreatedAt(Instant.now());
+        checkNewOffer(offer);
+
+        if (bidWriter != null) {
+            Offer accepted = bidWriter.write(offer, itemUuid);
+            if (leaderboard != null) {
+                leaderboard.offerAdded(accepted);
+            }
+            return accepted;
         }
 
-        log.info("Bid ACCEPTED: {} > {}", offer.getPrice(), priceToBeat);
+        String updateItemSql = "UPDATE items SET current_top_offer = ?, offer_count = offer_count + 1 WHERE id = ?";
 
-        String sql = "INSERT INTO offers (id, name, email, price, item_id, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+        try {
+            Offer created = Database.inTransaction(conn -> {
+                CollectibleItem locked = itemService.lockItem(conn, itemUuid);
 
-        offer.setId(UUID.randomUUID());
+                checkBid(offer, locked.getPrice(), locked.getCurrentTopOffer());
+                Offer accepted = offer.withId(UUID.randomUUID());
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                try (PreparedStatement pstmt = conn.prepareStatement(INSERT_OFFER_SQL)) {
+                    bindOffer(pstmt, accepted);
 
-            pstmt.setObject(1, offer.getId());
-            pstmt.setString(2, offer.getName());
-            pstmt.setString(3, offer.getEmail());
-            pstmt.setDouble(4, offer.getPrice());
-            pstmt.setObject(5, UUID.fromString(offer.getItemId()));
-            pstmt.setTimestamp(6, new Timestamp(offer.getCreatedAt().getTime()));
+                    if (pstmt.executeUpdate() == 0) {
+                        throw new ApiException(500, "Could not create offer");
+                    }
+                }
 
-            int affectedRows = pstmt.executeUpdate();
+                try (PreparedStatement pstmt = conn.prepareStatement(updateItemSql)) {
+                    pstmt.setBigDecimal(1, accepted.getPrice().toBigDecimal());
+                    pstmt.setObject(2, itemUuid);
+                    pstmt.executeUpdate();
+                }
+                itemService.offersAdded(itemUuid, accepted.getPrice(), 1);
 
-            if (affectedRows == 0) {
-                throw new ApiException(500, "Could not create offer");
+                addNotifications(conn, List.of(accepted));
+                return accepted;
+            });
+            if (leaderboard != null) {
+                leaderboard.offerAdded(created);
             }
-
-            String message = "¡NEW OFFER! $" + offer.getPrice() + " on " + item.getName();
-            BroadcastService.broadcast(message);
-            return offer;
-
+            return created;
         } catch (SQLException e) {
+            itemService.reloadItems(List.of(itemUuid));
             e.printStackTrace();
             throw new ApiException(500, "Database error when creating offer");
         }
     }
 
+    /**
+     * Updates an offer unconditionally.
+     *
+     * @see #updateOffer(UUID, Offer, Long)
+     */
     public Offer updateOffer(UUID id, Offer offer) {
-        String sql = "UPDATE offers SET name = ?, email = ?, price = ? WHERE id = ?";
-
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, offer.getName());
-            pstmt.setString(2, offer.getEmail());
-            pstmt.setDouble(3, offer.getPrice());
-            pstmt.setObject(4, id);
+        return updateOffer(id, offer, null);
+    }
 
-            int affectedRows = pstmt.executeUpdate();
+    /**
+     * Updates an offer, increments its version and recomputes its item's top
+     * offer and offer count in the same transaction. Bids still pending in the
+     * {@link BidWriter} are written to the database first so the offer can be found.
+     * <p>
+     * With an expected version the update only applies if the offer is still
+     * at that version, so a client cannot overwrite changes it has not seen.
+     *
+     * @param id              The offer's ID.
+     * @param offer           The new offer values.
+     * @param expectedVersion The version the client read, or {@code null} to update unconditionally.
+     * @return The updated offer, with its new version.
+     * @throws ApiException 400 if the offers table cannot store the new values,
+     *                      404 if the offer does not exist, 412 if it is at another version.
+     */
+    public Offer updateOffer(UUID id, Offer offer, Long expectedVersion) {
+        checkColumns(offer);
+        String sql = "UPDATE offers SET name = ?, email = ?, price = ?, version = version + 1 WHERE id = ?"
+                + (expectedVersion != null ? " AND version = ?" : "");
+
+        Offer[] before = new Offer[1];
+        flushBidWriter();
+        try {
+            Offer updated = Database.inTransaction(conn -> {
+                before[0] = lockItemOfOffer(conn, id, "Offer not found, cannot update");
+                UUID lockedItemId = before[0].getItemUuid();
+
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, offer.getName());
+                    pstmt.setString(2, offer.getEmail());
+                    pstmt.setBigDecimal(3, offer.getPrice().toBigDecimal());
+                    pstmt.setObject(4, id);
+                    if (expectedVersion != null) {
+                        pstmt.setLong(5, expectedVersion);
+                    }
+
+                    if (pstmt.executeUpdate() == 0) {
+                        throw new ApiException(412, "Offer was modified by another request");
+                    }
+                }
 
-            if (affectedRows == 0) {
-                throw new ApiException(404, "Offer not found, cannot update");
+                long version = expectedVersion != null ? expectedVersion + 1 : versionOf(conn, id);
+                refreshItemTotals(conn, lockedItemId);
+                return offer.withId(id).withItemId(lockedItemId.toString()).withVersion(version);
+            });
+            if (leaderboard != null) {
+                leaderboard.offerChanged(before[0], updated);
+                reloadTopBids(updated.getItemUuid());
             }
-            offer.setId(id);
-            return offer;
+            forgetBidWriter(updated.getItemUuid());
+            return updated;
         } catch (SQLException e) {
+            reloadItem(before[0]);
             e.printStackTrace();
             throw new ApiException(500, "Database error when updating offer");
         }
     }
 
+    /**
+     * Deletes an offer and recomputes its item's top offer and offer count
+     * in the same transaction. Bids still pending in the {@link BidWriter} are
+     * written to the database first so the offer can be found.
+     *
+     * @param id The offer's ID.
+     * @throws ApiException 404 if the offer does not exist.
+     */
     public void deleteOffer(UUID id) {
         String sql = "DELETE FROM offers WHERE id = ?";
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        Offer[] deleted = new Offer[1];
+        flushBidWriter();
+        try {
+            Database.inTransaction(conn -> {
+                deleted[0] = lockItemOfOffer(conn, id, "Offer not found");
+                UUID lockedItemId = deleted[0].getItemUuid();
 
-            pstmt.setObject(1, id);
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setObject(1, id);
 
-            int affectedRows = pstmt.executeUpdate();
+                    if (pstmt.executeUpdate() == 0) {
+                        throw new ApiException(404, "Offer not found");
+                    }
+                }
 
-            if (affectedRows == 0) {
-                throw new ApiException(404, "Offer not found");
+                refreshItemTotals(conn, lockedItemId);
+                return null;
+            });
+            if (leaderboard != null) {
+                leaderboard.offerRemoved(deleted[0]);
+                reloadTopBids(deleted[0].getItemUuid());
             }
+            forgetBidWriter(deleted[0].getItemUuid());
         } catch (SQLException e) {
+            reloadItem(deleted[0]);
             e.printStackTrace();
             throw new ApiException(500, "Database error when deleting offer");
         }
@@ -160,16 +359,14 @@ public class OfferService {
     }
 
     public Optional<Offer> getLastOffer(UUID itemId) {
-        String sql = "SELECT * FROM offers WHERE item_id = ? ORDER BY price DESC LIMIT 1";
-
         try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(LAST_OFFER_SQL)) {
 
             pstmt.setObject(1, itemId);
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapRowToOffer(rs));
+                    return Optional.of(OfferRowMapper.INSTANCE.map(rs));
                 } else {
                     return Optional.empty();
                 }
@@ -180,15 +377,298 @@ public class OfferService {
         }
     }
 
-    private Offer mapRowToOffer(ResultSet rs) throws SQLException {
-        Offer offer = new Offer();
-        offer.setId(rs.getObject("id", UUID.class));
-        offer.setName(rs.getString("name"));
-        offer.setEmail(rs.getString("email"));
-        offer.setPrice(rs.getDouble("price"));
-        offer.setItemId(rs.getObject("item_id", UUID.class).toString());
-        offer.setCreatedAt(new Date(rs.getTimestamp("created_at").getTime()));
+    /**
+     * Lists the highest bids on an item, highest first. Served by the
+     * leaderboard in single-writer mode, otherwise by the (replica) database.
+     *
+     * @param itemId The item's ID.
+     * @param n      The number of bids, at most {@link #TOP_BIDS}.
+     */
+    public List<Offer> getTopBids(UUID itemId, int n) {
+        if (leaderboard != null) {
+            return leaderboard.topBids(itemId, n);
+        }
+        try (Connection conn = Database.getReadConnection()) {
+            List<Offer> offers = readTopBids(conn, itemId);
+            return offers.subList(0, Math.max(0, Math.min(n, offers.size())));
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new ApiException(500, "Database error when getting top bids");
+        }
+    }
+
+    /**
+     * Lists the bidders with the most offers, most active first. Served by the
+     * leaderboard in single-writer mode, otherwise by the (replica) database.
+     */
+    public List<BidderActivity> getTopBidders(int n) {
+        if (leaderboard != null) {
+            return leaderboard.topBidders(n);
+        }
+        List<BidderActivity> bidders = new ArrayList<>();
+
+        try (Connection conn = Database.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(TOP_BIDDERS_SQL)) {
+
+            pstmt.setInt(1, n);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    bidders.add(new BidderActivity(rs.getString(1), rs.getLong(2)));
+                }
+            }
+            return bidders;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new ApiException(500, "Database error when getting top bidders");
+        }
+    }
+
+    /**
+     * Reloads the item of an offer into the catalog and the leaderboard after
+     * a transaction that changed its totals was rolled back; {@code null} if
+     * it failed before the offer was found.
+     */
+    private void reloadItem(Offer offer) {
+        if (offer == null) {
+            return;
+        }
+        itemService.reloadItems(List.of(offer.getItemUuid()));
+        if (leaderboard != null) {
+            reloadTopBids(offer.getItemUuid());
+        }
+    }
+
+    /**
+     * Reads an item's top bids back into the leaderboard after its offers
+     * changed in a committed or rolled back transaction.
+     */
+    private void reloadTopBids(UUID itemId) {
+        leaderboard.reloadTopBids(itemId, () -> {
+            try (Connection conn = Database.getConnection()) {
+                return readTopBids(conn, itemId);
+            } catch (SQLException e) {
+                log.error("Could not reload the top bids of item {}", itemId, e);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Drops a deleted item's offers from the leaderboard; the database
+     * deleted them with the item.
+     */
+    private void itemChanged(ItemService.ItemChange change) {
+        if (leaderboard != null && change.deleted()) {
+            leaderboard.removeItem(change.itemId());
+        }
+    }
+
+    private static List<Offer> readTopBids(Connection conn, UUID itemId) throws SQLException {
+        List<Offer> offers = new ArrayList<>(TOP_BIDS);
+        try (PreparedStatement pstmt = conn.prepareStatement(TOP_BIDS_SQL)) {
+            pstmt.setObject(1, itemId);
+            pstmt.setInt(2, TOP_BIDS);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    offers.add(OfferRowMapper.INSTANCE.map(rs));
+                }
+            }
+        }
+        return offers;
+    }
+
+    private void flushBidWriter() {
+        if (bidWriter != null) {
+            bidWriter.flush();
+        }
+    }
+
+    private void forgetBidWriter(UUID itemId) {
+        if (bidWriter != null) {
+            bidWriter.forget(itemId);
+        }
+    }
+
+    private static long versionOf(Connection conn, UUID offerId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT version FROM offers WHERE id = ?")) {
+            pstmt.setObject(1, offerId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    /**
+     * Reads an offer and locks its item's row, taking locks in the same order
+     * as {@link #createOffer(Offer)}.
+     *
+     * @return The offer as it was before the caller changes it.
+     */
+    private Offer lockItemOfOffer(Connection conn, UUID offerId, String notFoundMessage) throws SQLException {
+        Offer offer;
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT " + OfferRowMapper.COLUMNS + " FROM offers WHERE id = ?")) {
+            pstmt.setObject(1, offerId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new ApiException(404, notFoundMessage);
+                }
+                offer = OfferRowMapper.INSTANCE.map(rs);
+            }
+        }
+        itemService.lockItem(conn, offer.getItemUuid());
         return offer;
     }
-}
 
+    /**
+     * Rejects a bid that does not beat both the item's base price and its
+     * current top offer. The comparison is exact, on whole cents.
+     *
+     * @throws ApiException 409 if the bid is too low.
+     */
+    static void checkBid(Offer offer, Money itemPrice, Money currentTopOffer) {
+        Money priceToBeat = Money.max(itemPrice, currentTopOffer);
+        if (!offer.getPrice().isGreaterThan(priceToBeat)) {
+            log.warn("Bid rejected: {} <= {}", offer.getPrice(), priceToBeat);
+            throw new ApiException(409, "Offer must be higher than $" + priceToBeat);
+        }
+        log.info("Bid ACCEPTED: {} > {}", offer.getPrice(), priceToBeat);
+    }
+
+    /**
+     * Rejects an offer that the {@code offers} table cannot store, so a bid
+     * that is acknowledged before it reaches the database, as with the
+     * {@link WriteBehindOfferStore}, is never dropped by it afterwards.
+     *
+     * @throws ApiException 400 if the name or email is missing or longer than
+     *                      {@value #MAX_TEXT_LENGTH} characters, or the price does not fit {@code DECIMAL(10, 2)}.
+     */
+    static void checkColumns(Offer offer) {
+        checkText("name", offer.getName());
+        checkText("email", offer.getEmail());
+        if (offer.getPrice().isGreaterThan(MAX_PRICE)) {
+            throw new ApiException(400, "Offer price must be at most $" + MAX_PRICE);
+        }
+    }
+
+    /**
+     * Rejects a new offer that cannot be inserted: like {@link #checkColumns(Offer)},
+     * and also without a creation time.
+     *
+     * @throws ApiException 400 if the offer cannot be inserted.
+     */
+    static void checkNewOffer(Offer offer) {
+        checkColumns(offer);
+        if (offer.getCreatedAt() == null) {
+            throw new ApiException(400, "Offer createdAt is required");
+        }
+    }
+
+    private static void checkText(String field, String value) {
+        if (value == null) {
+            throw new ApiException(400, "Offer " + field + " is required");
+        }
+        if (value.codePointCount(0, value.length()) > MAX_TEXT_LENGTH) {
+            throw new ApiException(400, "Offer " + field + " must be at most " + MAX_TEXT_LENGTH + " characters");
+        }
+    }
+
+    /**
+     * Inserts already validated offers with one batched statement and raises
+     * each item's {@code current_top_offer} and {@code offer_count} once for
+     * all of its offers in the batch. The offers' notifications are added to
+     * the outbox. Runs in the caller's transaction, and mirrors the new totals
+     * into the item service's catalog.
+     *
+     * @param itemService The item service.
+     * @param conn        A connection with an open transaction.
+     * @param offers      The offers, with their IDs set.
+     */
+    static void insertOffers(ItemService itemService, Connection conn, List<Offer> offers) throws SQLException {
+        Map<UUID, long[]> totals = new LinkedHashMap<>();
+
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_OFFER_SQL)) {
+            for (Offer offer : offers) {
+                bindOffer(pstmt, offer);
+                pstmt.addBatch();
+
+                long[] itemTotals = totals.computeIfAbsent(offer.getItemUuid(), id -> new long[2]);
+                itemTotals[0] = Math.max(itemTotals[0], offer.getPrice().cents());
+                itemTotals[1]++;
+            }
+            pstmt.executeBatch();
+        }
+
+        String sql = "UPDATE items SET current_top_offer = GREATEST(COALESCE(current_top_offer, 0), ?), " +
+                "offer_count = offer_count + ? WHERE id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (Map.Entry<UUID, long[]> entry : totals.entrySet()) {
+                pstmt.setBigDecimal(1, Money.ofCents(entry.getValue()[0]).toBigDecimal());
+                pstmt.setInt(2, (int) entry.getValue()[1]);
+                pstmt.setObject(3, entry.getKey());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        for (Map.Entry<UUID, long[]> entry : totals.entrySet()) {
+            itemService.offersAdded(entry.getKey(), Money.ofCents(entry.getValue()[0]), (int) entry.getValue()[1]);
+        }
+
+        addNotifications(conn, offers);
+    }
+
+    /**
+     * Queues a "new offer" notification per offer in {@code notifications_outbox},
+     * in the caller's transaction. The item's name is read by the insert itself.
+     */
+    static void addNotifications(Connection conn, List<Offer> offers) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(ADD_NOTIFICATION_SQL)) {
+            for (Offer offer : offers) {
+                pstmt.setString(1, "¡NEW OFFER! $" + offer.getPrice() + " on ");
+                pstmt.setObject(2, offer.getItemUuid());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private static void bindOffer(PreparedStatement pstmt, Offer offer) throws SQLException {
+        pstmt.setObject(1, offer.getId());
+        pstmt.setString(2, offer.getName());
+        pstmt.setString(3, offer.getEmail());
+        pstmt.setBigDecimal(4, offer.getPrice().toBigDecimal());
+        pstmt.setObject(5, offer.getItemUuid());
+        pstmt.setTimestamp(6, Timestamp.from(offer.getCreatedAt()));
+    }
+
+    /**
+     * Recomputes an item's {@code current_top_offer} and {@code offer_count}
+     * from its remaining offers.
+     */
+    private void refreshItemTotals(Connection conn, UUID itemId) throws SQLException {
+        long topOfferCents;
+        int count;
+        try (PreparedStatement pstmt = conn.prepareStatement(OFFER_TOTALS_SQL)) {
+            pstmt.setObject(1, itemId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                topOfferCents = rs.getLong(1);
+                count = rs.getInt(2);
+            }
+        }
+
+        String sql = "UPDATE items SET current_top_offer = ?, offer_count = ? WHERE id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            if (count == 0) {
+                pstmt.setNull(1, Types.DECIMAL);
+            } else {
+                pstmt.setBigDecimal(1, Money.ofCents(topOfferCents).toBigDecimal());
+            }
+            pstmt.setInt(2, count);
+            pstmt.setObject(3, itemId);
+            pstmt.executeUpdate();
+        }
+        itemService.totalsChanged(itemId, Money.ofCents(topOfferCents), count);
+    }
+}
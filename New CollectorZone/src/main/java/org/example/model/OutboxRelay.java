@@ -0,0 +1,157 @@
+package org.example.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Delivers the notifications queued in {@code notifications_outbox}.
+ * <p>
+ * A background thread claims up to a batch of the oldest notifications, hands
+ * them to the sink in sequence order and deletes them in the same
+ * transaction. A notification is only deleted after it was delivered, so a
+ * crash in between delivers it again on the next run (at-least-once). Rows are
+ * claimed with {@code FOR UPDATE SKIP LOCKED}, so several relays, e.g. one per
+ * node, never deliver the same batch at the same time.
+ * <p>
+ * Offers written by concurrent transactions may commit out of sequence order;
+ * such a notification is picked up on the next poll instead of being skipped.
+ */
+public class OutboxRelay implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    static final String CLAIM_SQL =
+            "SELECT seq, item_id, message FROM notifications_outbox ORDER BY seq LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String DELETE_SQL = "DELETE FROM notifications_outbox WHERE seq = ?";
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final long DEFAULT_POLL_MS = 10;
+    private static final long MAX_RETRY_DELAY_MS = 5_000;
+
+    private final Consumer<List<OfferEvent>> sink;
+    private final int batchSize;
+    private final long pollMillis;
+
+    private final Thread relay;
+    private volatile boolean running;
+
+    /**
+     * @param sink       Receives each batch of notifications, in sequence order.
+     * @param batchSize  The maximum number of notifications claimed at once.
+     * @param pollMillis How long to wait before looking again when the outbox is empty.
+     */
+    public OutboxRelay(Consumer<List<OfferEvent>> sink, int batchSize, long pollMillis) {
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.pollMillis = pollMillis;
+        this.relay = new Thread(this::run, "outbox-relay");
+        this.relay.setDaemon(true);
+    }
+
+    /**
+     * Creates a relay that publishes to the given event bus, configured by
+     * {@code OUTBOX_BATCH} (default 100) and {@code OUTBOX_POLL_MS} (default 10).
+     *
+     * @param eventBus Where the notifications are published.
+     * @return The relay, not yet started.
+     */
+    public static OutboxRelay fromEnvironment(EventBus eventBus) {
+        String batch = System.getenv("OUTBOX_BATCH");
+        String poll = System.getenv("OUTBOX_POLL_MS");
+        return new OutboxRelay(eventBus::publish,
+                batch != null ? Integer.parseInt(batch) : DEFAULT_BATCH_SIZE,
+                poll != null ? Long.parseLong(poll) : DEFAULT_POLL_MS);
+    }
+
+    public void start() {
+        running = true;
+        relay.start();
+    }
+
+    /**
+     * Delivers one batch of notifications and removes them from the outbox.
+     * If the sink throws, the batch is rolled back and stays in the outbox.
+     *
+     * @return The number of notifications delivered.
+     * @throws SQLException if the outbox cannot be read or updated.
+     */
+    public int relayBatch() throws SQLException {
+        return Database.inTransaction(conn -> {
+            List<OfferEvent> batch = new ArrayList<>(batchSize);
+            try (PreparedStatement pstmt = conn.prepareStatement(CLAIM_SQL)) {
+                pstmt.setInt(1, batchSize);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        batch.add(new OfferEvent(rs.getLong(1), rs.getObject(2, UUID.class), rs.getString(3)));
+                    }
+                }
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            sink.accept(batch);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(DELETE_SQL)) {
+                for (OfferEvent event : batch) {
+                    pstmt.setLong(1, event.seq());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            return batch.size();
+        });
+    }
+
+    /**
+     * Stops the relay after the batch in progress.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            running = false;
+            notifyAll();
+        }
+        try {
+            relay.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        long delay = pollMillis;
+        while (running) {
+            try {
+                if (relayBatch() == batchSize) {
+                    continue;
+                }
+                delay = pollMillis;
+            } catch (SQLException | RuntimeException e) {
+                delay = Math.min(Math.max(delay, 1) * 2, MAX_RETRY_DELAY_MS);
+                log.error("Could not relay notifications, retrying in {} ms: {}", delay, e.getMessage());
+            }
+
+            // Waiting on the monitor instead of interrupting lets close() wake the
+            // relay without interrupting a JDBC call in progress.
+            synchronized (this) {
+                if (!running) {
+                    return;
+                }
+                try {
+                    wait(delay);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package org.example.model;
+
+import com.google.gson.Gson;
+import org.example.json.Json;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Fans offer events out to every node through PostgreSQL {@code LISTEN/NOTIFY}.
+ * <p>
+ * {@link #publish(List)} sends a batch of events as a JSON array on the
+ * {@value #CHANNEL} channel, split into several notifications when it would
+ * exceed PostgreSQL's payload limit. Every node, including the publisher,
+ * keeps a dedicated connection that {@code LISTEN}s on the channel. It
+ * collects all notifications that arrived since the last poll, drops events
+ * it has already delivered and hands the rest to its local sessions as one
+ * batch.
+ * <p>
+ * Notifications sent while a node's listener connection is down are not
+ * replayed to that node. The listener reconnects with backoff.
+ */
+public class PostgresEventBus implements EventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresEventBus.class);
+
+    static final String CHANNEL = "offer_events";
+
+    /**
+     * PostgreSQL rejects payloads of 8000 bytes or more.
+     */
+    static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private static final int POLL_TIMEOUT_MS = 500;
+    private static final long MAX_RETRY_DELAY_MS = 5_000;
+
+    /**
+     * Opens a new connection to the PostgreSQL database.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private final Gson gson = Json.GSON;
+    private final ConnectionFactory connections;
+    private final Consumer<List<OfferEvent>> localSink;
+    private final SeenSequences seen = new SeenSequences();
+
+    private Connection publisher;
+    private Connection listener;
+
+    private final Thread listenerThread;
+    private volatile boolean running;
+
+    /**
+     * @param connections Opens the publishing and the listening connection.
+     * @param localSink   Fans a batch of events out to this node's sessions.
+     */
+    public PostgresEventBus(ConnectionFactory connections, Consumer<List<OfferEvent>> localSink) {
+        this.connections = connections;
+        this.localSink = localSink;
+        this.listenerThread = new Thread(this::listen, "event-bus-listener");
+        this.listenerThread.setDaemon(true);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listenerThread.start();
+    }
+
+    @Override
+    public synchronized void publish(List<OfferEvent> events) {
+        try {
+            if (publisher == null || publisher.isClosed()) {
+                publisher = connections.open();
+                publisher.setAutoCommit(true);
+            }
+            try (PreparedStatement pstmt = publisher.prepareStatement("SELECT pg_notify(?, ?)")) {
+                for (String payload : payloads(events)) {
+                    pstmt.setString(1, CHANNEL);
+                    pstmt.setString(2, payload);
+                    pstmt.execute();
+                }
+            }
+        } catch (SQLException e) {
+            closeQuietly(publisher);
+            publisher = null;
+            throw new IllegalStateException("Could not publish offer events", e);
+        }
+    }
+
+    /**
+     * Waits up to the given time for notifications and delivers the new events
+     * among them to the local sessions.
+     *
+     * @param timeoutMillis How long to wait for the first notification.
+     * @return The number of events delivered.
+     * @throws SQLException if the listening connection failed.
+     */
+    int poll(int timeoutMillis) throws SQLException {
+        if (listener == null) {
+            Connection conn = connections.open();
+            conn.setAutoCommit(true);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("LISTEN " + CHANNEL);
+            }
+            listener = conn;
+        }
+
+        PGNotification[] notifications = listener.unwrap(PGConnection.class).getNotifications(timeoutMillis);
+        if (notifications == null || notifications.length == 0) {
+            return 0;
+        }
+
+        List<OfferEvent> received = new ArrayList<>();
+        for (PGNotification notification : notifications) {
+            if (CHANNEL.equals(notification.getName())) {
+                received.addAll(Arrays.asList(gson.fromJson(notification.getParameter(), OfferEvent[].class)));
+            }
+        }
+
+        List<OfferEvent> fresh = seen.filter(received);
+        if (!fresh.isEmpty()) {
+            localSink.accept(fresh);
+        }
+        return fresh.size();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            listenerThread.join(POLL_TIMEOUT_MS * 2L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            closeQuietly(publisher);
+            publisher = null;
+        }
+    }
+
+    /**
+     * Splits the events into JSON arrays that each fit in one notification.
+     */
+    List<String> payloads(List<OfferEvent> events) {
+        List<String> payloads = new ArrayList<>();
+        List<OfferEvent> chunk = new ArrayList<>();
+        int chunkBytes = 2;
+
+        for (OfferEvent event : events) {
+            int eventBytes = gson.toJson(event).getBytes(StandardCharsets.UTF_8).length + 1;
+            if (!chunk.isEmpty() && chunkBytes + eventBytes > MAX_PAYLOAD_BYTES) {
+                payloads.add(gson.toJson(chunk));
+                chunk.clear();
+                chunkBytes = 2;
+            }
+            chunk.add(event);
+            chunkBytes += eventBytes;
+        }
+        if (!chunk.isEmpty()) {
+            payloads.add(gson.toJson(chunk));
+        }
+        return payloads;
+    }
+
+    private void listen() {
+        long delay = 100;
+        while (running) {
+            try {
+                poll(POLL_TIMEOUT_MS);
+                delay = 100;
+            } catch (SQLException | RuntimeException e) {
+                log.error("Event bus listener failed, reconnecting in {} ms: {}", delay, e.getMessage());
+                closeQuietly(listener);
+                listener = null;
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                delay = Math.min(delay * 2, MAX_RETRY_DELAY_MS);
+            }
+        }
+        closeQuietly(listener);
+        listener = null;
+    }
+
+    private static void closeQuietly(Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            log.warn("Could not close event bus connection: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A token bucket per key, e.g. per client or per item.
+ * <p>
+ * Each bucket refills at {@code permitsPerSecond} and holds up to
+ * {@code burst} tokens. It is kept as a single "theoretical arrival time"
+ * (the generic cell rate algorithm): the time at which the bucket would be
+ * full again. Taking a token moves it forward by one refill interval with a
+ * compare-and-set, so {@link #acquire(String)} never locks, and a bucket is
+ * one {@link AtomicLong}.
+ * <p>
+ * Buckets that have refilled completely are indistinguishable from new ones
+ * and are dropped now and then, so idle keys do not accumulate.
+ */
+public class RateLimiter {
+
+    private static final int SWEEP_ONE_IN = 4096;
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+
+    /**
+     * @param permitsPerSecond The steady rate allowed per key.
+     * @param burst            How many requests a key may make at once after being idle.
+     */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    RateLimiter(double permitsPerSecond, int burst, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstNanos = intervalNanos * burst;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes a token from the key's bucket, if there is one.
+     *
+     * @param key The client, item, etc. being limited.
+     * @return {@code 0} if the request is allowed, otherwise how many
+     * nanoseconds until the next token.
+     */
+    public long acquire(String key) {
+        long now = nanoClock.getAsLong();
+        if (ThreadLocalRandom.current().nextInt(SWEEP_ONE_IN) == 0) {
+            sweep(now);
+        }
+
+        AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        while (true) {
+            long full = bucket.get();
+            long next = Math.max(full, now) + intervalNanos;
+            if (next - now > burstNanos) {
+                throttled.increment();
+                return next - now - burstNanos;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops the buckets that are full again.
+     */
+    void sweep(long now) {
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    public long allowedCount() {
+        return allowed.sum();
+    }
+
+    public long throttledCount() {
+        return throttled.sum();
+    }
+
+    /**
+     * @return The number of keys with a bucket that is not full.
+     */
+    public int trackedKeys() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.model;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a {@link ResultSet} to a domain object.
+ * <p>
+ * Implementations are stateless and are meant to be shared: each one is paired
+ * with an explicit column list, so the mapper can read columns by position
+ * instead of resolving a column name for every row.
+ *
+ * @param <T> The type of object produced for each row.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Maps the row the result set is currently positioned on.
+     *
+     * @param rs The result set, already advanced with {@link ResultSet#next()}.
+     * @return The mapped object.
+     * @throws SQLException if a column cannot be read.
+     */
+    T map(ResultSet rs) throws SQLException;
+}
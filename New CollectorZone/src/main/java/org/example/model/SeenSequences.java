@@ -0,0 +1,46 @@
+package org.example.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Remembers the sequence numbers of the most recent events, to drop events
+ * that are delivered more than once. Sequence numbers are not necessarily
+ * delivered in order, so this keeps a bounded set instead of a high-water mark.
+ */
+class SeenSequences {
+
+    private static final int DEFAULT_CAPACITY = 10_000;
+
+    private final int capacity;
+    private final Set<Long> seen = new HashSet<>();
+    private final ArrayDeque<Long> order = new ArrayDeque<>();
+
+    SeenSequences() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    SeenSequences(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the events that were not seen before, and remembers them.
+     */
+    synchronized List<OfferEvent> filter(List<OfferEvent> events) {
+        List<OfferEvent> fresh = new ArrayList<>(events.size());
+        for (OfferEvent event : events) {
+            if (seen.add(event.seq())) {
+                order.add(event.seq());
+                if (order.size() > capacity) {
+                    seen.remove(order.poll());
+                }
+                fresh.add(event);
+            }
+        }
+        return fresh;
+    }
+}
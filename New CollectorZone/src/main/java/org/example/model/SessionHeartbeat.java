@@ -0,0 +1,113 @@
+package org.example.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the WebSocket session set down to live clients, and the
+ * Server-Sent Events streams open.
+ * <p>
+ * A background thread pings every session at a fixed interval. Browsers
+ * answer pings with a pong, which {@link BroadcastService#touch} records.
+ * Sessions that have sent nothing for longer than the idle timeout, such as
+ * half-open connections from clients that went away without closing, are
+ * evicted. The timeout should span several ping intervals so one lost pong
+ * does not drop a client.
+ * <p>
+ * At the same interval, every Server-Sent Events stream gets a keep-alive
+ * comment, so proxies do not close idle streams and dead clients fail their
+ * next write.
+ */
+public class SessionHeartbeat implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionHeartbeat.class);
+
+    private static final long DEFAULT_PING_INTERVAL_MS = 15_000;
+    private static final long DEFAULT_IDLE_TIMEOUT_MS = 45_000;
+
+    private final long pingIntervalMillis;
+    private final long idleTimeoutMillis;
+
+    private final Thread heartbeat;
+    private volatile boolean running;
+
+    /**
+     * @param pingIntervalMillis How often the sessions are pinged and reaped.
+     * @param idleTimeoutMillis  How long a session may stay silent before it is evicted.
+     */
+    public SessionHeartbeat(long pingIntervalMillis, long idleTimeoutMillis) {
+        this.pingIntervalMillis = pingIntervalMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.heartbeat = new Thread(this::run, "websocket-heartbeat");
+        this.heartbeat.setDaemon(true);
+    }
+
+    /**
+     * Creates a heartbeat configured by {@code WS_PING_INTERVAL_MS} (default
+     * 15000) and {@code WS_IDLE_TIMEOUT_MS} (default 45000).
+     *
+     * @return The heartbeat, not yet started.
+     */
+    public static SessionHeartbeat fromEnvironment() {
+        String interval = System.getenv("WS_PING_INTERVAL_MS");
+        String timeout = System.getenv("WS_IDLE_TIMEOUT_MS");
+        return new SessionHeartbeat(
+                interval != null ? Long.parseLong(interval) : DEFAULT_PING_INTERVAL_MS,
+                timeout != null ? Long.parseLong(timeout) : DEFAULT_IDLE_TIMEOUT_MS);
+    }
+
+    public void start() {
+        running = true;
+        heartbeat.start();
+    }
+
+    /**
+     * Evicts the idle sessions, then pings the remaining ones and sends a
+     * keep-alive to the event streams.
+     *
+     * @return The number of sessions evicted.
+     */
+    public int beat() {
+        int evicted = BroadcastService.reapIdleSessions(System.currentTimeMillis() - idleTimeoutMillis);
+        if (evicted > 0) {
+            log.info("Evicted {} idle WebSocket sessions, {} remaining", evicted, BroadcastService.sessionCount());
+        }
+        BroadcastService.pingSessions();
+        BroadcastService.keepAliveStreams();
+        return evicted;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            running = false;
+            notifyAll();
+        }
+        try {
+            heartbeat.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                beat();
+            } catch (RuntimeException e) {
+                log.error("WebSocket heartbeat failed: {}", e.getMessage());
+            }
+
+            synchronized (this) {
+                if (!running) {
+                    return;
+                }
+                try {
+                    wait(pingIntervalMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.model;
+
+import org.eclipse.jetty.websocket.api.Session;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * The connected WebSocket sessions, each with some state of type {@code V}.
+ * <p>
+ * Sessions are spread by hash over a fixed number of {@link ConcurrentHashMap}
+ * shards. Registering or removing a session is O(1) and never copies the set,
+ * and concurrent connects and disconnects, like the reconnect storm after a
+ * deploy, rarely contend on the same shard.
+ * <p>
+ * Iteration is weakly consistent: it never throws, sees every session that
+ * was registered before it started and has not been removed since, and may or
+ * may not see sessions added or removed while it runs.
+ *
+ * @param <V> The state kept per session.
+ */
+public class SessionRegistry<V> {
+
+    private static final int SHARDS = 16;
+
+    private final ConcurrentHashMap<Session, V>[] shards;
+
+    @SuppressWarnings("unchecked")
+    public SessionRegistry() {
+        shards = new ConcurrentHashMap[SHARDS];
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    private ConcurrentHashMap<Session, V> shard(Session session) {
+        int h = session.hashCode();
+        return shards[(h ^ (h >>> 16)) & (SHARDS - 1)];
+    }
+
+    /**
+     * @return The previous state of the session, or {@code null} if it was not registered.
+     */
+    public V put(Session session, V value) {
+        return shard(session).put(session, value);
+    }
+
+    public V get(Session session) {
+        return shard(session).get(session);
+    }
+
+    /**
+     * @return The state of the removed session, or {@code null} if it was not registered.
+     */
+    public V remove(Session session) {
+        return shard(session).remove(session);
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<Session, V> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    /**
+     * Calls the action for every session, shard by shard. The action may
+     * remove sessions, including the current one.
+     */
+    public void forEach(BiConsumer<Session, V> action) {
+        for (ConcurrentHashMap<Session, V> shard : shards) {
+            shard.forEach(action);
+        }
+    }
+}
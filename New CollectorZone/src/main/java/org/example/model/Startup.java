@@ -0,0 +1,150 @@
+package org.example.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The application's startup pipeline: named phases that run one after the
+ * other, a phase may run independent tasks in parallel, and a readiness flag
+ * that is set once they all finished.
+ * <p>
+ * Every phase and task is timed. {@link #report()} summarizes the times once
+ * the application is ready, so a slow startup can be traced to its phase.
+ */
+public final class Startup {
+
+    private static final Logger log = LoggerFactory.getLogger(Startup.class);
+
+    private final long startedNanos = System.nanoTime();
+    /** Milliseconds per phase, in the order they started; tasks are named {@code phase/task}. */
+    private final Map<String, Long> millis = new LinkedHashMap<>();
+    private volatile boolean ready;
+    private volatile long readyMillis;
+    private volatile long jvmReadyMillis;
+
+    /**
+     * Runs one step of the startup and records how long it took.
+     *
+     * @throws RuntimeException whatever the step throws; startup should stop.
+     */
+    public void phase(String name, Runnable step) {
+        long started = System.nanoTime();
+        step.run();
+        record(name, started);
+    }
+
+    /**
+     * Runs independent tasks at the same time, on a fork-join pool with a
+     * thread per task, and waits for all of them. Each task is recorded as
+     * {@code name/task}.
+     *
+     * @param tasks The tasks by name; a task must not depend on another one.
+     * @throws RuntimeException the first task's failure, once every task finished.
+     */
+    public void parallel(String name, Map<String, Runnable> tasks) {
+        long started = System.nanoTime();
+        record(name, started);
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, tasks.size()));
+        try {
+            List<ForkJoinTask<?>> running = new ArrayList<>(tasks.size());
+            for (Map.Entry<String, Runnable> task : tasks.entrySet()) {
+                running.add(pool.submit(() -> phase(name + "/" + task.getKey(), task.getValue())));
+            }
+            RuntimeException failure = null;
+            for (ForkJoinTask<?> task : running) {
+                try {
+                    task.join();
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            pool.shutdown();
+        }
+        record(name, started);
+    }
+
+    /**
+     * Marks the application as ready for traffic and logs the {@link #report()}.
+     */
+    public void markReady() {
+        readyMillis = elapsedMillis(startedNanos);
+        jvmReadyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        ready = true;
+        log.info(report());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return Milliseconds from the start of the pipeline until it was ready, or 0 before that.
+     */
+    public long readyMillis() {
+        return readyMillis;
+    }
+
+    /**
+     * @return Milliseconds from the start of the JVM until the application was ready, or 0 before that.
+     */
+    public long jvmReadyMillis() {
+        return jvmReadyMillis;
+    }
+
+    /**
+     * @return The milliseconds each phase and task took so far, in the order they started.
+     */
+    public synchronized Map<String, Long> phases() {
+        return new LinkedHashMap<>(millis);
+    }
+
+    /**
+     * @return A one-line summary, e.g. {@code Ready in 850 ms (1400 ms after JVM start):
+     *         pool 120 ms, migrations 90 ms, warm-up 600 ms [items 580 ms, events 15 ms]}.
+     */
+    public String report() {
+        Map<String, Long> phases = phases();
+        StringJoiner report = new StringJoiner(", ",
+                "Ready in " + readyMillis + " ms (" + jvmReadyMillis + " ms after JVM start): ", "");
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            if (phase.getKey().contains("/")) {
+                continue;
+            }
+            StringJoiner tasks = new StringJoiner(", ", " [", "]").setEmptyValue("");
+            String prefix = phase.getKey() + "/";
+            for (Map.Entry<String, Long> task : phases.entrySet()) {
+                if (task.getKey().startsWith(prefix)) {
+                    tasks.add(task.getKey().substring(prefix.length()) + " " + task.getValue() + " ms");
+                }
+            }
+            report.add(phase.getKey() + " " + phase.getValue() + " ms" + tasks);
+        }
+        return report.toString();
+    }
+
+    private synchronized void record(String name, long startedNanos) {
+        millis.put(name, elapsedMillis(startedNanos));
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+    }
+}
@@ -0,0 +1,425 @@
+package org.example.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence for accepted bids.
+ * <p>
+ * A bid is validated against the item's accepted bids held in memory,
+ * appended to the local {@link OfferJournal} and acknowledged as soon as the
+ * journal is synced, so accepting a bid costs a memory copy and a share of one
+ * fsync instead of a database round trip. A background writer drains the
+ * accepted bids in batches, inserting each batch and updating the items'
+ * totals in one transaction, and then advances the journal's checkpoint. On
+ * startup, {@link #start()} replays whatever the journal holds past the
+ * checkpoint, so bids acknowledged before a crash are not lost.
+ * <p>
+ * Database reads (offer listings, an item's top offer) lag accepted bids by
+ * the time the writer needs to catch up, usually a few milliseconds.
+ * <p>
+ * Enabled with {@code OFFER_WRITE_MODE=write-behind}, see {@link #fromEnvironment(ItemService)}.
+ */
+public class WriteBehindOfferStore implements BidWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindOfferStore.class);
+
+    private static final String DEFAULT_JOURNAL_PATH = "./data/offers.journal";
+    private static final int DEFAULT_JOURNAL_SIZE_MB = 64;
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final long MAX_RETRY_DELAY_MS = 5_000;
+
+    private final OfferJournal journal;
+    private final ItemService itemService;
+    private final int batchSize;
+
+    private final Map<UUID, ItemBids> items = new ConcurrentHashMap<>();
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+
+    private final Object appendLock = new Object();
+    private long lastSequence;
+
+    private final Object appliedLock = new Object();
+    private long appliedSequence;
+
+    /** Items whose bids the writer dropped in the current batch, with the highest dropped bid. Writer thread only. */
+    private final Map<UUID, Money> dropped = new HashMap<>();
+
+    private final Thread writer;
+    private volatile boolean running;
+    /** Why the writer stopped unexpectedly; from then on bids are rejected. */
+    private volatile RuntimeException failure;
+
+    /**
+     * The accepted bids of one item: its base price and current top offer,
+     * including bids that have not reached the database yet.
+     */
+    private static final class ItemBids {
+        final Money price;
+        Money topOffer;
+        boolean retired;
+        /** Set by the writer after it dropped one of the item's bids. */
+        volatile Correction correction;
+
+        ItemBids(CollectibleItem item) {
+            this.price = item.getPrice();
+            this.topOffer = item.getCurrentTopOffer();
+        }
+    }
+
+    private record Pending(Offer offer, long end, long sequence) {}
+
+    /**
+     * The top offer to fall back to if {@code dropped} is still an item's top
+     * offer: its top offer in the database plus its bids still queued.
+     */
+    private record Correction(Money dropped, Money topOffer) {}
+
+    /**
+     * @param journal     The journal accepted bids are appended to.
+     * @param itemService Used to load items on their first bid.
+     * @param batchSize   The maximum number of offers inserted per transaction.
+     */
+    public WriteBehindOfferStore(OfferJournal journal, ItemService itemService, int batchSize) {
+        this.journal = journal;
+        this.itemService = itemService;
+        this.batchSize = batchSize;
+        this.writer = new Thread(this::drain, "offer-write-behind");
+        this.writer.setDaemon(true);
+        itemService.addChangeListener(change -> forget(change.itemId()));
+    }
+
+    /**
+     * Creates the store configured by the environment. The journal lives in
+     * {@code OFFER_JOURNAL_PATH} (default {@value #DEFAULT_JOURNAL_PATH}) and is
+     * {@code OFFER_JOURNAL_SIZE_MB} large (default 64); {@code OFFER_WRITE_BATCH}
+     * caps the offers per insert transaction (default 500).
+     *
+     * @param itemService The item service.
+     * @return The store, not yet started.
+     * @throws IllegalStateException if the journal cannot be opened.
+     */
+    public static WriteBehindOfferStore fromEnvironment(ItemService itemService) {
+        String path = System.getenv().getOrDefault("OFFER_JOURNAL_PATH", DEFAULT_JOURNAL_PATH);
+        String sizeMb = System.getenv("OFFER_JOURNAL_SIZE_MB");
+        String batch = System.getenv("OFFER_WRITE_BATCH");
+
+        try {
+            OfferJournal journal = new OfferJournal(Path.of(path),
+                    (sizeMb != null ? Integer.parseInt(sizeMb) : DEFAULT_JOURNAL_SIZE_MB) * 1024 * 1024);
+            return new WriteBehindOfferStore(journal, itemService,
+                    batch != null ? Integer.parseInt(batch) : DEFAULT_BATCH_SIZE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open the offer journal " + path, e);
+        }
+    }
+
+    /**
+     * Replays the journal into the database and starts the background writer.
+     */
+    @Override
+    public void start() {
+        recover();
+        running = true;
+        writer.start();
+    }
+
+    /**
+     * Validates a bid against the item's accepted bids, journals it and waits
+     * until the journal is synced.
+     */
+    @Override
+    public Offer write(Offer offer, UUID itemId) {
+        if (failure != null) {
+            throw new ApiException(503, "Offers cannot be recorded right now");
+        }
+        while (true) {
+            ItemBids bids = items.computeIfAbsent(itemId, id -> new ItemBids(itemService.getItemById(id.toString())));
+            Offer accepted;
+            long sequence;
+            synchronized (bids) {
+                if (bids.retired) {
+                    continue;
+                }
+                Correction correction = bids.correction;
+                if (correction != null) {
+                    // Bids accepted after the dropped one are higher and still stand.
+                    if (bids.topOffer.equals(correction.dropped())) {
+                        bids.topOffer = correction.topOffer();
+                    }
+                    bids.correction = null;
+                }
+                OfferService.checkBid(offer, bids.price, bids.topOffer);
+                accepted = offer.withId(UUID.randomUUID());
+                sequence = append(accepted);
+                bids.topOffer = accepted.getPrice();
+            }
+            journal.sync(sequence);
+            return accepted;
+        }
+    }
+
+    /**
+     * @throws ApiException 503 if the writer stopped before it wrote them.
+     */
+    @Override
+    public void flush() {
+        long target;
+        synchronized (appendLock) {
+            target = lastSequence;
+        }
+        synchronized (appliedLock) {
+            while (appliedSequence < target && writer.isAlive()) {
+                try {
+                    appliedLock.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ApiException(503, "Interrupted while waiting for pending offers");
+                }
+            }
+            if (appliedSequence < target) {
+                throw new ApiException(503, "Pending offers could not be written");
+            }
+        }
+    }
+
+    /**
+     * Drops the in-memory state of an item after its item or offer rows were
+     * changed directly in the database; it is reloaded on the next bid.
+     * Pending bids for the item are written first.
+     *
+     * @param itemId The item's ID.
+     */
+    @Override
+    public void forget(UUID itemId) {
+        ItemBids bids = items.get(itemId);
+        if (bids == null) {
+            return;
+        }
+        synchronized (bids) {
+            flush();
+            bids.retired = true;
+            items.remove(itemId, bids);
+        }
+    }
+
+    /**
+     * Stops accepting work, writes the pending bids and closes the journal.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+    }
+
+    private long append(Offer offer) {
+        synchronized (appendLock) {
+            try {
+                lastSequence = journal.append(offer);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ApiException(503, "Offer could not be recorded");
+            } catch (IllegalStateException e) {
+                throw new ApiException(503, "Offers cannot be recorded right now");
+            }
+            queue.add(new Pending(offer, journal.end(), lastSequence));
+            return lastSequence;
+        }
+    }
+
+    private void drain() {
+        try {
+            drainQueue();
+        } catch (RuntimeException e) {
+            // The journal keeps the unwritten bids; they are replayed on the next start.
+            log.error("The offer writer failed, rejecting bids until restart", e);
+            failure = e;
+            journal.stopAppends();
+        }
+    }
+
+    private void drainQueue() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (!write(batch, false)) {
+                return;
+            }
+            Pending last = batch.get(batch.size() - 1);
+            journal.checkpoint(last.end());
+            journal.reset(last.end());
+            correctDropped();
+
+            synchronized (appliedLock) {
+                appliedSequence = last.sequence();
+                appliedLock.notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    private void recover() {
+        List<OfferJournal.Entry> entries = journal.unapplied();
+        if (!entries.isEmpty()) {
+            log.info("Replaying {} journaled offers", entries.size());
+        }
+
+        List<Pending> batch = new ArrayList<>(batchSize);
+        for (OfferJournal.Entry entry : entries) {
+            batch.add(new Pending(entry.offer(), entry.end(), 0));
+            if (batch.size() == batchSize || entry == entries.get(entries.size() - 1)) {
+                if (!write(batch, true)) {
+                    throw new IllegalStateException("Could not replay the offer journal");
+                }
+                journal.checkpoint(entry.end());
+                batch.clear();
+            }
+        }
+        journal.reset(journal.checkpoint());
+        // No bid has been accepted yet, so nothing can be corrected.
+        dropped.clear();
+    }
+
+    /**
+     * Writes a batch, retrying with backoff while the database is unavailable.
+     * When a row is rejected by a constraint, e.g. because its item was
+     * deleted in the meantime, the batch is written row by row and the
+     * rejected rows are dropped. A row that fails with a runtime exception is
+     * dropped the same way, since writing it again would fail again.
+     *
+     * @return False if interrupted before the batch was written.
+     */
+    private boolean write(List<Pending> batch, boolean skipExisting) {
+        long delay = 100;
+        while (true) {
+            try {
+                insert(batch, skipExisting);
+                return true;
+            } catch (SQLException | RuntimeException e) {
+                if (e instanceof SQLException sqlException && !isDataError(sqlException)) {
+                    log.error("Could not write {} offers, retrying in {} ms: {}", batch.size(), delay, e.getMessage());
+                } else if (batch.size() > 1) {
+                    boolean written = true;
+                    for (Pending pending : batch) {
+                        written = written && write(List.of(pending), true);
+                    }
+                    return written;
+                } else {
+                    Offer offer = batch.get(0).offer();
+                    log.error("Dropping journaled offer {}: {}", offer.getId(), e.getMessage());
+                    dropped.merge(offer.getItemUuid(), offer.getPrice(), Money::max);
+                    return true;
+                }
+            }
+
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            delay = Math.min(delay * 2, MAX_RETRY_DELAY_MS);
+            skipExisting = true;
+        }
+    }
+
+    /**
+     * Keeps a dropped bid from staying its item's top offer, where it would
+     * reject every valid lower bid. Runs on the writer between batches, when
+     * every earlier bid is in the database and every later one is queued. The
+     * fix is applied by the item's next {@link #write(Offer, UUID)}, under the
+     * item's lock, which the writer must not take: a bid holding it may be
+     * waiting for the writer to free journal space.
+     */
+    private void correctDropped() {
+        for (Map.Entry<UUID, Money> drop : dropped.entrySet()) {
+            ItemBids bids = items.get(drop.getKey());
+            if (bids == null) {
+                continue;
+            }
+            Money topOffer;
+            try {
+                topOffer = itemService.getItemById(drop.getKey().toString()).getCurrentTopOffer();
+            } catch (ApiException e) {
+                continue;
+            }
+            for (Pending pending : queue) {
+                if (pending.offer().getItemUuid().equals(drop.getKey())) {
+                    topOffer = Money.max(topOffer, pending.offer().getPrice());
+                }
+            }
+            bids.correction = new Correction(drop.getValue(), topOffer);
+        }
+        dropped.clear();
+    }
+
+    private void insert(List<Pending> batch, boolean skipExisting) throws SQLException {
+        try {
+            Database.inTransaction(conn -> {
+                List<Offer> offers = new ArrayList<>(batch.size());
+                for (Pending pending : batch) {
+                    if (!skipExisting || !exists(conn, pending.offer().getId())) {
+                        offers.add(pending.offer());
+                    }
+                }
+                if (!offers.isEmpty()) {
+                    OfferService.insertOffers(itemService, conn, offers);
+                }
+                return null;
+            });
+        } catch (SQLException | RuntimeException e) {
+            itemService.reloadItems(batch.stream().map(pending -> pending.offer().getItemUuid()).distinct().toList());
+            throw e;
+        }
+    }
+
+    private static boolean exists(Connection conn, UUID offerId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM offers WHERE id = ?")) {
+            pstmt.setObject(1, offerId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Whether the database rejected the data itself (SQL state classes 22 and
+     * 23), so retrying the same rows can never succeed.
+     */
+    private static boolean isDataError(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && (state.startsWith("22") || state.startsWith("23"));
+    }
+}
@@ -0,0 +1,5 @@
+-- Serves "highest offer for an item": WHERE item_id = ? ORDER BY price DESC LIMIT 1.
+CREATE INDEX IF NOT EXISTS idx_offers_item_price ON offers (item_id, price DESC);
+
+-- Serves offer history queries filtered or ordered by creation time.
+CREATE INDEX IF NOT EXISTS idx_offers_created_at ON offers (created_at);
@@ -0,0 +1,8 @@
+-- Current highest offer and number of offers per item, maintained by
+-- OfferService on every offer write so item reads never aggregate offers.
+ALTER TABLE items ADD COLUMN IF NOT EXISTS current_top_offer DECIMAL(10, 2);
+ALTER TABLE items ADD COLUMN IF NOT EXISTS offer_count INT NOT NULL DEFAULT 0;
+
+UPDATE items SET
+    current_top_offer = (SELECT MAX(o.price) FROM offers o WHERE o.item_id = items.id),
+    offer_count = (SELECT COUNT(*) FROM offers o WHERE o.item_id = items.id);
@@ -0,0 +1,9 @@
+-- Offer notifications are written here in the same transaction as the offer
+-- and relayed to the WebSocket clients by OutboxRelay, which deletes each
+-- row once it has been delivered. seq orders the notifications.
+
+CREATE TABLE IF NOT EXISTS notifications_outbox (
+    seq BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    message VARCHAR(1000) NOT NULL,
+    created_at TIMESTAMP DEFAULT NOW()
+);
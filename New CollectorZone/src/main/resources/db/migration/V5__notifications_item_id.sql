@@ -0,0 +1,4 @@
+-- The item an offer notification is about, so clients can subscribe to a
+-- single item's offers (GET /offers/stream?itemId=...).
+
+ALTER TABLE notifications_outbox ADD COLUMN IF NOT EXISTS item_id UUID;
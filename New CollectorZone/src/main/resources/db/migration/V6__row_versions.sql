@@ -0,0 +1,5 @@
+-- Row versions for optimistic concurrency: every update of an item's or an
+-- offer's own fields increments its version, and an update that names the
+-- version it read only applies if no other update came in between.
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE offers ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -34,6 +34,13 @@ export function processToastNotifications(document) {
   }
 }
 
+// Delay before the given reconnect attempt (0-based): exponential backoff
+// from baseMs up to maxMs, with jitter so clients don't reconnect all at once.
+export function nextReconnectDelay(attempt, baseMs = 500, maxMs = 30000, random = Math.random) {
+  const delay = Math.min(maxMs, baseMs * Math.pow(2, attempt));
+  return Math.round(delay / 2 + random() * delay / 2);
+}
+
 export function setupWebSocket(window, document, WebSocket) {
 
   const wsDialog = document.querySelector("#ws-modal");
@@ -41,30 +48,110 @@ export function setupWebSocket(window, document, WebSocket) {
   const wsButton = document.querySelector("#ws-button");
 
   const wsUrl = `${window.location.protocol === 'https:' ? 'wss:' : 'ws:'}//${window.location.host}/notifications`;
-  const socket = new WebSocket(wsUrl);
 
-  socket.onopen = function (event) {
-    console.log("[Client] WebSocket open connection!");
-  };
+  // Last event seen, sent on reconnect so the server replays what was missed
+  const cursor = { epoch: null, seq: null };
+  let attempt = 0;
+
+  // After a resume, live offers newer than the reconnect point are held back
+  // until the missed ones up to it are replayed, so they are shown in order
+  let replayUntil = null;
+  let held = [];
+
+  function showOffer(frame) {
+    if (frame.epoch === cursor.epoch && frame.seq <= cursor.seq) {
+      return;
+    }
+    cursor.epoch = frame.epoch;
+    cursor.seq = frame.seq;
+    log("[Server] " + frame.message, wsDialog, wsMessage);
+  }
+
+  function releaseHeld() {
+    const frames = held;
+    replayUntil = null;
+    held = [];
+    frames.forEach(showOffer);
+  }
 
-  socket.onmessage = function (event) {
-    if (event && event.data) {
-      log("[Server] " + event.data, wsDialog, wsMessage);
-    } else {
-      log("[Server] Received empty message.", wsDialog, wsMessage);
+  function handleFrame(frame) {
+    switch (frame.type) {
+      case "hello":
+        attempt = 0;
+        if (cursor.seq === null) {
+          cursor.epoch = frame.epoch;
+          cursor.seq = frame.seq;
+        } else {
+          socket.send(JSON.stringify({ type: "resume", epoch: cursor.epoch, lastSeq: cursor.seq }));
+          // Another epoch is answered with a snapshot, which reloads the page
+          if (frame.epoch !== cursor.epoch || frame.seq > cursor.seq) {
+            replayUntil = frame.seq;
+          }
+        }
+        break;
+      case "offer":
+        if (replayUntil !== null && frame.seq > replayUntil) {
+          held.push(frame);
+          break;
+        }
+        showOffer(frame);
+        if (replayUntil !== null && frame.seq === replayUntil) {
+          releaseHeld();
+        }
+        break;
+      case "snapshot":
+        // Too much was missed to replay: reload the current state
+        replayUntil = null;
+        held = [];
+        refreshWindow(window.location);
+        break;
     }
-  };
+  }
+
+  let socket;
+
+  function connect() {
+    socket = new WebSocket(wsUrl);
 
-  socket.onclose = function (event) {
+    socket.onopen = function (event) {
+      console.log("[Client] WebSocket open connection!");
+    };
 
-    console.log("[Client] Connection closed.");
-  };
+    socket.onmessage = function (event) {
+      if (event && event.data) {
+        let frame = null;
+        try {
+          frame = JSON.parse(event.data);
+        } catch (e) {
+          // Not a frame: show the text as it is
+        }
+        if (frame && typeof frame === "object" && frame.type) {
+          handleFrame(frame);
+        } else {
+          log("[Server] " + event.data, wsDialog, wsMessage);
+        }
+      } else {
+        log("[Server] Received empty message.", wsDialog, wsMessage);
+      }
+    };
 
-  socket.onerror = function (error) {
-    log("[Client] WebSocket Error: " + (error ? error.message : 'Unknown error'), wsDialog, wsMessage);
-  };
+    socket.onclose = function (event) {
+      // Held offers were not seen yet: the next resume replays them
+      replayUntil = null;
+      held = [];
+      const delay = nextReconnectDelay(attempt++);
+      console.log(`[Client] Connection closed. Reconnecting in ${delay} ms.`);
+      setTimeout(connect, delay);
+    };
+
+    socket.onerror = function (error) {
+      log("[Client] WebSocket Error: " + (error ? error.message : 'Unknown error'), wsDialog, wsMessage);
+    };
+  }
+
+  connect();
 
   if (wsButton) {
     wsButton.addEventListener("click", () => refreshWindow(window.location));
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package org.example.benchmark;
+
+import com.google.gson.Gson;
+import org.eclipse.jetty.websocket.common.frames.TextFrame;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the frames built for one broadcast to every session.
+ * <p>
+ * {@code perSession} is what {@code RemoteEndpoint.sendString} does, i.e.
+ * UTF-8 encoding the message into a new payload for every session.
+ * {@code shared} is what {@code BroadcastService} does: encode once into a
+ * read-only buffer and give every session's frame a view of it.
+ * <p>
+ * Run with {@code mvn -Pbench test-compile exec:exec -Dbench=BroadcastFrameBenchmark "-Dbench.args=-prof gc"}
+ * to see the bytes allocated per broadcast ({@code gc.alloc.rate.norm}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BroadcastFrameBenchmark {
+
+    @Param({"100", "1000"})
+    public int sessions;
+
+    private String message;
+
+    @Setup
+    public void setup() {
+        message = new Gson().toJson(Map.of(
+                "type", "offer", "epoch", System.currentTimeMillis(), "seq", 123456,
+                "message", "¡NEW OFFER! $1250.0 on Gibson Les Paul Standard 1959 Reissue"));
+    }
+
+    @Benchmark
+    public void perSession(Blackhole bh) {
+        for (int i = 0; i < sessions; i++) {
+            bh.consume(new TextFrame().setPayload(message));
+        }
+    }
+
+    @Benchmark
+    public void shared(Blackhole bh) {
+        byte[] utf8 = message.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer frame = ByteBuffer.wrap(utf8).asReadOnlyBuffer();
+        for (int i = 0; i < sessions; i++) {
+            bh.consume(new TextFrame().setPayload(frame.duplicate()));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.benchmark;
+
+import org.example.model.CollectibleItem;
+import org.example.model.ItemCatalog;
+import org.example.model.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a million items held as {@link CollectibleItem}s in a
+ * {@code ConcurrentHashMap} (the straightforward cache) against the columnar
+ * {@link ItemCatalog}: ID lookups, a display-price range filter matching
+ * about 1% of the items and the top 20 by display price.
+ * <p>
+ * The heap retained by each store is printed once per trial. Run with
+ * {@code -prof gc} to compare the allocation rates as well:
+ * {@code mvn -Pbench test-compile exec:exec -Dbench=CatalogBenchmark "-Dbench.args=-prof gc"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CatalogBenchmark {
+
+    private static final int ITEMS = 1_000_000;
+    private static final Comparator<CollectibleItem> BY_DISPLAY_PRICE =
+            Comparator.comparingLong(CatalogBenchmark::displayCents);
+
+    @Param({"objects", "columnar"})
+    public String store;
+
+    private Map<UUID, CollectibleItem> objects;
+    private ItemCatalog catalog;
+    private UUID[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        ids = new UUID[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            ids[i] = UUID.randomUUID();
+        }
+        long before = usedHeap();
+        if ("objects".equals(store)) {
+            objects = new ConcurrentHashMap<>(ITEMS * 2);
+        } else {
+            catalog = new ItemCatalog(ITEMS);
+        }
+        for (int i = 0; i < ITEMS; i++) {
+            // Every item has its own text, as loaded from the database.
+            CollectibleItem item = new CollectibleItem(ids[i], "Item " + i, "Description of collectible item number " + i,
+                    Money.ofCents(10_000 + (i * 7919L) % 1_000_000), Money.ofCents(i % 5 == 0 ? 20_000 + i : 0),
+                    i % 5 == 0 ? 1 : 0, 1);
+            if (objects != null) {
+                objects.put(item.getUuid(), item);
+            } else {
+                catalog.put(item);
+            }
+        }
+        System.out.printf("%n%s: %d bytes retained per item%n", store, (usedHeap() - before) / ITEMS);
+    }
+
+    @Benchmark
+    public CollectibleItem get() {
+        UUID id = ids[next++ % ITEMS];
+        return objects != null ? objects.get(id) : catalog.get(id);
+    }
+
+    @Benchmark
+    public List<CollectibleItem> priceRange() {
+        Money min = Money.of(5_000);
+        Money max = Money.of(5_100);
+        if (catalog != null) {
+            return catalog.inPriceRange(min, max);
+        }
+        List<CollectibleItem> items = new ArrayList<>();
+        for (CollectibleItem item : objects.values()) {
+            long displayCents = displayCents(item);
+            if (displayCents >= min.cents() && displayCents <= max.cents()) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    @Benchmark
+    public List<CollectibleItem> top20() {
+        if (catalog != null) {
+            return catalog.top(20);
+        }
+        PriorityQueue<CollectibleItem> heap = new PriorityQueue<>(21, BY_DISPLAY_PRICE);
+        for (CollectibleItem item : objects.values()) {
+            heap.add(item);
+            if (heap.size() > 20) {
+                heap.poll();
+            }
+        }
+        List<CollectibleItem> items = new ArrayList<>(heap);
+        items.sort(BY_DISPLAY_PRICE.reversed());
+        return items;
+    }
+
+    private static long displayCents(CollectibleItem item) {
+        return Math.max(item.getPrice().cents(), item.getCurrentTopOffer().cents());
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
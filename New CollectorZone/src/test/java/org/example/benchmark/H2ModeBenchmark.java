@@ -0,0 +1,106 @@
+package org.example.benchmark;
+
+import org.example.model.Database;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares the in-memory H2 database with the tuned embedded-file mode
+ * ({@code H2_MODE=file}) on the two operations a kiosk runs most: committing a
+ * single offer, and reading an item's top offer.
+ * <p>
+ * Run with {@code mvn -Pbench test-compile exec:exec -Dbench=H2ModeBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class H2ModeBenchmark {
+
+    private static final int ITEMS = 1_000;
+
+    @Param({"mem", "file"})
+    public String mode;
+
+    private Path dataDir;
+    private Connection conn;
+    private PreparedStatement insertOffer;
+    private PreparedStatement topOffer;
+    private UUID[] itemIds;
+
+    @Setup(Level.Trial)
+    public void open() throws SQLException, IOException {
+        String url;
+        if ("file".equals(mode)) {
+            dataDir = Files.createTempDirectory("h2-bench");
+            url = Database.devUrl(Map.of("H2_MODE", "file", "H2_FILE_PATH", dataDir.resolve("bench").toString()));
+        } else {
+            url = "jdbc:h2:mem:bench_modes;DB_CLOSE_DELAY=-1";
+        }
+
+        conn = DriverManager.getConnection(url, "sa", "");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS offers");
+            stmt.execute("CREATE TABLE offers (" +
+                    "id UUID PRIMARY KEY, name VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL, " +
+                    "price DECIMAL(10, 2) NOT NULL, created_at TIMESTAMP, item_id UUID NOT NULL)");
+            stmt.execute("CREATE INDEX idx_offers_item_price ON offers (item_id, price DESC)");
+        }
+
+        itemIds = new UUID[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds[i] = UUID.randomUUID();
+        }
+
+        insertOffer = conn.prepareStatement(
+                "INSERT INTO offers (id, name, email, price, created_at, item_id) VALUES (?, 'Bidder', 'bidder@example.com', ?, ?, ?)");
+        topOffer = conn.prepareStatement("SELECT MAX(price) FROM offers WHERE item_id = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException, IOException {
+        conn.close();
+        if (dataDir != null) {
+            try (Stream<Path> files = Files.walk(dataDir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @Benchmark
+    public int commitOffer() throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        insertOffer.setObject(1, UUID.randomUUID());
+        insertOffer.setDouble(2, random.nextInt(100, 10_000));
+        insertOffer.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+        insertOffer.setObject(4, itemIds[random.nextInt(ITEMS)]);
+        return insertOffer.executeUpdate();
+    }
+
+    @Benchmark
+    public double readTopOffer() throws SQLException {
+        topOffer.setObject(1, itemIds[ThreadLocalRandom.current().nextInt(ITEMS)]);
+        try (ResultSet rs = topOffer.executeQuery()) {
+            rs.next();
+            return rs.getDouble(1);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.example.json.Json;
+import org.example.model.CollectibleItem;
+import org.example.model.Money;
+import org.example.model.Offer;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reflective Gson with the shared {@link Json#GSON} and its
+ * streaming adapters, for the {@code GET /items} and {@code GET /offers}
+ * responses and for parsing a bid.
+ * <p>
+ * Run with {@code mvn -Pbench test-compile exec:exec -Dbench=JsonSerializationBenchmark "-Dbench.args=-prof gc"}
+ * to see the bytes allocated per operation ({@code gc.alloc.rate.norm}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonSerializationBenchmark {
+
+    private static final Type OFFER_LIST = new TypeToken<List<Offer>>() {}.getType();
+
+    @Param({"reflective", "adapters"})
+    public String gson;
+
+    private Gson instance;
+    private List<CollectibleItem> items;
+    private List<Offer> offers;
+    private String bid;
+
+    @Setup
+    public void setup() {
+        instance = gson.equals("adapters") ? Json.GSON : new Gson();
+        items = new ArrayList<>();
+        offers = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            String itemId = UUID.randomUUID().toString();
+            items.add(new CollectibleItem(itemId, "Item " + i, "Description of collectible item number " + i,
+                    Money.ofCents(10_000 + i), Money.ofCents(15_000 + i), i % 20));
+            offers.add(new Offer("Bidder " + i, "bidder" + i + "@example.com", UUID.randomUUID(),
+                    Money.ofCents(15_000 + i), itemId, new Date(1_760_000_000_000L + i)));
+        }
+        bid = instance.toJson(offers.get(0));
+    }
+
+    @Benchmark
+    public String writeItems() {
+        return instance.toJson(items);
+    }
+
+    @Benchmark
+    public String writeOffers() {
+        return instance.toJson(offers, OFFER_LIST);
+    }
+
+    @Benchmark
+    public Offer readBid() {
+        return instance.fromJson(bid, Offer.class);
+    }
+}
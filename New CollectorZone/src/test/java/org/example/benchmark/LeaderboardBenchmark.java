@@ -0,0 +1,144 @@
+package org.example.benchmark;
+
+import org.example.model.BidderActivity;
+import org.example.model.Money;
+import org.example.model.Offer;
+import org.example.model.OfferLeaderboard;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the bid rankings over 200,000 offers on 1,000 items from 5,000
+ * bidders: the {@code ORDER BY} and {@code GROUP BY} queries on H2 against
+ * the in-memory {@link OfferLeaderboard}. {@code bid} measures what keeping
+ * the leaderboard current costs per offer.
+ * <p>
+ * Run with {@code mvn -Pbench test-compile exec:exec -Dbench=LeaderboardBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class LeaderboardBenchmark {
+
+    private static final int ITEMS = 1_000;
+    private static final int BIDDERS = 5_000;
+    private static final int OFFERS = 200_000;
+
+    @Param({"sql", "leaderboard"})
+    public String source;
+
+    private final OfferLeaderboard leaderboard = new OfferLeaderboard(10);
+    private Connection conn;
+    private PreparedStatement topBids;
+    private PreparedStatement topBidders;
+    private UUID[] itemIds;
+    private long nextPrice = 1_000_000;
+    private long queries;
+
+    @Setup(Level.Trial)
+    public void populate() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:bench_leaderboard;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS offers");
+            stmt.execute("CREATE TABLE offers (" +
+                    "id UUID PRIMARY KEY, name VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL, " +
+                    "price DECIMAL(10, 2) NOT NULL, created_at TIMESTAMP, item_id UUID NOT NULL)");
+            stmt.execute("CREATE INDEX idx_offers_item_price ON offers (item_id, price DESC)");
+        }
+
+        itemIds = new UUID[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds[i] = UUID.randomUUID();
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Instant now = Instant.now();
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO offers (id, name, email, price, created_at, item_id) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < OFFERS; i++) {
+                int bidder = random.nextInt(BIDDERS);
+                Offer offer = new Offer("Bidder " + bidder, "bidder" + bidder + "@example.com", UUID.randomUUID(),
+                        Money.ofCents(random.nextLong(10_000, 1_000_000)), itemIds[random.nextInt(ITEMS)],
+                        now.plusMillis(i), 0);
+                leaderboard.offerAdded(offer);
+                insert.setObject(1, offer.getId());
+                insert.setString(2, offer.getName());
+                insert.setString(3, offer.getEmail());
+                insert.setBigDecimal(4, offer.getPrice().toBigDecimal());
+                insert.setTimestamp(5, Timestamp.from(offer.getCreatedAt()));
+                insert.setObject(6, offer.getItemUuid());
+                insert.addBatch();
+                if (i % 1_000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+
+        topBids = conn.prepareStatement(
+                "SELECT id, price FROM offers WHERE item_id = ? ORDER BY price DESC, created_at, id LIMIT 10");
+        topBidders = conn.prepareStatement(
+                "SELECT MAX(name), COUNT(*) AS n FROM offers GROUP BY LOWER(email) HAVING COUNT(*) > ? ORDER BY n DESC LIMIT 10");
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        conn.close();
+    }
+
+    @Benchmark
+    public List<?> topBids() throws SQLException {
+        UUID itemId = itemIds[ThreadLocalRandom.current().nextInt(ITEMS)];
+        if ("leaderboard".equals(source)) {
+            return leaderboard.topBids(itemId, 10);
+        }
+        topBids.setObject(1, itemId);
+        List<BigDecimal> prices = new ArrayList<>(10);
+        try (ResultSet rs = topBids.executeQuery()) {
+            while (rs.next()) {
+                prices.add(rs.getBigDecimal(2));
+            }
+        }
+        return prices;
+    }
+
+    @Benchmark
+    public List<BidderActivity> topBidders() throws SQLException {
+        if ("leaderboard".equals(source)) {
+            return leaderboard.topBidders(10);
+        }
+        // H2 reuses the last result of an unchanged query; a new bound each time defeats that.
+        topBidders.setLong(1, -(++queries));
+        List<BidderActivity> bidders = new ArrayList<>(10);
+        try (ResultSet rs = topBidders.executeQuery()) {
+            while (rs.next()) {
+                bidders.add(new BidderActivity(rs.getString(1), rs.getLong(2)));
+            }
+        }
+        return bidders;
+    }
+
+    @Benchmark
+    public void bid() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int bidder = random.nextInt(BIDDERS);
+        leaderboard.offerAdded(new Offer("Bidder " + bidder, "bidder" + bidder + "@example.com", UUID.randomUUID(),
+                Money.ofCents(nextPrice++), itemIds[random.nextInt(ITEMS)], Instant.now(), 0));
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.benchmark;
+
+import org.example.model.BidWriter;
+import org.example.model.CollectibleItem;
+import org.example.model.GroupCommitOfferWriter;
+import org.example.model.ItemService;
+import org.example.model.Migrations;
+import org.example.model.Money;
+import org.example.model.Offer;
+import org.example.model.OfferJournal;
+import org.example.model.OfferService;
+import org.example.model.WriteBehindOfferStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepted-bid throughput of {@link OfferService#createOffer(Offer)} with
+ * several concurrent bidders, per write mode. Each bidder thread bids on its
+ * own items with rising prices, so no bid is rejected.
+ * <p>
+ * Run with {@code mvn -Pbench test-compile exec:exec -Dbench=OfferWriteModeBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OfferWriteModeBenchmark {
+
+    private static final int ITEMS_PER_THREAD = 10;
+
+    @Param({"sync", "group-commit", "write-behind"})
+    public String mode;
+
+    private Path journalDir;
+    private BidWriter bidWriter;
+    private ItemService itemService;
+    private OfferService offerService;
+
+    @State(Scope.Thread)
+    public static class Bidder {
+        private final String[] itemIds = new String[ITEMS_PER_THREAD];
+        private long nextPrice = 1;
+
+        @Setup(Level.Trial)
+        public void createItems(OfferWriteModeBenchmark benchmark) {
+            for (int i = 0; i < ITEMS_PER_THREAD; i++) {
+                itemIds[i] = UUID.randomUUID().toString();
+                benchmark.itemService.createItem(itemIds[i], new CollectibleItem(null, "Item " + i, "Benchmark item", Money.parse("0.50")));
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Migrations.migrate();
+
+        itemService = new ItemService();
+        if ("group-commit".equals(mode)) {
+            bidWriter = new GroupCommitOfferWriter(itemService, 500, 200);
+        } else if ("write-behind".equals(mode)) {
+            journalDir = Files.createTempDirectory("offer-journal");
+            bidWriter = new WriteBehindOfferStore(
+                    new OfferJournal(journalDir.resolve("offers.journal"), 64 * 1024 * 1024), itemService, 500);
+        }
+        if (bidWriter != null) {
+            bidWriter.start();
+        }
+        offerService = new OfferService(itemService, bidWriter);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (bidWriter != null) {
+            bidWriter.close();
+        }
+        if (journalDir != null) {
+            Files.deleteIfExists(journalDir.resolve("offers.journal"));
+            Files.deleteIfExists(journalDir);
+        }
+    }
+
+    @Benchmark
+    public Offer createOffer(Bidder bidder) {
+        String itemId = bidder.itemIds[ThreadLocalRandom.current().nextInt(ITEMS_PER_THREAD)];
+        Offer offer = new Offer("Bidder", "bidder@example.com", null, Money.of(bidder.nextPrice++), itemId, new Date());
+        return offerService.createOffer(offer);
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.benchmark;
+
+import org.example.model.CollectibleItem;
+import org.example.model.ItemCatalog;
+import org.example.model.ItemPriceIndex;
+import org.example.model.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares display-price queries over a million items: a scan of the
+ * columnar {@link ItemCatalog} against the sorted {@link ItemPriceIndex},
+ * whose IDs are then read from the catalog. The range matches about 100
+ * items. {@code bid} measures what keeping the index current costs per offer.
+ * <p>
+ * Run with {@code mvn -Pbench test-compile exec:exec -Dbench=PriceIndexBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PriceIndexBenchmark {
+
+    private static final int ITEMS = 1_000_000;
+
+    @Param({"scan", "index"})
+    public String source;
+
+    private final ItemCatalog catalog = new ItemCatalog(ITEMS);
+    private final ItemPriceIndex index = new ItemPriceIndex();
+    private UUID[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        ids = new UUID[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            ids[i] = UUID.randomUUID();
+            Money price = Money.ofCents(10_000 + (i * 7919L) % 1_000_000);
+            catalog.put(new CollectibleItem(ids[i], "Item " + i, "Description", price, Money.ZERO, 0, 1));
+            index.put(ids[i], price, Money.ZERO);
+        }
+    }
+
+    @Benchmark
+    public List<CollectibleItem> priceRange() {
+        Money min = Money.of(5_000);
+        Money max = Money.parse("5000.99");
+        return "scan".equals(source) ? catalog.inPriceRange(min, max) : resolve(index.inRange(min, max));
+    }
+
+    @Benchmark
+    public List<CollectibleItem> top20() {
+        return "scan".equals(source) ? catalog.top(20) : resolve(index.top(20));
+    }
+
+    @Benchmark
+    public void bid() {
+        UUID id = ids[next++ % ITEMS];
+        Money offer = Money.ofCents(1_000_000 + next);
+        catalog.addOffers(id, offer, 1);
+        if ("index".equals(source)) {
+            index.raiseTopOffer(id, offer);
+        }
+    }
+
+    private List<CollectibleItem> resolve(List<UUID> ids) {
+        List<CollectibleItem> items = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            items.add(catalog.get(id));
+        }
+        return items;
+    }
+}
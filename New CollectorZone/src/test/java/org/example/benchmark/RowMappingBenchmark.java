@@ -0,0 +1,114 @@
+package org.example.benchmark;
+
+import org.example.model.CollectibleItem;
+import org.example.model.ItemRowMapper;
+import org.example.model.Money;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a full scan of a 1M-row {@code items} table mapped the old way
+ * ({@code SELECT *} plus a name lookup per column and a setter per field)
+ * against the explicit projection read by {@link ItemRowMapper}.
+ * <p>
+ * The table carries a few extra columns that the application never reads,
+ * standing in for a wider future schema.
+ * <p>
+ * Run with {@code mvn -Pbench test-compile exec:exec -Dbench=RowMappingBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RowMappingBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:bench_rows;DB_CLOSE_DELAY=-1";
+    private static final int ROWS = 1_000_000;
+
+    private Connection conn;
+
+    @Setup(Level.Trial)
+    public void populate() throws SQLException {
+        conn = DriverManager.getConnection(URL, "sa", "");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS items");
+            stmt.execute("CREATE TABLE items (" +
+                    "id UUID PRIMARY KEY, " +
+                    "name VARCHAR(255) NOT NULL, " +
+                    "description VARCHAR(1000), " +
+                    "price DECIMAL(10, 2) NOT NULL, " +
+                    "provenance VARCHAR(1000), " +
+                    "condition_notes VARCHAR(1000), " +
+                    "shipping_notes VARCHAR(1000), " +
+                    "current_top_offer DECIMAL(10, 2), " +
+                    "offer_count INT NOT NULL DEFAULT 0, " +
+                    "version BIGINT NOT NULL DEFAULT 0)");
+        }
+
+        conn.setAutoCommit(false);
+        String sql = "INSERT INTO items (id, name, description, price, provenance, condition_notes, shipping_notes) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < ROWS; i++) {
+                pstmt.setObject(1, UUID.randomUUID());
+                pstmt.setString(2, "Item " + i);
+                pstmt.setString(3, "Description of collectible item number " + i);
+                pstmt.setDouble(4, 100 + (i % 1000));
+                pstmt.setString(5, "Provenance record " + i);
+                pstmt.setString(6, "Condition notes " + i);
+                pstmt.setString(7, "Shipping notes " + i);
+                pstmt.addBatch();
+                if (i % 10_000 == 9_999) {
+                    pstmt.executeBatch();
+                }
+            }
+            pstmt.executeBatch();
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE items");
+        }
+        conn.close();
+    }
+
+    @Benchmark
+    public void selectStarByName(Blackhole bh) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM items")) {
+            while (rs.next()) {
+                bh.consume(new CollectibleItem(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("name"),
+                        rs.getString("description"),
+                        Money.ofCents(rs.getBigDecimal("price").movePointRight(2).longValueExact()),
+                        Money.ZERO, 0, 0));
+            }
+        }
+    }
+
+    @Benchmark
+    public void projectedByIndex(Blackhole bh) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT " + ItemRowMapper.COLUMNS + " FROM items")) {
+            while (rs.next()) {
+                bh.consume(ItemRowMapper.INSTANCE.map(rs));
+            }
+        }
+    }
+}
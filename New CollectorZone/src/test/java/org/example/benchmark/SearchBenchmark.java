@@ -0,0 +1,69 @@
+package org.example.benchmark;
+
+import org.example.model.CollectibleItem;
+import org.example.model.ItemSearchIndex;
+import org.example.model.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the keyword search on {@code /items-web} over 100k items: the
+ * former scan (lower-case every name and description, then
+ * {@code String.contains}) against the {@link ItemSearchIndex}. The rare
+ * query matches 10 items, the common one about 10% of them.
+ * <p>
+ * Run with {@code mvn -Pbench test-compile exec:exec -Dbench=SearchBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SearchBenchmark {
+
+    private static final int ITEMS = 100_000;
+    private static final String[] ARTISTS = {"Rosalía", "Bad Bunny", "Peso Pluma", "Snoop Dogg", "Shakira",
+            "Café Tacvba", "Natalia Lafourcade", "Juanes", "Maná", "Selena"};
+
+    @Param({"selena", "rara10"})
+    public String query;
+
+    private final List<CollectibleItem> items = new ArrayList<>(ITEMS);
+    private final ItemSearchIndex index = new ItemSearchIndex();
+
+    @Setup(Level.Trial)
+    public void populate() {
+        for (int i = 0; i < ITEMS; i++) {
+            // Every 10,000th item is a "rara" edition, so "rara10" matches items 10, 10010, ...
+            String name = "Poster de " + ARTISTS[i % ARTISTS.length] + " #" + i;
+            String description = (i % 10_000 == 10 ? "Edición rara" + i % 100 : "Edición de coleccionista " + i)
+                    + ", autografiado y enmarcado";
+            CollectibleItem item = new CollectibleItem(UUID.randomUUID().toString(), name, description, Money.of(100));
+            items.add(item);
+            index.put(item.getUuid(), name, description);
+        }
+    }
+
+    @Benchmark
+    public List<CollectibleItem> scan() {
+        String search = query.toLowerCase();
+        List<CollectibleItem> matches = new ArrayList<>();
+        for (CollectibleItem item : items) {
+            if (item.getName().toLowerCase().contains(search) || item.getDescription().toLowerCase().contains(search)) {
+                matches.add(item);
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public Set<UUID> index() {
+        return index.search(query);
+    }
+}
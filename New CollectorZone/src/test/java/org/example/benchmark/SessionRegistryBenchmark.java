@@ -0,0 +1,123 @@
+package org.example.benchmark;
+
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.example.model.BroadcastService;
+import org.example.model.SessionRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a reconnect storm: every session connects, then every session
+ * disconnects, as after a deploy. Compares the {@link CopyOnWriteArrayList}
+ * that {@code BroadcastService} used to keep its sessions in, which copies the
+ * whole array on every change, with the sharded {@link SessionRegistry}.
+ * {@code broadcast-service} goes through {@link BroadcastService#addSession}
+ * and {@link BroadcastService#removeSession}, i.e. the registry plus the
+ * session cap, the hello frame and the sequence lock. Four threads share the
+ * storm, as Jetty's threads would.
+ * <p>
+ * Run with {@code mvn -Pbench test-compile exec:exec -Dbench=SessionRegistryBenchmark}.
+ * The {@code bench} profile raises {@code WS_MAX_CONNECTIONS} so that no session
+ * is rejected, and the benchmark logs warnings only, so the console does not
+ * dominate the storm.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(SessionRegistryBenchmark.THREADS)
+public class SessionRegistryBenchmark {
+
+    static final int THREADS = 4;
+
+    @Param({"10000", "50000"})
+    public int sessions;
+
+    @Param({"copy-on-write", "registry", "broadcast-service"})
+    public String registry;
+
+    private List<Session> copyOnWrite;
+    private SessionRegistry<Long> sharded;
+
+    /**
+     * The sessions one thread connects and disconnects.
+     */
+    @State(Scope.Thread)
+    public static class Clients {
+
+        private Session[] sessions;
+
+        @Setup(Level.Trial)
+        public void create(SessionRegistryBenchmark benchmark) {
+            sessions = new Session[benchmark.sessions / THREADS];
+            for (int i = 0; i < sessions.length; i++) {
+                sessions[i] = fakeSession();
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void quietLogs() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        copyOnWrite = new CopyOnWriteArrayList<>();
+        sharded = new SessionRegistry<>();
+    }
+
+    @Benchmark
+    public int storm(Clients clients) {
+        if ("copy-on-write".equals(registry)) {
+            for (Session session : clients.sessions) {
+                copyOnWrite.add(session);
+            }
+            for (Session session : clients.sessions) {
+                copyOnWrite.remove(session);
+            }
+            return copyOnWrite.size();
+        }
+        if ("broadcast-service".equals(registry)) {
+            for (Session session : clients.sessions) {
+                BroadcastService.addSession(session);
+            }
+            for (Session session : clients.sessions) {
+                BroadcastService.removeSession(session);
+            }
+            return BroadcastService.sessionCount();
+        }
+        for (Session session : clients.sessions) {
+            sharded.put(session, 0L);
+        }
+        for (Session session : clients.sessions) {
+            sharded.remove(session);
+        }
+        return sharded.size();
+    }
+
+    /**
+     * An open session with identity equality whose sends are dropped, cheaper than a mock.
+     */
+    private static Session fakeSession() {
+        RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(RemoteEndpoint.class.getClassLoader(),
+                new Class<?>[]{RemoteEndpoint.class}, (proxy, method, args) -> null);
+        return (Session) Proxy.newProxyInstance(Session.class.getClassLoader(), new Class<?>[]{Session.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "isOpen" -> true;
+                    case "getRemote" -> remote;
+                    default -> null;
+                });
+    }
+}
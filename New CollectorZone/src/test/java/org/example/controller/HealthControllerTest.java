@@ -0,0 +1,62 @@
+package org.example.controller;
+
+import org.example.model.ApiException;
+import org.example.model.Startup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import spark.Request;
+import spark.Response;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class HealthControllerTest {
+
+    private Startup startup;
+    private HealthController controller;
+    private Request request;
+    private Response response;
+
+    @BeforeEach
+    void setUp() {
+        startup = new Startup();
+        controller = new HealthController(startup);
+        request = mock(Request.class);
+        response = mock(Response.class);
+    }
+
+    @Test
+    void live_answersDuringStartup() {
+        assertEquals("{\"status\":\"UP\"}", controller.live(request, response));
+        verify(response, never()).status(anyInt());
+    }
+
+    @Test
+    void ready_is503UntilStartupFinished() {
+        assertEquals("{\"status\":\"STARTING\"}", controller.ready(request, response));
+        verify(response).status(503);
+
+        startup.phase("pool", () -> { });
+        startup.markReady();
+        String body = controller.ready(request, response);
+
+        assertTrue(body.startsWith("{\"status\":\"READY\",\"startupMillis\":"), body);
+        assertTrue(body.contains("\"phases\":{\"pool\":"), body);
+        verify(response, times(1)).status(anyInt());
+    }
+
+    @Test
+    void requireReady_rejectsAllButHealthChecksDuringStartup() {
+        when(request.pathInfo()).thenReturn("/items");
+        ApiException e = assertThrows(ApiException.class, () -> controller.requireReady(request, response));
+        assertEquals(503, e.getStatusCode());
+        verify(response).header("Retry-After", "1");
+
+        when(request.pathInfo()).thenReturn("/health/ready");
+        controller.requireReady(request, response);
+
+        startup.markReady();
+        when(request.pathInfo()).thenReturn("/items");
+        controller.requireReady(request, response);
+    }
+}
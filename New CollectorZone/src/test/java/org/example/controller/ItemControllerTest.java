@@ -1,9 +1,11 @@
 package org.example.controller;
 
 import com.google.gson.Gson;
+import org.example.json.Json;
 import org.example.model.CollectibleItem;
 import org.example.model.ItemService;
 import org.example.model.ApiException;
+import org.example.model.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -16,6 +18,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -34,7 +37,9 @@ class ItemControllerTest {
     @InjectMocks
     private ItemController itemController;
 
-    private final Gson gson = new Gson();
+    private static final String ID = UUID.randomUUID().toString();
+
+    private final Gson gson = Json.GSON;
 
     @BeforeEach
     void setUp() {
@@ -43,7 +48,7 @@ class ItemControllerTest {
 
     @Test
     void getAllItems() {
-        CollectibleItem item = new CollectibleItem("1", "Test Item", "Description", 100.0);
+        CollectibleItem item = new CollectibleItem(ID, "Test Item", "Description", Money.of(100));
         List<CollectibleItem> items = Collections.singletonList(item);
         when(itemService.getAllItems()).thenReturn(items);
 
@@ -53,10 +58,67 @@ class ItemControllerTest {
         assertEquals(gson.toJson(items), result);
     }
 
+    @Test
+    void getAllItemsByPrice() {
+        CollectibleItem item = new CollectibleItem(ID, "Test Item", "Description", Money.of(400));
+        List<CollectibleItem> items = Collections.singletonList(item);
+        when(req.queryParams("sort")).thenReturn("price");
+        when(req.queryParams("minPrice")).thenReturn("300");
+        when(req.queryParams("maxPrice")).thenReturn("600.50");
+        when(itemService.getItemsByDisplayPrice(Money.of(300), Money.parse("600.50"))).thenReturn(items);
+
+        String result = itemController.getAllItems(req, res);
+
+        assertEquals(gson.toJson(items), result);
+        verify(itemService, never()).getAllItems();
+    }
+
+    @Test
+    void getAllItemsSortedByPriceWithoutBounds() {
+        when(req.queryParams("sort")).thenReturn("price");
+        when(itemService.getItemsByDisplayPrice(null, null)).thenReturn(Collections.emptyList());
+
+        assertEquals("[]", itemController.getAllItems(req, res));
+    }
+
+    @Test
+    void getAllItemsRejectsInvalidFilters() {
+        when(req.queryParams("minPrice")).thenReturn("cheap");
+        ApiException exception = assertThrows(ApiException.class, () -> itemController.getAllItems(req, res));
+        assertEquals(400, exception.getStatusCode());
+        assertEquals("Invalid minPrice", exception.getMessage());
+
+        when(req.queryParams("minPrice")).thenReturn(null);
+        when(req.queryParams("sort")).thenReturn("name");
+        exception = assertThrows(ApiException.class, () -> itemController.getAllItems(req, res));
+        assertEquals(400, exception.getStatusCode());
+    }
+
+    @Test
+    void getTopItems() {
+        CollectibleItem item = new CollectibleItem(ID, "Test Item", "Description", Money.of(100));
+        when(itemService.getTopItems(20)).thenReturn(Collections.singletonList(item));
+        when(itemService.getTopItems(5)).thenReturn(Collections.emptyList());
+
+        assertEquals(gson.toJson(Collections.singletonList(item)), itemController.getTopItems(req, res));
+        when(req.queryParams("limit")).thenReturn("5");
+        assertEquals("[]", itemController.getTopItems(req, res));
+        verify(res, times(2)).type("application/json");
+    }
+
+    @Test
+    void getTopItemsRejectsInvalidLimit() {
+        for (String limit : new String[] {"0", "101", "many"}) {
+            when(req.queryParams("limit")).thenReturn(limit);
+            ApiException exception = assertThrows(ApiException.class, () -> itemController.getTopItems(req, res));
+            assertEquals(400, exception.getStatusCode(), limit);
+        }
+    }
+
     @Test
     void getItemById() {
-        String id = "1";
-        CollectibleItem item = new CollectibleItem(id, "Test Item", "Description", 100.0);
+        String id = ID;
+        CollectibleItem item = new CollectibleItem(id, "Test Item", "Description", Money.of(100));
         when(req.params(":id")).thenReturn(id);
         when(itemService.getItemById(id)).thenReturn(item);
 
@@ -68,8 +130,8 @@ class ItemControllerTest {
 
     @Test
     void createItem() {
-        String id = "1";
-        CollectibleItem item = new CollectibleItem(id, "Test Item", "Description", 100.0);
+        String id = ID;
+        CollectibleItem item = new CollectibleItem(id, "Test Item", "Description", Money.of(100));
         String itemJson = gson.toJson(item);
 
         when(req.params(":id")).thenReturn(id);
@@ -78,7 +140,7 @@ class ItemControllerTest {
                 Objects.equals(i.getId(), item.getId()) &&
                 Objects.equals(i.getName(), item.getName()) &&
                 Objects.equals(i.getDescription(), item.getDescription()) &&
-                i.getPrice() == item.getPrice()
+                i.getPrice().equals(item.getPrice())
         ))).thenReturn(item);
 
         String result = itemController.createItem(req, res);
@@ -90,7 +152,7 @@ class ItemControllerTest {
 
     @Test
     void createItem_invalidJson() {
-        when(req.params(":id")).thenReturn("1");
+        when(req.params(":id")).thenReturn(ID);
         when(req.body()).thenReturn("invalid json");
 
         ApiException exception = assertThrows(ApiException.class, () -> itemController.createItem(req, res));
@@ -101,7 +163,7 @@ class ItemControllerTest {
     
     @Test
     void createItem_emptyBody() {
-        when(req.params(":id")).thenReturn("1");
+        when(req.params(":id")).thenReturn(ID);
         when(req.body()).thenReturn("");
 
         ApiException exception = assertThrows(ApiException.class, () -> itemController.createItem(req, res));
@@ -112,8 +174,8 @@ class ItemControllerTest {
 
     @Test
     void updateItem() {
-        String id = "1";
-        CollectibleItem item = new CollectibleItem(id, "Updated Item", "Updated Description", 150.0);
+        String id = ID;
+        CollectibleItem item = new CollectibleItem(id, "Updated Item", "Updated Description", Money.of(150));
         String itemJson = gson.toJson(item);
 
         when(req.params(":id")).thenReturn(id);
@@ -122,8 +184,8 @@ class ItemControllerTest {
                 Objects.equals(i.getId(), item.getId()) &&
                 Objects.equals(i.getName(), item.getName()) &&
                 Objects.equals(i.getDescription(), item.getDescription()) &&
-                i.getPrice() == item.getPrice()
-        ))).thenReturn(item);
+                i.getPrice().equals(item.getPrice())
+        ), isNull())).thenReturn(item);
 
         String result = itemController.updateItem(req, res);
 
@@ -131,9 +193,36 @@ class ItemControllerTest {
         assertEquals(gson.toJson(item), result);
     }
 
+    @Test
+    void updateItem_ifMatchIsPassedAsExpectedVersion() {
+        String id = ID;
+        CollectibleItem item = new CollectibleItem(id, "Updated Item", "Updated Description", Money.of(150)).withVersion(4);
+
+        when(req.params(":id")).thenReturn(id);
+        when(req.body()).thenReturn(gson.toJson(item));
+        when(req.headers("If-Match")).thenReturn("\"3\"");
+        when(itemService.updateItem(eq(id), any(CollectibleItem.class), eq(3L))).thenReturn(item);
+
+        itemController.updateItem(req, res);
+
+        verify(res).header("ETag", "\"4\"");
+    }
+
+    @Test
+    void updateItem_unknownIfMatch() {
+        when(req.params(":id")).thenReturn(ID);
+        when(req.body()).thenReturn(gson.toJson(new CollectibleItem(ID, "Item", "Description", Money.of(1))));
+        when(req.headers("If-Match")).thenReturn("W/\"3\"");
+
+        ApiException exception = assertThrows(ApiException.class, () -> itemController.updateItem(req, res));
+
+        assertEquals(412, exception.getStatusCode());
+        verifyNoInteractions(itemService);
+    }
+
     @Test
     void updateItem_invalidJson() {
-        when(req.params(":id")).thenReturn("1");
+        when(req.params(":id")).thenReturn(ID);
         when(req.body()).thenReturn("invalid json");
 
         ApiException exception = assertThrows(ApiException.class, () -> itemController.updateItem(req, res));
@@ -144,7 +233,7 @@ class ItemControllerTest {
     
     @Test
     void updateItem_emptyBody() {
-        when(req.params(":id")).thenReturn("1");
+        when(req.params(":id")).thenReturn(ID);
         when(req.body()).thenReturn("");
 
         ApiException exception = assertThrows(ApiException.class, () -> itemController.updateItem(req, res));
@@ -155,7 +244,7 @@ class ItemControllerTest {
 
     @Test
     void deleteItem() {
-        String id = "1";
+        String id = ID;
         when(req.params(":id")).thenReturn(id);
 
         String result = itemController.deleteItem(req, res);
@@ -167,7 +256,7 @@ class ItemControllerTest {
 
     @Test
     void checkItem() {
-        String id = "1";
+        String id = ID;
         when(req.params(":id")).thenReturn(id);
 
         String result = itemController.checkItem(req, res);
@@ -16,7 +16,6 @@ import static org.mockito.Mockito.*;
 class ItemWebControllerTest {
 
     private ItemService itemService;
-    private OfferService offerService;
     private ItemWebController itemWebController;
     private Request request;
     private Response response;
@@ -25,8 +24,7 @@ class ItemWebControllerTest {
     @BeforeEach
     void setUp() {
         itemService = mock(ItemService.class);
-        offerService = mock(OfferService.class);
-        itemWebController = new ItemWebController(itemService, offerService);
+        itemWebController = new ItemWebController(itemService);
         request = mock(Request.class);
         response = mock(Response.class);
         session = mock(Session.class);
@@ -90,8 +88,8 @@ class ItemWebControllerTest {
     @Test
     void showItemsPageWithFilters() {
         String id = UUID.randomUUID().toString();
-        CollectibleItem item = new CollectibleItem(id, "Test Item", "Test Description", 100.0);
-        when(itemService.getAllItems()).thenReturn(Collections.singletonList(item));
+        CollectibleItem item = new CollectibleItem(id, "Test Item", "Test Description", Money.of(100));
+        when(itemService.searchItems("Test")).thenReturn(Collections.singletonList(item));
         when(request.queryParams("search")).thenReturn("Test");
         when(request.queryParams("minPrice")).thenReturn("50");
         when(request.queryParams("maxPrice")).thenReturn("150");
@@ -101,6 +99,19 @@ class ItemWebControllerTest {
         assertTrue(result.contains("Test Item"));
     }
 
+    @Test
+    void showItemsPageWithSearchOutsidePriceRange() {
+        String id = UUID.randomUUID().toString();
+        CollectibleItem item = new CollectibleItem(id, "Test Item", "Test Description", Money.of(100), Money.of(200), 1);
+        when(itemService.searchItems("Test")).thenReturn(Collections.singletonList(item));
+        when(request.queryParams("search")).thenReturn("Test");
+        when(request.queryParams("maxPrice")).thenReturn("150");
+
+        String result = itemWebController.showItemsPage(request, response);
+
+        assertFalse(result.contains("Test Item"), "The top offer puts the item above the range.");
+    }
+
     @Test
     void showItemsPageWithSessionMessages() {
         when(request.session(false)).thenReturn(session);
@@ -119,32 +130,32 @@ class ItemWebControllerTest {
     @Test
     void showItemsPageWithOffer() {
         String id = UUID.randomUUID().toString();
-        CollectibleItem item = new CollectibleItem(id, "Test Item", "Test Description", 100.0);
-        Offer offer = new Offer("testuser", "user@test.com", UUID.randomUUID(), 120.0, id, new Date());
+        CollectibleItem item = new CollectibleItem(id, "Test Item", "Test Description", Money.of(100), Money.of(120), 1);
         when(itemService.getAllItems()).thenReturn(Collections.singletonList(item));
-        when(offerService.getLastOffer(UUID.fromString(id))).thenReturn(Optional.of(offer));
 
         String result = itemWebController.showItemsPage(request, response);
 
-        assertTrue(result.contains("120.0"));
+        assertTrue(result.contains("Current Offer: $120.00"));
     }
 
     @Test
     void showItemsPageWithNoMatchingFilters() {
         String id = UUID.randomUUID().toString();
-        CollectibleItem item = new CollectibleItem(id, "Test Item", "Test Description", 100.0);
+        CollectibleItem item = new CollectibleItem(id, "Test Item", "Test Description", Money.of(100));
         when(itemService.getAllItems()).thenReturn(Collections.singletonList(item));
+        when(itemService.searchItems("NoMatch")).thenReturn(Collections.emptyList());
         when(request.queryParams("search")).thenReturn("NoMatch");
 
         String result = itemWebController.showItemsPage(request, response);
 
         assertFalse(result.contains("Test Item"));
+        verify(itemService, never()).getAllItems();
     }
 
     @Test
     void showItemsPageWithInvalidPriceFilters() {
         String id = UUID.randomUUID().toString();
-        CollectibleItem item = new CollectibleItem(id, "Test Item", "Test Description", 100.0);
+        CollectibleItem item = new CollectibleItem(id, "Test Item", "Test Description", Money.of(100));
         when(itemService.getAllItems()).thenReturn(Collections.singletonList(item));
         when(request.queryParams("minPrice")).thenReturn("invalid");
         when(request.queryParams("maxPrice")).thenReturn("invalid");
@@ -165,12 +176,14 @@ class ItemWebControllerTest {
     @Test
     void showItemsPageWithPriceFilterExcludingItem() {
         String id = UUID.randomUUID().toString();
-        CollectibleItem item = new CollectibleItem(id, "Test Item", "Test Description", 100.0);
+        CollectibleItem item = new CollectibleItem(id, "Test Item", "Test Description", Money.of(100));
         when(itemService.getAllItems()).thenReturn(Collections.singletonList(item));
+        when(itemService.getItemsByDisplayPrice(Money.of(150), null)).thenReturn(Collections.emptyList());
         when(request.queryParams("minPrice")).thenReturn("150");
 
         String result = itemWebController.showItemsPage(request, response);
 
         assertFalse(result.contains("Test Item"));
+        verify(itemService, never()).getAllItems();
     }
 }
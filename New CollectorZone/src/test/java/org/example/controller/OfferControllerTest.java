@@ -1,6 +1,10 @@
 package org.example.controller;
 
 import com.google.gson.Gson;
+import org.example.json.Json;
+import org.example.model.ApiException;
+import org.example.model.BidderActivity;
+import org.example.model.Money;
 import org.example.model.Offer;
 import org.example.model.OfferService;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,9 +16,11 @@ import spark.Request;
 import spark.Response;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 class OfferControllerTest {
@@ -31,13 +37,17 @@ class OfferControllerTest {
     @InjectMocks
     private OfferController offerController;
 
-    private final Gson gson = new Gson();
+    private final Gson gson = Json.GSON;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
     }
 
+    private static Offer offer(UUID id) {
+        return new Offer(null, null, id, Money.ZERO, (String) null, null);
+    }
+
     @Test
     void getAllOffers() {
         when(offerService.getAllOffers()).thenReturn(Collections.emptyList());
@@ -49,8 +59,7 @@ class OfferControllerTest {
     @Test
     void getOfferById() {
         UUID id = UUID.randomUUID();
-        Offer offer = new Offer();
-        offer.setId(id);
+        Offer offer = offer(id);
         when(req.params(":id")).thenReturn(id.toString());
         when(offerService.getOfferById(id)).thenReturn(offer);
         String result = offerController.getOfferById(req, res);
@@ -61,8 +70,7 @@ class OfferControllerTest {
     @Test
     void createOffer() {
         UUID id = UUID.randomUUID();
-        Offer offer = new Offer();
-        offer.setId(id);
+        Offer offer = offer(id);
         String jsonOffer = gson.toJson(offer);
 
         when(req.params(":id")).thenReturn(id.toString());
@@ -79,13 +87,12 @@ class OfferControllerTest {
     @Test
     void updateOffer() {
         UUID id = UUID.randomUUID();
-        Offer offer = new Offer();
-        offer.setId(id);
+        Offer offer = offer(id);
         String jsonOffer = gson.toJson(offer);
 
         when(req.params(":id")).thenReturn(id.toString());
         when(req.body()).thenReturn(jsonOffer);
-        when(offerService.updateOffer(eq(id), any(Offer.class))).thenReturn(offer);
+        when(offerService.updateOffer(eq(id), any(Offer.class), isNull())).thenReturn(offer);
 
         String result = offerController.updateOffer(req, res);
 
@@ -93,6 +100,21 @@ class OfferControllerTest {
         assertEquals(jsonOffer, result);
     }
 
+    @Test
+    void updateOffer_ifMatchIsPassedAsExpectedVersion() {
+        UUID id = UUID.randomUUID();
+        Offer offer = offer(id).withVersion(8);
+
+        when(req.params(":id")).thenReturn(id.toString());
+        when(req.body()).thenReturn(gson.toJson(offer));
+        when(req.headers("If-Match")).thenReturn("\"7\"");
+        when(offerService.updateOffer(eq(id), any(Offer.class), eq(7L))).thenReturn(offer);
+
+        offerController.updateOffer(req, res);
+
+        verify(res).header("ETag", "\"8\"");
+    }
+
     @Test
     void deleteOffer() {
         UUID id = UUID.randomUUID();
@@ -104,4 +126,47 @@ class OfferControllerTest {
         verify(res).type("application/json");
         assertEquals("{\"message\":\"Offer deleted successfully\"}", result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getTopBids() {
+        UUID itemId = UUID.randomUUID();
+        Offer offer = offer(UUID.randomUUID());
+        when(req.params(":id")).thenReturn(itemId.toString());
+        when(req.queryParams("limit")).thenReturn("3");
+        when(offerService.getTopBids(itemId, 3)).thenReturn(List.of(offer));
+
+        String result = offerController.getTopBids(req, res);
+
+        verify(res).type("application/json");
+        assertEquals(gson.toJson(List.of(offer)), result);
+    }
+
+    @Test
+    void getTopBids_limitAboveWhatIsKeptIsRejected() {
+        when(req.params(":id")).thenReturn(UUID.randomUUID().toString());
+        when(req.queryParams("limit")).thenReturn(String.valueOf(OfferService.TOP_BIDS + 1));
+
+        ApiException exception = assertThrows(ApiException.class, () -> offerController.getTopBids(req, res));
+
+        assertEquals(400, exception.getStatusCode());
+    }
+
+    @Test
+    void getTopBidders() {
+        when(offerService.getTopBidders(10)).thenReturn(List.of(new BidderActivity("Ana", 4)));
+
+        String result = offerController.getTopBidders(req, res);
+
+        verify(res).type("application/json");
+        assertEquals("[{\"name\":\"Ana\",\"offers\":4}]", result);
+    }
+
+    @Test
+    void getTopBidders_invalidLimitIsRejected() {
+        when(req.queryParams("limit")).thenReturn("many");
+
+        ApiException exception = assertThrows(ApiException.class, () -> offerController.getTopBidders(req, res));
+
+        assertEquals(400, exception.getStatusCode());
+    }
+}
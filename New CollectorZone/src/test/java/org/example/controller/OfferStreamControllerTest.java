@@ -0,0 +1,160 @@
+package org.example.controller;
+
+import org.example.model.ApiException;
+import org.example.model.BroadcastService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import spark.Request;
+import spark.Response;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class OfferStreamControllerTest {
+
+    private final OfferStreamController controller = new OfferStreamController();
+
+    private Request request;
+    private Response response;
+    private HttpServletResponse rawResponse;
+    private AsyncContext async;
+    private ServletOutputStream out;
+    private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        request = mock(Request.class);
+        response = mock(Response.class);
+        HttpServletRequest rawRequest = mock(HttpServletRequest.class);
+        rawResponse = mock(HttpServletResponse.class);
+        async = mock(AsyncContext.class);
+        out = mock(ServletOutputStream.class);
+
+        when(request.raw()).thenReturn(rawRequest);
+        when(response.raw()).thenReturn(rawResponse);
+        when(rawRequest.startAsync()).thenReturn(async);
+        when(async.getResponse()).thenReturn(rawResponse);
+        when(rawResponse.getOutputStream()).thenReturn(out);
+        when(out.isReady()).thenReturn(true);
+        doAnswer(invocation -> {
+            written.write(invocation.<byte[]>getArgument(0));
+            return null;
+        }).when(out).write(any(byte[].class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        disconnectAll();
+    }
+
+    /**
+     * Completes every stream opened so far, as the container does when a client goes away.
+     */
+    private void disconnectAll() {
+        ArgumentCaptor<AsyncListener> streams = ArgumentCaptor.forClass(AsyncListener.class);
+        verify(async, atLeast(0)).addListener(streams.capture());
+        for (AsyncListener stream : streams.getAllValues()) {
+            try {
+                stream.onComplete(null);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private String output() {
+        return written.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void stream_opensEventStream() throws Exception {
+        int before = BroadcastService.subscriberCount();
+
+        assertEquals("", controller.stream(request, response));
+
+        verify(rawResponse).setContentType("text/event-stream");
+        verify(rawResponse).flushBuffer();
+        verify(async).setTimeout(0);
+        assertEquals(before + 1, BroadcastService.subscriberCount());
+        assertTrue(output().startsWith("retry: 3000\nid: "));
+        verify(out).flush();
+    }
+
+    @Test
+    void stream_sendsOnlyTheRequestedItem() throws Exception {
+        UUID itemId = UUID.randomUUID();
+        when(request.queryParams("itemId")).thenReturn(itemId.toString());
+        controller.stream(request, response);
+
+        BroadcastService.broadcast(UUID.randomUUID(), "Other item");
+        BroadcastService.broadcast(itemId, "This item");
+
+        assertFalse(output().contains("Other item"));
+        assertTrue(output().contains("event: offer\ndata: {"));
+        assertTrue(output().contains("\"message\":\"This item\"}\n\n"));
+    }
+
+    @Test
+    void stream_replaysEventsAfterLastEventId() throws Exception {
+        BroadcastService.broadcast(null, "Seen");
+        controller.stream(request, response);
+        String cursor = lastEventId(output());
+        disconnectAll();
+        BroadcastService.broadcast(null, "Missed");
+        written.reset();
+
+        when(request.headers("Last-Event-ID")).thenReturn(cursor);
+        controller.stream(request, response);
+
+        assertFalse(output().contains("Seen"));
+        assertTrue(output().startsWith("id: "));
+        assertTrue(output().indexOf("Missed") < output().indexOf("retry: 3000"));
+    }
+
+    @Test
+    void stream_sendsSnapshotForUnknownLastEventId() throws Exception {
+        when(request.headers("Last-Event-ID")).thenReturn("1-1");
+
+        controller.stream(request, response);
+
+        assertTrue(output().contains("event: snapshot\n"));
+    }
+
+    @Test
+    void stream_rejectsInvalidItemId() {
+        when(request.queryParams("itemId")).thenReturn("not-a-uuid");
+
+        ApiException e = assertThrows(ApiException.class, () -> controller.stream(request, response));
+        assertEquals(400, e.getStatusCode());
+        verifyNoInteractions(async);
+    }
+
+    @Test
+    void stream_closesWhenWriteFails() throws Exception {
+        controller.stream(request, response);
+        int subscribed = BroadcastService.subscriberCount();
+        doThrow(new IOException("Broken pipe")).when(out).write(any(byte[].class));
+
+        BroadcastService.keepAliveStreams();
+
+        verify(async).complete();
+        assertEquals(subscribed - 1, BroadcastService.subscriberCount());
+    }
+
+    private static String lastEventId(String stream) {
+        int start = stream.lastIndexOf("id: ") + 4;
+        return stream.substring(start, stream.indexOf('\n', start));
+    }
+}
@@ -9,6 +9,8 @@ import spark.Request;
 import spark.Response;
 import spark.Session;
 
+import java.util.UUID;
+
 import static org.mockito.Mockito.*;
 
 public class OfferWebControllerTest {
@@ -19,6 +21,8 @@ public class OfferWebControllerTest {
     private Response response;
     private Session session;
 
+    private static final String ITEM_ID = UUID.randomUUID().toString();
+
     @BeforeEach
     void setUp() {
         offerService = mock(OfferService.class);
@@ -36,7 +40,7 @@ public class OfferWebControllerTest {
         when(request.queryParams("name")).thenReturn("John Doe");
         when(request.queryParams("email")).thenReturn("john.doe@example.com");
         when(request.queryParams("itemPrice")).thenReturn("100.0");
-        when(request.queryParams("item-id")).thenReturn("item-123");
+        when(request.queryParams("item-id")).thenReturn(ITEM_ID);
 
         offerWebController.handleOfferForm(request, response);
 
@@ -50,7 +54,7 @@ public class OfferWebControllerTest {
         when(request.queryParams("name")).thenReturn("John Doe");
         when(request.queryParams("email")).thenReturn("john.doe@example.com");
         when(request.queryParams("itemPrice")).thenReturn("100.0");
-        when(request.queryParams("item-id")).thenReturn("item-123");
+        when(request.queryParams("item-id")).thenReturn(ITEM_ID);
 
         doThrow(new ApiException(500, "Test API Exception")).when(offerService).createOffer(any(Offer.class));
 
@@ -65,11 +69,25 @@ public class OfferWebControllerTest {
         when(request.queryParams("name")).thenReturn("John Doe");
         when(request.queryParams("email")).thenReturn("john.doe@example.com");
         when(request.queryParams("itemPrice")).thenReturn("invalid-price");
-        when(request.queryParams("item-id")).thenReturn("item-123");
+        when(request.queryParams("item-id")).thenReturn(ITEM_ID);
 
         offerWebController.handleOfferForm(request, response);
 
         verify(session).attribute("errorMessage", "Invalid price format");
         verify(response).redirect("/items-web");
     }
+
+    @Test
+    void handleOfferForm_invalidItemId() {
+        when(request.queryParams("name")).thenReturn("John Doe");
+        when(request.queryParams("email")).thenReturn("john.doe@example.com");
+        when(request.queryParams("itemPrice")).thenReturn("100.0");
+        when(request.queryParams("item-id")).thenReturn("item-123");
+
+        offerWebController.handleOfferForm(request, response);
+
+        verifyNoInteractions(offerService);
+        verify(session).attribute("errorMessage", "Offer must have a valid ID");
+        verify(response).redirect("/items-web");
+    }
 }
@@ -0,0 +1,134 @@
+package org.example.controller;
+
+import org.example.model.ApiException;
+import org.example.model.RateLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import spark.Request;
+import spark.Response;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RateLimitFilterTest {
+
+    private RateLimiter clients;
+    private RateLimiter items;
+    private RateLimitFilter filter;
+    private Request request;
+    private Response response;
+
+    @BeforeEach
+    void setUp() {
+        clients = new RateLimiter(0.1, 2);
+        items = new RateLimiter(0.1, 3);
+        filter = new RateLimitFilter(clients, items);
+        request = mock(Request.class);
+        response = mock(Response.class);
+        when(request.requestMethod()).thenReturn("POST");
+        when(request.ip()).thenReturn("10.0.0.1");
+    }
+
+    private void bid(String email, String itemId) {
+        when(request.params(":id")).thenReturn(itemId);
+        when(request.body()).thenReturn("{\"email\":\"" + email + "\",\"price\":10}");
+        filter.handle(request, response);
+    }
+
+    @Test
+    void handle_throttlesClientWith429AndRetryAfter() {
+        bid("a@example.com", "item-1");
+        bid("a@example.com", "item-2");
+
+        ApiException e = assertThrows(ApiException.class, () -> bid("a@example.com", "item-3"));
+
+        assertEquals(429, e.getStatusCode());
+        verify(response).header("Retry-After", "10");
+        assertEquals(1, clients.throttledCount());
+    }
+
+    @Test
+    void handle_throttlesSameEmailFromAnotherIp() {
+        bid("a@example.com", "item-1");
+        bid("A@example.com ", "item-1");
+        when(request.ip()).thenReturn("10.0.0.2");
+
+        ApiException e = assertThrows(ApiException.class, () -> bid("a@example.com", "item-1"));
+        assertEquals(429, e.getStatusCode());
+    }
+
+    @Test
+    void handle_throttlesBusyItemAcrossClients() {
+        for (int i = 0; i < 3; i++) {
+            when(request.ip()).thenReturn("10.0.1." + i);
+            bid("bidder" + i + "@example.com", "hot-item");
+        }
+        when(request.ip()).thenReturn("10.0.1.99");
+
+        assertThrows(ApiException.class, () -> bid("late@example.com", "hot-item"));
+        assertEquals(1, items.throttledCount());
+    }
+
+    @Test
+    void handle_readsWebFormFields() {
+        when(request.queryParams("email")).thenReturn("web@example.com");
+        when(request.queryParams("item-id")).thenReturn("item-1");
+
+        filter.handle(request, response);
+
+        assertEquals(2, clients.allowedCount());
+        assertEquals(1, items.allowedCount());
+    }
+
+    @Test
+    void handle_ignoresOtherMethods() {
+        when(request.requestMethod()).thenReturn("GET");
+
+        for (int i = 0; i < 10; i++) {
+            filter.handle(request, response);
+        }
+
+        assertEquals(0, clients.allowedCount());
+    }
+
+    @Test
+    void metrics_reportsCounts() {
+        bid("a@example.com", "item-1");
+        bid("a@example.com", "item-1");
+        assertThrows(ApiException.class, () -> bid("a@example.com", "item-1"));
+
+        String json = filter.metrics(request, response);
+
+        verify(response).type("application/json");
+        assertTrue(json.contains("\"throttled\":1"));
+        assertTrue(json.contains("\"allowed\":2"));
+    }
+
+    @Test
+    void clientIp_usesForwardedForOnlyFromTrustedProxies() {
+        RateLimitFilter behindProxy = new RateLimitFilter(clients, items, Set.of("10.0.0.1", "10.0.0.2"));
+        when(request.headers("X-Forwarded-For")).thenReturn("6.6.6.6, 203.0.113.7, 10.0.0.2");
+
+        assertEquals("203.0.113.7", behindProxy.clientIp(request));
+        assertEquals("10.0.0.1", filter.clientIp(request), "No proxy is trusted by default.");
+
+        when(request.ip()).thenReturn("198.51.100.1");
+        assertEquals("198.51.100.1", behindProxy.clientIp(request));
+    }
+
+    @Test
+    void handle_throttlesClientsBehindTrustedProxySeparately() {
+        filter = new RateLimitFilter(clients, items, Set.of("10.0.0.1"));
+        when(request.headers("X-Forwarded-For")).thenReturn("203.0.113.7");
+        bid("a@example.com", "item-1");
+        bid("b@example.com", "item-2");
+
+        when(request.headers("X-Forwarded-For")).thenReturn("203.0.113.8");
+        assertDoesNotThrow(() -> bid("c@example.com", "item-3"));
+
+        when(request.headers("X-Forwarded-For")).thenReturn("203.0.113.7");
+        assertThrows(ApiException.class, () -> bid("d@example.com", "item-4"));
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.json;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import org.example.dto.ItemWebResponse;
+import org.example.model.ApiError;
+import org.example.model.BidderActivity;
+import org.example.model.CollectibleItem;
+import org.example.model.Money;
+import org.example.model.Offer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UNIT TEST for the shared Gson instance and its streaming adapters.
+ */
+public class JsonTest {
+
+    private final Gson reflective = new Gson();
+
+    /**
+     * The adapters write the same fields the reflective Gson wrote for the
+     * mutable beans, with prices as numbers with two decimals.
+     */
+    @Test
+    public void testWrite_MatchesReflectiveGson() {
+        UUID id = UUID.randomUUID();
+        CollectibleItem item = new CollectibleItem(id, "Guitar \"59\"", null, Money.parse("1250.5"), Money.of(1300), 2, 3);
+        ItemWebResponse web = new ItemWebResponse();
+        web.setId("item1");
+        web.setName("Guitar");
+        web.setPrice(Money.parse("1250.5"));
+        web.setLastOffer(Money.of(1300));
+
+        assertEquals("[{\"id\":\"" + id + "\",\"name\":\"Guitar \\\"59\\\"\",\"price\":1250.50," +
+                "\"currentTopOffer\":1300.00,\"offerCount\":2,\"version\":3}]", Json.GSON.toJson(List.of(item)));
+        assertEquals("{\"id\":\"item1\",\"name\":\"Guitar\",\"price\":1250.50,\"lastOffer\":1300.00}",
+                Json.GSON.toJson(web));
+        assertEquals(reflective.toJson(new ApiError("Item not found")), Json.GSON.toJson(new ApiError("Item not found")));
+        assertEquals(new BidderActivity("Ana", 4), Json.GSON.fromJson(Json.GSON.toJson(new BidderActivity("Ana", 4)), BidderActivity.class));
+    }
+
+    /**
+     * Offers round-trip, with createdAt as an ISO-8601 instant.
+     */
+    @Test
+    public void testOffer_RoundTripsWithIsoTimestamp() {
+        Instant createdAt = Instant.parse("2026-10-19T10:00:00.250Z");
+        Offer offer = new Offer("Ana", "ana@example.com", UUID.randomUUID(), Money.of(1300), UUID.randomUUID(), createdAt, 2);
+
+        String json = Json.GSON.toJson(offer);
+        Offer read = Json.GSON.fromJson(json, Offer.class);
+
+        assertTrue(json.contains("\"createdAt\":\"2026-10-19T10:00:00.250Z\""), json);
+        assertEquals(offer.getId(), read.getId());
+        assertEquals(createdAt, read.getCreatedAt());
+        assertEquals(Money.of(1300), read.getPrice());
+        assertEquals(2, read.getVersion());
+    }
+
+    /**
+     * Offsets, epoch milliseconds and the old default format are still accepted.
+     */
+    @Test
+    public void testRead_AcceptsOtherTimestampFormats() {
+        Instant expected = Instant.parse("2026-10-19T10:00:00Z");
+
+        assertEquals(expected, Json.GSON.fromJson("{\"createdAt\":\"2026-10-19T12:00:00+02:00\"}", Offer.class).getCreatedAt());
+        assertEquals(expected, Json.GSON.fromJson("{\"createdAt\":" + expected.toEpochMilli() + "}", Offer.class).getCreatedAt());
+
+        String legacy = reflective.toJson(Date.from(expected));
+        assertEquals(expected, Json.GSON.fromJson("{\"createdAt\":" + legacy + "}", Offer.class).getCreatedAt());
+    }
+
+    /**
+     * Unknown fields are skipped, and malformed values are syntax errors.
+     */
+    @Test
+    public void testRead_SkipsUnknownFieldsAndRejectsBadValues() {
+        CollectibleItem item = Json.GSON.fromJson("{\"name\":\"Guitar\",\"extra\":{\"a\":[1,2]},\"price\":10}", CollectibleItem.class);
+
+        assertEquals("Guitar", item.getName());
+        assertEquals(Money.of(10), item.getPrice());
+        assertThrows(JsonSyntaxException.class, () -> Json.GSON.fromJson("{\"price\":\"cheap\"}", CollectibleItem.class));
+        assertThrows(JsonSyntaxException.class, () -> Json.GSON.fromJson("{\"id\":\"not-a-uuid\"}", Offer.class));
+        assertThrows(JsonSyntaxException.class, () -> Json.GSON.fromJson("\"invalid json\"", CollectibleItem.class));
+        assertNull(Json.GSON.fromJson("", CollectibleItem.class));
+    }
+
+    /**
+     * Prices are read from their literal digits, as numbers or strings, and
+     * anything finer than a cent is rejected instead of rounded.
+     */
+    @Test
+    public void testRead_PricesAreExact() {
+        assertEquals(Money.ofCents(30), Json.GSON.fromJson("{\"price\":0.3}", Offer.class).getPrice());
+        assertEquals(Money.ofCents(1999), Json.GSON.fromJson("{\"price\":\"19.99\"}", Offer.class).getPrice());
+        assertEquals(Money.ofCents(1_000_000_001), Json.GSON.fromJson("{\"price\":10000000.01}", Offer.class).getPrice());
+        assertThrows(JsonSyntaxException.class, () -> Json.GSON.fromJson("{\"price\":1.005}", Offer.class));
+        assertThrows(JsonSyntaxException.class, () -> Json.GSON.fromJson("{\"price\":1e3}", Offer.class));
+    }
+}
@@ -0,0 +1,236 @@
+package org.example.model;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.common.OpCode;
+import org.eclipse.jetty.websocket.common.WebSocketFrame;
+import org.eclipse.jetty.websocket.common.WebSocketRemoteEndpoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * UNIT TEST for the WebSocket broadcast history, resume and session
+ * housekeeping, with the sessions mocked.
+ */
+public class BroadcastServiceTest {
+
+    private final List<Session> sessions = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        sessions.forEach(BroadcastService::removeSession);
+        BroadcastService.setMaxSessions(10_000);
+    }
+
+    private Session connect() {
+        Session session = mock(Session.class);
+        when(session.isOpen()).thenReturn(true);
+        when(session.getRemote()).thenReturn(mock(WebSocketRemoteEndpoint.class));
+        sessions.add(session);
+        BroadcastService.addSession(session);
+        return session;
+    }
+
+    private static List<WebSocketFrame> rawFramesSentTo(Session session) {
+        ArgumentCaptor<WebSocketFrame> frames = ArgumentCaptor.forClass(WebSocketFrame.class);
+        verify((WebSocketRemoteEndpoint) session.getRemote(), atLeastOnce()).uncheckedSendFrame(frames.capture(), any());
+        return frames.getAllValues();
+    }
+
+    private static List<JsonObject> framesSentTo(Session session) {
+        return rawFramesSentTo(session).stream()
+                .map(f -> JsonParser.parseString(StandardCharsets.UTF_8.decode(f.getPayload().duplicate()).toString()))
+                .map(json -> json.getAsJsonObject())
+                .toList();
+    }
+
+    /**
+     * A new client is told where the sequence stands, then gets every event
+     * with the next sequence number.
+     */
+    @Test
+    public void testBroadcast_SendsSequencedFrames() {
+        Session session = connect();
+
+        BroadcastService.broadcast("first");
+        BroadcastService.broadcast("second");
+
+        List<JsonObject> frames = framesSentTo(session);
+        assertEquals(3, frames.size());
+        assertEquals("hello", frames.get(0).get("type").getAsString());
+        long start = frames.get(0).get("seq").getAsLong();
+        assertEquals("offer", frames.get(1).get("type").getAsString());
+        assertEquals(start + 1, frames.get(1).get("seq").getAsLong());
+        assertEquals("second", frames.get(2).get("message").getAsString());
+        assertEquals(start + 2, frames.get(2).get("seq").getAsLong());
+        assertEquals(BroadcastService.EPOCH, frames.get(2).get("epoch").getAsLong());
+    }
+
+    /**
+     * A reconnecting client receives exactly the events sent while it was away.
+     */
+    @Test
+    public void testResume_ReplaysMissedEvents() {
+        Session before = connect();
+        BroadcastService.broadcast("seen");
+        long lastSeen = framesSentTo(before).get(1).get("seq").getAsLong();
+        BroadcastService.removeSession(before);
+
+        BroadcastService.broadcast("missed 1");
+        BroadcastService.broadcast("missed 2");
+        Session after = connect();
+        BroadcastService.resume(after, BroadcastService.EPOCH, lastSeen);
+
+        List<JsonObject> frames = framesSentTo(after);
+        assertEquals(3, frames.size());
+        assertEquals("missed 1", frames.get(1).get("message").getAsString());
+        assertEquals(lastSeen + 1, frames.get(1).get("seq").getAsLong());
+        assertEquals("missed 2", frames.get(2).get("message").getAsString());
+    }
+
+    /**
+     * A gap older than the history, or a sequence number from another run,
+     * is answered with a snapshot.
+     */
+    @Test
+    public void testResume_SendsSnapshotWhenGapIsTooOld() {
+        Session before = connect();
+        BroadcastService.broadcast("seen");
+        long lastSeen = framesSentTo(before).get(1).get("seq").getAsLong();
+        BroadcastService.removeSession(before);
+
+        for (int i = 0; i <= BroadcastService.HISTORY_SIZE; i++) {
+            BroadcastService.broadcast("missed " + i);
+        }
+        Session tooOld = connect();
+        BroadcastService.resume(tooOld, BroadcastService.EPOCH, lastSeen);
+        Session otherRun = connect();
+        BroadcastService.resume(otherRun, BroadcastService.EPOCH - 1, lastSeen);
+
+        for (Session session : List.of(tooOld, otherRun)) {
+            List<JsonObject> frames = framesSentTo(session);
+            assertEquals(2, frames.size());
+            assertEquals("snapshot", frames.get(1).get("type").getAsString());
+        }
+    }
+
+    /**
+     * Clients beyond the connection limit are turned away with "try again later".
+     */
+    @Test
+    public void testAddSession_RejectsOverLimit() {
+        connect();
+        BroadcastService.setMaxSessions(BroadcastService.sessionCount());
+
+        Session rejected = mock(Session.class);
+        assertFalse(BroadcastService.addSession(rejected));
+
+        verify(rejected).close(eq(StatusCode.TRY_AGAIN_LATER), anyString());
+        verify(rejected, never()).getRemote();
+    }
+
+    /**
+     * Sessions that stayed silent past the cutoff, or are already closed,
+     * are evicted and disconnected; active ones stay.
+     */
+    @Test
+    public void testReapIdleSessions_EvictsSilentSessions() throws Exception {
+        Session silent = connect();
+        Session closed = connect();
+        Thread.sleep(5);
+        long cutoff = System.currentTimeMillis();
+        Thread.sleep(5);
+        Session active = connect();
+        BroadcastService.touch(closed);
+        when(closed.isOpen()).thenReturn(false);
+        int before = BroadcastService.sessionCount();
+
+        assertEquals(2, BroadcastService.reapIdleSessions(cutoff));
+
+        assertEquals(before - 2, BroadcastService.sessionCount());
+        verify(silent).disconnect();
+        verify(closed).disconnect();
+        verify(active, never()).disconnect();
+        BroadcastService.pingSessions();
+        verify(active.getRemote()).sendPing(any());
+        verify(silent.getRemote(), never()).sendPing(any());
+    }
+
+    /**
+     * A session whose write fails is dropped instead of being written to again.
+     */
+    @Test
+    public void testBroadcast_EvictsSessionWhenSendFails() throws IOException {
+        Session broken = connect();
+        WebSocketRemoteEndpoint remote = (WebSocketRemoteEndpoint) broken.getRemote();
+        doAnswer(invocation -> {
+            invocation.<WriteCallback>getArgument(1).writeFailed(new IOException("Broken pipe"));
+            return null;
+        }).when(remote).uncheckedSendFrame(any(), any());
+        int before = BroadcastService.sessionCount();
+
+        BroadcastService.broadcast("first");
+        BroadcastService.broadcast("second");
+
+        assertEquals(before - 1, BroadcastService.sessionCount());
+        verify(broken).disconnect();
+        // The hello frame and the failed first broadcast
+        verify(remote, times(2)).uncheckedSendFrame(any(), any());
+    }
+
+    /**
+     * An event is encoded once: every session gets a text frame over the same
+     * read-only bytes, each with its own position.
+     */
+    @Test
+    public void testBroadcast_SharesOneEncodedFrame() {
+        Session first = connect();
+        Session second = connect();
+
+        BroadcastService.broadcast("¡NEW OFFER! $700.0 on Shared");
+
+        WebSocketFrame a = rawFramesSentTo(first).get(1);
+        WebSocketFrame b = rawFramesSentTo(second).get(1);
+        assertEquals(OpCode.TEXT, a.getOpCode());
+        assertNotSame(a.getPayload(), b.getPayload());
+        assertTrue(a.getPayload().isReadOnly());
+        assertEquals(a.getPayload(), b.getPayload());
+        assertEquals("¡NEW OFFER! $700.0 on Shared", framesSentTo(second).get(1).get("message").getAsString());
+    }
+
+    /**
+     * A remote endpoint that is not Jetty's own still gets the frames, as
+     * Strings decoded from the shared bytes.
+     */
+    @Test
+    public void testBroadcast_FallsBackToSendString() {
+        Session session = mock(Session.class);
+        RemoteEndpoint remote = mock(RemoteEndpoint.class);
+        when(session.isOpen()).thenReturn(true);
+        when(session.getRemote()).thenReturn(remote);
+        sessions.add(session);
+        BroadcastService.addSession(session);
+
+        BroadcastService.broadcast("¡NEW OFFER! $800.0 on Fallback");
+
+        ArgumentCaptor<String> messages = ArgumentCaptor.forClass(String.class);
+        verify(remote, times(2)).sendString(messages.capture(), any());
+        assertEquals("hello", JsonParser.parseString(messages.getAllValues().get(0))
+                .getAsJsonObject().get("type").getAsString());
+        assertEquals("¡NEW OFFER! $800.0 on Fallback", JsonParser.parseString(messages.getAllValues().get(1))
+                .getAsJsonObject().get("message").getAsString());
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.model;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * INTEGRATION TEST for read/write splitting.
+ * A second H2 in-memory database stands in for the read replica; it is
+ * deliberately given different data than the primary so each test can tell
+ * which database answered.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class DatabaseReplicaTest {
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:collectorzone_replica;DB_CLOSE_DELAY=-1";
+
+    private final ItemService itemService = new ItemService();
+    private final OfferService offerService = new OfferService(itemService);
+
+    private final UUID replicaItemId = UUID.randomUUID();
+    private final UUID replicaOfferId = UUID.randomUUID();
+
+    @BeforeAll
+    public void setupReplica() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            for (String script : Migrations.SCRIPTS) {
+                stmt.execute(Migrations.readResource("db/migration/" + script));
+            }
+        }
+        Database.setReplica(REPLICA_URL, "sa", "");
+    }
+
+    @AfterAll
+    public void removeReplica() {
+        Database.setReplica(null, null, null);
+    }
+
+    @BeforeEach
+    public void setupData() throws SQLException {
+        Migrations.migrate();
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(Migrations.readResource("setup-dev.sql"));
+        }
+
+        try (Connection conn = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM offers; DELETE FROM items");
+
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO items (id, name, description, price) VALUES (?, 'Replica item', 'Only on the replica', 10.00)")) {
+                pstmt.setObject(1, replicaItemId);
+                pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO offers (id, name, email, price, item_id, created_at) VALUES (?, 'Replica', 'replica@example.com', 20.00, ?, ?)")) {
+                pstmt.setObject(1, replicaOfferId);
+                pstmt.setObject(2, replicaItemId);
+                pstmt.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Item listings are read from the replica.
+     */
+    @Test
+    public void testGetAllItems_ReadsFromReplica() {
+        Collection<CollectibleItem> items = itemService.getAllItems();
+
+        assertEquals(1, items.size(), "Listing should come from the replica, not the 5 seeded primary items.");
+        assertEquals("Replica item", items.iterator().next().getName());
+    }
+
+    /**
+     * Offer listings and lookups by ID are read from the replica.
+     */
+    @Test
+    public void testOfferReads_ReadFromReplica() {
+        Collection<Offer> offers = offerService.getAllOffers();
+
+        assertEquals(1, offers.size());
+        assertEquals(replicaOfferId, offerService.getOfferById(replicaOfferId).getId());
+    }
+
+    /**
+     * Bids are validated and written on the primary, whatever the replica holds.
+     */
+    @Test
+    public void testCreateOffer_PinnedToPrimary() throws SQLException {
+        String primaryItemId;
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id FROM items WHERE price = 621.30")) {
+            rs.next();
+            primaryItemId = rs.getObject(1, UUID.class).toString();
+        }
+
+        Offer created = offerService.createOffer(
+                new Offer("Primary", "primary@example.com", null, Money.of(1000), primaryItemId, new Date()));
+
+        assertNotNull(created.getId());
+        assertEquals(Money.of(1000), itemService.getItemById(primaryItemId).getCurrentTopOffer(),
+                "The bid should have been applied to the primary's item row.");
+
+        ApiException exception = assertThrows(ApiException.class, () -> offerService.createOffer(
+                new Offer("Primary", "primary@example.com", null, Money.of(1000), replicaItemId.toString(), new Date())));
+        assertEquals(404, exception.getStatusCode(), "Items that only exist on the replica must not accept bids.");
+    }
+}
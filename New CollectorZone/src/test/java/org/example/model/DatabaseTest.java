@@ -0,0 +1,74 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseTest {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void devUrl_defaultsToInMemory() {
+        assertEquals("jdbc:h2:mem:collectorzone;DB_CLOSE_DELAY=-1", Database.devUrl(Map.of()));
+    }
+
+    @Test
+    void devUrl_fileModeUsesTunedDefaults() {
+        String url = Database.devUrl(Map.of("H2_MODE", "file"));
+
+        assertEquals("jdbc:h2:file:./data/collectorzone;CACHE_SIZE=65536;WRITE_DELAY=200;MAX_COMPACT_TIME=2000", url);
+    }
+
+    @Test
+    void devUrl_fileModeSettingsCanBeOverridden() {
+        String url = Database.devUrl(Map.of(
+                "H2_MODE", "file",
+                "H2_FILE_PATH", "/var/lib/kiosk/cz",
+                "H2_CACHE_SIZE_KB", "131072",
+                "H2_WRITE_DELAY_MS", "0",
+                "H2_MAX_COMPACT_TIME_MS", "500"));
+
+        assertEquals("jdbc:h2:file:/var/lib/kiosk/cz;CACHE_SIZE=131072;WRITE_DELAY=0;MAX_COMPACT_TIME=500", url);
+    }
+
+    /**
+     * A file-mode database applies the tuning settings and keeps its data
+     * after every connection is closed and it is opened again.
+     */
+    @Test
+    void fileMode_keepsDataAcrossRestarts() throws SQLException {
+        String url = Database.devUrl(Map.of(
+                "H2_MODE", "file",
+                "H2_FILE_PATH", dataDir.resolve("collectorzone").toString()));
+
+        try (Connection conn = DriverManager.getConnection(url, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE kiosk (id INT PRIMARY KEY)");
+            stmt.execute("INSERT INTO kiosk VALUES (1), (2)");
+
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS WHERE SETTING_NAME = 'CACHE_SIZE'")) {
+                assertTrue(rs.next());
+                assertEquals("65536", rs.getString(1));
+            }
+        }
+
+        try (Connection conn = DriverManager.getConnection(url, "sa", "");
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM kiosk")) {
+            rs.next();
+            assertEquals(2, rs.getInt(1), "Rows should survive closing and reopening the database.");
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UNIT TEST for the field layout of the compact domain objects: IDs,
+ * prices and timestamps are held as primitives, and the only references
+ * are the strings the objects share with their source.
+ * <p>
+ * The resulting size per object is measured by
+ * {@code org.example.benchmark.DomainFootprintBenchmark}.
+ */
+public class DomainFootprintTest {
+
+    @Test
+    public void testItems_HoldOnlyPrimitivesAndText() {
+        assertEquals(List.of("description", "name"), referenceFields(CollectibleItem.class));
+    }
+
+    @Test
+    public void testOffers_HoldOnlyPrimitivesAndText() {
+        assertEquals(List.of("email", "name"), referenceFields(Offer.class));
+    }
+
+    /**
+     * @return The names of the instance fields that are not primitives, all of which must be strings.
+     */
+    private static List<String> referenceFields(Class<?> type) {
+        Field[] fields = Arrays.stream(type.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .filter(field -> !field.getType().isPrimitive())
+                .toArray(Field[]::new);
+        for (Field field : fields) {
+            assertEquals(String.class, field.getType(), field.getName());
+        }
+        return Arrays.stream(fields).map(Field::getName).sorted().toList();
+    }
+}
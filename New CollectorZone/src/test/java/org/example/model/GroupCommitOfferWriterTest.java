@@ -0,0 +1,172 @@
+package org.example.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * INTEGRATION TEST for group commit of concurrent bids, against the H2
+ * in-memory database.
+ */
+public class GroupCommitOfferWriterTest {
+
+    private final ItemService itemService = new ItemService();
+
+    private GroupCommitOfferWriter writer;
+    private CollectibleItem item;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        Migrations.migrate();
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(Migrations.readResource("setup-dev.sql"));
+        }
+        item = itemService.getAllItems().stream()
+                .filter(i -> i.getPrice().equals(Money.parse("621.30")))
+                .findFirst().orElseThrow();
+
+        writer = new GroupCommitOfferWriter(itemService, 100, 200);
+    }
+
+    @AfterEach
+    public void closeWriter() {
+        writer.close();
+    }
+
+    private Offer bid(String itemId, String price) {
+        return new Offer("Bidder", "bidder@example.com", null, Money.parse(price), itemId, new Date());
+    }
+
+    /**
+     * Bids queued together are validated against each other in arrival order
+     * and committed in one batch; only the rejected ones fail.
+     */
+    @Test
+    public void testBatch_ValidatesInArrivalOrder() {
+        CompletableFuture<Offer> first = writer.submit(bid(item.getId(), "700.00"), UUID.fromString(item.getId()));
+        CompletableFuture<Offer> tooLow = writer.submit(bid(item.getId(), "650.00"), UUID.fromString(item.getId()));
+        UUID unknownItem = UUID.randomUUID();
+        CompletableFuture<Offer> unknown = writer.submit(bid(unknownItem.toString(), "900.00"), unknownItem);
+        CompletableFuture<Offer> second = writer.submit(bid(item.getId(), "800.00"), UUID.fromString(item.getId()));
+
+        writer.start();
+
+        assertNotNull(first.join().getId());
+        assertEquals(Money.of(800), second.join().getPrice());
+        assertEquals(409, rejection(tooLow).getStatusCode());
+        assertEquals(404, rejection(unknown).getStatusCode());
+
+        CollectibleItem stored = itemService.getItemById(item.getId());
+        assertEquals(Money.of(800), stored.getCurrentTopOffer());
+        assertEquals(2, stored.getOfferCount());
+    }
+
+    /**
+     * A bid that cannot be inserted is rejected on its own; the valid bids of
+     * its batch are still committed.
+     */
+    @Test
+    public void testBatch_RejectsBadBidAlone() {
+        UUID itemId = UUID.fromString(item.getId());
+        CompletableFuture<Offer> first = writer.submit(bid(item.getId(), "700.00"), itemId);
+        CompletableFuture<Offer> noCreatedAt = writer.submit(
+                new Offer("Bidder", "bidder@example.com", null, Money.of(750), item.getId(), null), itemId);
+        CompletableFuture<Offer> second = writer.submit(bid(item.getId(), "800.00"), itemId);
+
+        writer.start();
+
+        assertNotNull(first.join().getId());
+        assertNotNull(second.join().getId());
+        assertEquals(400, rejection(noCreatedAt).getStatusCode());
+        assertEquals(2, itemService.getItemById(item.getId()).getOfferCount());
+    }
+
+    /**
+     * Concurrent bidders through {@link OfferService}: every accepted bid is
+     * stored, and the item's totals match the accepted bids.
+     */
+    @Test
+    public void testCreateOffer_ConcurrentBidders() throws Exception {
+        writer.start();
+        OfferService offerService = new OfferService(itemService, writer);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Offer>> results = new ArrayList<>();
+        for (int i = 1; i <= 40; i++) {
+            String price = (1000 + i) + ".00";
+            results.add(executor.submit(() -> offerService.createOffer(bid(item.getId(), price))));
+        }
+
+        int accepted = 0;
+        Money top = Money.ZERO;
+        for (Future<Offer> result : results) {
+            try {
+                Offer offer = result.get();
+                assertNotNull(offer.getId());
+                accepted++;
+                top = Money.max(top, offer.getPrice());
+            } catch (ExecutionException e) {
+                assertEquals(409, ((ApiException) e.getCause()).getStatusCode());
+            }
+        }
+        executor.shutdown();
+
+        CollectibleItem stored = itemService.getItemById(item.getId());
+        assertEquals(top, stored.getCurrentTopOffer());
+        assertEquals(accepted, stored.getOfferCount());
+        assertEquals(Money.of(1040), top, "The highest bid can never be outbid, so it must be accepted.");
+    }
+
+    /**
+     * A caller whose batch does not commit in time gets a 503, and its bid
+     * is withdrawn if the writer has not picked it up yet.
+     */
+    @Test
+    public void testWrite_TimesOut() {
+        writer = new GroupCommitOfferWriter(itemService, 100, 200, 50);
+
+        ApiException exception = assertThrows(ApiException.class,
+                () -> writer.write(bid(item.getId(), "700.00"), UUID.fromString(item.getId())));
+        assertEquals(503, exception.getStatusCode());
+
+        writer.start();
+        writer.close();
+        assertEquals(0, itemService.getItemById(item.getId()).getOfferCount());
+    }
+
+    /**
+     * Bids that can no longer be written fail once the writer stops instead
+     * of leaving their callers waiting.
+     */
+    @Test
+    public void testClose_FailsPendingBids() {
+        CompletableFuture<Offer> queued = writer.submit(bid(item.getId(), "700.00"), UUID.fromString(item.getId()));
+
+        writer.close();
+
+        assertEquals(503, rejection(queued).getStatusCode());
+        CompletableFuture<Offer> late = writer.submit(bid(item.getId(), "800.00"), UUID.fromString(item.getId()));
+        assertEquals(503, rejection(late).getStatusCode());
+    }
+
+    private ApiException rejection(CompletableFuture<Offer> future) {
+        ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+        return (ApiException) exception.getCause();
+    }
+}
@@ -0,0 +1,213 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UNIT TEST for the columnar {@link ItemCatalog}.
+ */
+public class ItemCatalogTest {
+
+    private final ItemCatalog catalog = new ItemCatalog(16);
+
+    @Test
+    public void testPut_GetReturnsEveryField() {
+        UUID id = UUID.randomUUID();
+        catalog.put(item(id, "Casco autografiado por Rosalía", "Una verdadera MOTOMAMI!", "734.57", "800.00", 3, 7));
+
+        CollectibleItem item = catalog.get(id);
+        assertEquals(id, item.getUuid());
+        assertEquals("Casco autografiado por Rosalía", item.getName());
+        assertEquals("Una verdadera MOTOMAMI!", item.getDescription());
+        assertEquals(Money.parse("734.57"), item.getPrice());
+        assertEquals(Money.of(800), item.getCurrentTopOffer());
+        assertEquals(3, item.getOfferCount());
+        assertEquals(7, item.getVersion());
+        assertEquals(1, catalog.size());
+        assertNull(catalog.get(UUID.randomUUID()));
+    }
+
+    @Test
+    public void testPut_NullAndEmptyText() {
+        UUID noDescription = UUID.randomUUID();
+        UUID noName = UUID.randomUUID();
+        UUID empty = UUID.randomUUID();
+        catalog.put(item(noDescription, "Name", null, "1.00", "0", 0, 1));
+        catalog.put(item(noName, null, "Description", "1.00", "0", 0, 1));
+        catalog.put(item(empty, "", "", "1.00", "0", 0, 1));
+
+        assertEquals("Name", catalog.get(noDescription).getName());
+        assertNull(catalog.get(noDescription).getDescription());
+        assertNull(catalog.get(noName).getName());
+        assertEquals("Description", catalog.get(noName).getDescription());
+        assertEquals("", catalog.get(empty).getName());
+        assertEquals("", catalog.get(empty).getDescription());
+    }
+
+    @Test
+    public void testUpdateDetails_KeepsOfferTotals() {
+        UUID id = UUID.randomUUID();
+        catalog.put(item(id, "Old", "Old description", "100.00", "150.00", 2, 1));
+
+        catalog.updateDetails(id, "New", "New description", Money.of(120), 2);
+        catalog.updateDetails(UUID.randomUUID(), "Missing", null, Money.of(1), 1);
+
+        CollectibleItem item = catalog.get(id);
+        assertEquals("New", item.getName());
+        assertEquals("New description", item.getDescription());
+        assertEquals(Money.of(120), item.getPrice());
+        assertEquals(Money.of(150), item.getCurrentTopOffer());
+        assertEquals(2, item.getOfferCount());
+        assertEquals(2, item.getVersion());
+        assertEquals(1, catalog.size());
+    }
+
+    @Test
+    public void testAddOffers_RaisesTopOfferAndCounts() {
+        UUID id = UUID.randomUUID();
+        catalog.put(item(id, "Item", "Desc", "100.00", "0", 0, 1));
+
+        catalog.addOffers(id, Money.of(200), 1);
+        catalog.addOffers(id, Money.of(150), 2);
+
+        assertEquals(Money.of(200), catalog.get(id).getCurrentTopOffer());
+        assertEquals(3, catalog.get(id).getOfferCount());
+
+        catalog.setTotals(id, Money.of(150), 2);
+        assertEquals(Money.of(150), catalog.get(id).getCurrentTopOffer());
+        assertEquals(2, catalog.get(id).getOfferCount());
+    }
+
+    @Test
+    public void testRemove_FreesTheRowForReuse() {
+        UUID removed = UUID.randomUUID();
+        UUID kept = UUID.randomUUID();
+        catalog.put(item(removed, "Removed", "Desc", "1.00", "0", 0, 1));
+        catalog.put(item(kept, "Kept", "Desc", "2.00", "0", 0, 1));
+
+        assertTrue(catalog.remove(removed));
+        assertFalse(catalog.remove(removed));
+        assertNull(catalog.get(removed));
+        assertEquals(1, catalog.size());
+
+        UUID added = UUID.randomUUID();
+        catalog.put(item(added, "Added", "Desc", "3.00", "0", 0, 1));
+        assertEquals("Added", catalog.get(added).getName());
+        assertEquals("Kept", catalog.get(kept).getName());
+        assertEquals(2, catalog.all().size());
+    }
+
+    /**
+     * Grows well past the initial size while items come and go, so the rows,
+     * the ID table and the text are all resized, rehashed and compacted.
+     */
+    @Test
+    public void testManyItems_SurviveGrowthRemovalAndRewrites() {
+        int count = 20_000;
+        UUID[] ids = new UUID[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = UUID.randomUUID();
+            catalog.put(item(ids[i], "Item " + i, "Description " + i, "1.00", "0", 0, 1));
+        }
+        for (int i = 0; i < count; i += 2) {
+            assertTrue(catalog.remove(ids[i]));
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 1; i < count; i += 2) {
+                catalog.updateDetails(ids[i], "Item " + i + " v" + round, "Description " + i, Money.of(round), round);
+            }
+        }
+
+        assertEquals(count / 2, catalog.size());
+        for (int i = 0; i < count; i++) {
+            CollectibleItem item = catalog.get(ids[i]);
+            if (i % 2 == 0) {
+                assertNull(item);
+            } else {
+                assertEquals("Item " + i + " v4", item.getName());
+                assertEquals("Description " + i, item.getDescription());
+            }
+        }
+        Set<UUID> all = new HashSet<>();
+        catalog.all().forEach(item -> all.add(item.getUuid()));
+        assertEquals(count / 2, all.size());
+    }
+
+    @Test
+    public void testInPriceRange_UsesTheDisplayPriceInclusively() {
+        UUID cheap = UUID.randomUUID();
+        UUID bidUp = UUID.randomUUID();
+        UUID expensive = UUID.randomUUID();
+        catalog.put(item(cheap, "Cheap", "Desc", "99.99", "0", 0, 1));
+        catalog.put(item(bidUp, "Bid up", "Desc", "50.00", "200.00", 1, 1));
+        catalog.put(item(expensive, "Expensive", "Desc", "300.00", "0", 0, 1));
+
+        assertEquals(Set.of(bidUp, expensive), ids(catalog.inPriceRange(Money.of(200), Money.of(300))));
+        assertEquals(Set.of(cheap), ids(catalog.inPriceRange(Money.ZERO, Money.parse("199.99"))));
+        assertEquals(Set.of(), ids(catalog.inPriceRange(Money.of(301), Money.of(1000))));
+    }
+
+    @Test
+    public void testTop_HighestDisplayPriceFirst() {
+        for (int i = 0; i < 1000; i++) {
+            // Every third item is ranked by a top offer above its price.
+            String price = (i % 3 == 0 ? i : i * 2) + ".00";
+            String topOffer = (i % 3 == 0 ? i * 2 + 1 : 0) + ".00";
+            catalog.put(item(UUID.randomUUID(), "Item " + i, "Desc", price, topOffer, 0, 1));
+        }
+
+        List<CollectibleItem> top = catalog.top(5);
+
+        assertEquals(5, top.size());
+        assertEquals(List.of("Item 999", "Item 998", "Item 997", "Item 996", "Item 995"),
+                top.stream().map(CollectibleItem::getName).toList());
+        assertEquals(Money.of(1999), top.get(0).getCurrentTopOffer());
+        assertEquals(1000, catalog.top(5000).size());
+        assertTrue(catalog.top(0).isEmpty());
+    }
+
+    /**
+     * The columns and text of a million items, measured after a full GC. The
+     * same items as {@link CollectibleItem}s keyed by ID take about 200 bytes
+     * each plus their text (see {@code CatalogBenchmark}).
+     */
+    @Test
+    public void testMillionItems_StayCompact() {
+        int count = 1_000_000;
+        long before = usedHeap();
+        ItemCatalog large = new ItemCatalog(count);
+        for (int i = 0; i < count; i++) {
+            large.put(new CollectibleItem(new UUID(i + 1, ~i), "Item " + i, "Description",
+                    Money.ofCents(10_000 + i), Money.ZERO, 0, 1));
+        }
+        long perItem = (usedHeap() - before) / count;
+
+        assertEquals("Item 999999", large.get(new UUID(count, ~(count - 1))).getName());
+        assertTrue(perItem <= 160, "Expected at most 160 bytes per item, got " + perItem);
+    }
+
+    private static CollectibleItem item(UUID id, String name, String description, String price, String topOffer,
+                                        int offerCount, long version) {
+        return new CollectibleItem(id, name, description, Money.parse(price), Money.parse(topOffer), offerCount, version);
+    }
+
+    private static Set<UUID> ids(List<CollectibleItem> items) {
+        Set<UUID> ids = new HashSet<>();
+        items.forEach(item -> ids.add(item.getUuid()));
+        return ids;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UNIT TEST for the display-price ordered {@link ItemPriceIndex}.
+ */
+public class ItemPriceIndexTest {
+
+    private final ItemPriceIndex index = new ItemPriceIndex();
+    private final UUID cheap = UUID.randomUUID();
+    private final UUID middle = UUID.randomUUID();
+    private final UUID expensive = UUID.randomUUID();
+
+    {
+        index.put(cheap, Money.of(100), Money.ZERO);
+        index.put(middle, Money.of(300), Money.ZERO);
+        index.put(expensive, Money.of(600), Money.ZERO);
+    }
+
+    @Test
+    public void testInRange_InclusiveCheapestFirst() {
+        assertEquals(List.of(middle, expensive), index.inRange(Money.of(300), Money.of(600)));
+        assertEquals(List.of(cheap, middle), index.inRange(Money.ZERO, Money.parse("599.99")));
+        assertEquals(List.of(), index.inRange(Money.of(601), Money.of(1000)));
+        assertEquals(List.of(), index.inRange(Money.of(600), Money.of(300)));
+    }
+
+    @Test
+    public void testTop_HighestFirst() {
+        assertEquals(List.of(expensive, middle), index.top(2));
+        assertEquals(List.of(expensive, middle, cheap), index.top(20));
+        assertEquals(List.of(), index.top(0));
+    }
+
+    @Test
+    public void testOffers_MoveTheDisplayPrice() {
+        index.raiseTopOffer(cheap, Money.of(700));
+        index.raiseTopOffer(cheap, Money.of(650));
+        assertEquals(List.of(cheap, expensive), index.top(2));
+
+        index.setTopOffer(cheap, Money.of(200));
+        assertEquals(List.of(cheap), index.inRange(Money.of(200), Money.of(200)));
+
+        index.setPrice(cheap, Money.of(150));
+        assertEquals(List.of(cheap), index.inRange(Money.of(200), Money.of(200)), "The top offer still counts.");
+        index.setPrice(cheap, Money.of(250));
+        assertEquals(List.of(cheap), index.inRange(Money.of(250), Money.of(250)));
+    }
+
+    @Test
+    public void testEqualPrices_AreAllKept() {
+        UUID twin = UUID.randomUUID();
+        index.put(twin, Money.of(300), Money.ZERO);
+
+        assertEquals(2, index.inRange(Money.of(300), Money.of(300)).size());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    public void testRemoveAndUnknownItems() {
+        index.remove(middle);
+        UUID unknown = UUID.randomUUID();
+        index.raiseTopOffer(unknown, Money.of(1000));
+        index.setPrice(unknown, Money.of(1000));
+        index.remove(unknown);
+
+        assertEquals(List.of(expensive, cheap), index.top(10));
+        assertEquals(2, index.size());
+    }
+
+    /**
+     * Concurrent bids on the same items leave each of them exactly once, at
+     * its highest bid.
+     */
+    @Test
+    public void testConcurrentBids_KeepOneEntryPerItem() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int bid = 1; bid <= 2_000; bid++) {
+                    index.raiseTopOffer(bid % 2 == 0 ? cheap : middle, Money.ofCents(100_000 + bid * 4L + thread));
+                    index.top(3);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(List.of(cheap, middle, expensive), index.top(10));
+        assertEquals(List.of(cheap), index.inRange(Money.ofCents(108_000), Money.ofCents(108_003)));
+    }
+}
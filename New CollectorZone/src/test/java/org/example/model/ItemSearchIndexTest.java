@@ -0,0 +1,67 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UNIT TEST for the keyword {@link ItemSearchIndex}.
+ */
+public class ItemSearchIndexTest {
+
+    private final ItemSearchIndex index = new ItemSearchIndex();
+    private final UUID casco = UUID.randomUUID();
+    private final UUID guitarra = UUID.randomUUID();
+    private final UUID jersey = UUID.randomUUID();
+
+    {
+        index.put(casco, "Casco autografiado por Rosalía", "Una verdadera MOTOMAMI!");
+        index.put(guitarra, "Guitarra de Fernando Delgadillo", "Una guitarra acústica de alta calidad");
+        index.put(jersey, "Jersey firmado por Snoop Dogg", null);
+    }
+
+    @Test
+    public void testWords_FoldCaseAndAccents() {
+        assertEquals(List.of("casco", "autografiado", "por", "rosalia"),
+                ItemSearchIndex.words("Casco autografiado por Rosalía"));
+        assertEquals(List.of("una", "verdadera", "motomami"), ItemSearchIndex.words("Una verdadera MOTOMAMI!"));
+        assertEquals(List.of("anos", "80", "s"), ItemSearchIndex.words("Años 80's"));
+        assertEquals(List.of(), ItemSearchIndex.words(" ¡! "));
+        assertEquals(List.of(), ItemSearchIndex.words(null));
+    }
+
+    @Test
+    public void testSearch_MatchesWordPrefixesIgnoringCaseAndAccents() {
+        assertEquals(Set.of(casco), index.search("rosalia"));
+        assertEquals(Set.of(casco), index.search("ROSALÍA"));
+        assertEquals(Set.of(guitarra), index.search("acust"));
+        assertEquals(Set.of(casco, jersey), index.search("por"));
+        assertEquals(Set.of(casco, guitarra), index.search("una"));
+    }
+
+    @Test
+    public void testSearch_EveryQueryWordMustMatch() {
+        assertEquals(Set.of(guitarra), index.search("guitarra del"));
+        assertEquals(Set.of(casco), index.search("  una, motomami "));
+        assertEquals(Set.of(), index.search("guitarra snoop"));
+        assertEquals(Set.of(), index.search("tografiado"));
+        assertEquals(Set.of(), index.search("?!"));
+    }
+
+    @Test
+    public void testPutAndRemove_ReplaceTheIndexedWords() {
+        index.put(casco, "Casco de Bad Bunny", null);
+        index.remove(jersey);
+        index.remove(UUID.randomUUID());
+
+        assertEquals(Set.of(), index.search("rosalia"));
+        assertEquals(Set.of(casco), index.search("bunny"));
+        assertEquals(Set.of(), index.search("snoop"));
+        assertEquals(Set.of(), index.search("por"));
+        assertEquals(2, index.size());
+    }
+}
@@ -4,15 +4,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -57,14 +56,14 @@ public class ItemServiceTest {
     public void testCreateItem_Success() {
 
         String id = UUID.randomUUID().toString();
-        CollectibleItem newItem = new CollectibleItem(id, "New Test Item", "Description", 99.99);
+        CollectibleItem newItem = new CollectibleItem(id, "New Test Item", "Description", Money.parse("99.99"));
 
         itemService.createItem(id, newItem);
 
         CollectibleItem fetchedItem = itemService.getItemById(id);
         assertNotNull(fetchedItem, "Fetched item should not be null after creation.");
         assertEquals("New Test Item", fetchedItem.getName(), "Item name should match.");
-        assertEquals(99.99, fetchedItem.getPrice(), "Item price should match.");
+        assertEquals(Money.parse("99.99"), fetchedItem.getPrice(), "Item price should match.");
     }
 
     /**
@@ -94,7 +93,7 @@ public class ItemServiceTest {
         CollectibleItem existingItem = itemService.getAllItems().iterator().next();
         String existingId = existingItem.getId();
 
-        CollectibleItem duplicateItem = new CollectibleItem(existingId, "Duplicate Item", "Desc", 1.0);
+        CollectibleItem duplicateItem = new CollectibleItem(existingId, "Duplicate Item", "Desc", Money.of(1));
 
         ApiException exception = assertThrows(ApiException.class, () -> {
             itemService.createItem(existingId, duplicateItem);
@@ -105,25 +104,156 @@ public class ItemServiceTest {
     }
 
     /**
-     * Reads the 'setup-dev.sql' file from the classpath and executes it
+     * An update that names the version it read is rejected with 412 once
+     * another update has moved the item to a newer version.
+     */
+    @Test
+    public void testUpdateItem_StaleVersionIsRejected() {
+
+        CollectibleItem item = itemService.getAllItems().iterator().next();
+        long version = item.getVersion();
+
+        CollectibleItem first = new CollectibleItem(item.getId(), "First Edit", "Desc", Money.of(10));
+        assertEquals(version + 1, itemService.updateItem(item.getId(), first, version).getVersion());
+
+        CollectibleItem second = new CollectibleItem(item.getId(), "Second Edit", "Desc", Money.of(20));
+        ApiException exception = assertThrows(ApiException.class,
+                () -> itemService.updateItem(item.getId(), second, version));
+
+        assertEquals(412, exception.getStatusCode(), "Status code should be 412 (Precondition Failed).");
+        CollectibleItem fetchedItem = itemService.getItemById(item.getId());
+        assertEquals("First Edit", fetchedItem.getName(), "The stale update must not overwrite the first one.");
+        assertEquals(version + 1, fetchedItem.getVersion());
+    }
+
+    /**
+     * Unconditional updates still increment the version, and a missing item is 404, not 412.
+     */
+    @Test
+    public void testUpdateItem_UnconditionalBumpsVersion() {
+
+        CollectibleItem item = itemService.getAllItems().iterator().next();
+
+        CollectibleItem updated = itemService.updateItem(item.getId(), new CollectibleItem(null, "Edit", "Desc", Money.of(10)));
+        assertEquals(item.getVersion() + 1, updated.getVersion());
+
+        String missingId = UUID.randomUUID().toString();
+        ApiException exception = assertThrows(ApiException.class,
+                () -> itemService.updateItem(missingId, new CollectibleItem(null, "Edit", "Desc", Money.of(10)), 0L));
+        assertEquals(404, exception.getStatusCode());
+    }
+
+    /**
+     * The seed prices rank the items by display price; bids, price changes
+     * and deleted offers move them, with and without a catalog.
+     */
+    @Test
+    public void testDisplayPriceQueries_FollowItemAndOfferWrites() {
+        for (ItemService service : new ItemService[] {new ItemService(), new ItemService(new ItemCatalog())}) {
+            runInitScript();
+            service.loadItems();
+            OfferService offerService = new OfferService(service);
+            List<CollectibleItem> ranked = service.getTopItems(5);
+            assertEquals(List.of("Guitarra de Fernando Delgadillo", "Casco autografiado por Rosalía",
+                    "Gorra autografiada por Peso Pluma", "Chamarra de Bad Bunny", "Jersey firmado por Snoop Dogg"),
+                    names(ranked));
+
+            Offer bid = offerService.createOffer(new Offer("Bidder", "bidder@example.com", UUID.randomUUID(),
+                    Money.of(900), ranked.get(4).getId(), new Date()));
+            assertEquals(List.of("Jersey firmado por Snoop Dogg", "Guitarra de Fernando Delgadillo"),
+                    names(service.getTopItems(2)));
+            assertEquals(List.of("Gorra autografiada por Peso Pluma", "Casco autografiado por Rosalía"),
+                    names(service.getItemsByDisplayPrice(Money.parse("621.30"), Money.parse("800.00"))));
+
+            CollectibleItem gorra = ranked.get(2);
+            service.updateItem(gorra.getId(), new CollectibleItem(gorra.getId(), gorra.getName(), null, Money.of(1000)));
+            assertEquals("Gorra autografiada por Peso Pluma", service.getTopItems(1).get(0).getName());
+
+            offerService.deleteOffer(bid.getId());
+            assertEquals(List.of("Jersey firmado por Snoop Dogg", "Chamarra de Bad Bunny"),
+                    names(service.getItemsByDisplayPrice(null, Money.of(600))));
+        }
+    }
+
+    /**
+     * With a catalog, item reads see every write made through the services
+     * without going back to the database.
+     */
+    @Test
+    public void testCatalog_FollowsItemAndOfferWrites() {
+        ItemService cached = new ItemService(new ItemCatalog());
+        cached.loadItems();
+        OfferService offerService = new OfferService(cached);
+        assertEquals(5, cached.getAllItems().size());
+
+        String id = UUID.randomUUID().toString();
+        cached.createItem(id, new CollectibleItem(id, "Cached Item", "Description", Money.of(100)));
+        cached.updateItem(id, new CollectibleItem(id, "Renamed Item", null, Money.of(110)));
+        Offer offer = offerService.createOffer(new Offer("Bidder", "bidder@example.com", UUID.randomUUID(),
+                Money.of(150), id, new Date()));
+
+        CollectibleItem item = cached.getItemById(id);
+        assertEquals("Renamed Item", item.getName());
+        assertNull(item.getDescription());
+        assertEquals(Money.of(110), item.getPrice());
+        assertEquals(Money.of(150), item.getCurrentTopOffer());
+        assertEquals(1, item.getOfferCount());
+        assertEquals(itemService.getItemById(id).getVersion(), item.getVersion());
+
+        offerService.deleteOffer(offer.getId());
+        assertEquals(Money.ZERO, cached.getItemById(id).getCurrentTopOffer());
+        assertEquals(0, cached.getItemById(id).getOfferCount());
+
+        cached.deleteItem(id);
+        ApiException exception = assertThrows(ApiException.class, () -> cached.getItemById(id));
+        assertEquals(404, exception.getStatusCode());
+        assertEquals(5, cached.getAllItems().size());
+    }
+
+    /**
+     * The keyword search finds the seed items once loaded, follows item
+     * writes, and answers the same with and without a catalog.
+     */
+    @Test
+    public void testSearchItems_FollowsItemWrites() {
+        for (ItemService service : new ItemService[] {new ItemService(), new ItemService(new ItemCatalog())}) {
+            runInitScript();
+            service.loadItems();
+            assertEquals(List.of("Casco autografiado por Rosalía"), names(service.searchItems("rosalia")));
+            assertEquals(Set.of("Gorra autografiada por Peso Pluma", "Casco autografiado por Rosalía",
+                    "Chamarra de Bad Bunny", "Jersey firmado por Snoop Dogg"), Set.copyOf(names(service.searchItems("AUTOGRAF"))));
+
+            String id = UUID.randomUUID().toString();
+            service.createItem(id, new CollectibleItem(id, "Vinilo de Natalia Lafourcade", "Edición limitada", Money.of(50)));
+            assertEquals(List.of(id), ids(service.searchItems("natalia edicion")));
+
+            service.updateItem(id, new CollectibleItem(id, "Vinilo de Café Tacvba", null, Money.of(50)));
+            assertEquals(List.of(), service.searchItems("natalia"));
+            assertEquals(List.of(id), ids(service.searchItems("cafe")));
+
+            service.deleteItem(id);
+            assertEquals(List.of(), service.searchItems("vinilo"));
+        }
+    }
+
+    private static List<String> ids(List<CollectibleItem> items) {
+        return items.stream().map(CollectibleItem::getId).toList();
+    }
+
+    private static List<String> names(List<CollectibleItem> items) {
+        return items.stream().map(CollectibleItem::getName).toList();
+    }
+
+    /**
+     * Applies the schema migrations, then executes 'setup-dev.sql'
      * against the H2 database to clean and populate it.
      */
     private void runInitScript() {
-        String script = "";
-        try (InputStream is = getClass().getClassLoader().getResourceAsStream("setup-dev.sql")) {
-            if (is == null) {
-                throw new RuntimeException("Could not find setup-dev.sql in classpath");
-            }
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
-                script = reader.lines().collect(Collectors.joining("\n"));
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Error reading setup-dev.sql", e);
-        }
+        Migrations.migrate();
 
         try (Connection conn = Database.getConnection();
              Statement stmt = conn.createStatement()) {
-            stmt.execute(script);
+            stmt.execute(Migrations.readResource("setup-dev.sql"));
         } catch (SQLException e) {
             throw new RuntimeException("Error executing setup-dev.sql", e);
         }
@@ -0,0 +1,107 @@
+package org.example.model;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * INTEGRATION TEST for the schema migrations.
+ * It migrates the H2 in-memory database and checks the query plans of the
+ * offer access patterns with EXPLAIN.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class MigrationsTest {
+
+    @BeforeAll
+    public void migrate() {
+        Migrations.migrate();
+    }
+
+    /**
+     * Running the migrations again must not re-apply anything.
+     */
+    @Test
+    public void testMigrate_IsIdempotent() {
+        int latest = Migrations.versionOf(Migrations.SCRIPTS.get(Migrations.SCRIPTS.size() - 1));
+
+        Migrations.migrate();
+
+        assertEquals(latest, Migrations.currentVersion(), "Schema should be at the latest version.");
+    }
+
+    /**
+     * Recomputing an item's offer totals reads straight from the composite index.
+     */
+    @Test
+    public void testOfferTotals_UsesItemPriceIndex() throws SQLException {
+        String plan = explain(OfferService.OFFER_TOTALS_SQL, UUID.randomUUID());
+
+        assertTrue(plan.contains("IDX_OFFERS_ITEM_PRICE"), "Plan should use the (item_id, price DESC) index: " + plan);
+    }
+
+    /**
+     * Fetching the whole last offer row must be an index lookup, never a table scan.
+     */
+    @Test
+    public void testLastOffer_DoesNotScanTable() throws SQLException {
+        String plan = explain(OfferService.LAST_OFFER_SQL, UUID.randomUUID());
+
+        assertFalse(plan.contains("tableScan"), "Plan should not scan the offers table: " + plan);
+        assertTrue(plan.contains("ITEM_ID = ?1"), "Plan should look offers up by item_id: " + plan);
+    }
+
+    /**
+     * History queries over a time window are served by the created_at index.
+     */
+    @Test
+    public void testOfferHistory_UsesCreatedAtIndex() throws SQLException {
+        String sql = "SELECT " + OfferRowMapper.COLUMNS + " FROM offers WHERE created_at >= ? ORDER BY created_at";
+
+        String plan = explain(sql, new Timestamp(System.currentTimeMillis()));
+
+        assertTrue(plan.contains("IDX_OFFERS_CREATED_AT"), "Plan should use the created_at index: " + plan);
+        assertTrue(plan.contains("index sorted"), "Rows should come out of the index already sorted: " + plan);
+    }
+
+    /**
+     * The composite index keeps prices in descending order within each item.
+     */
+    @Test
+    public void testItemPriceIndex_ColumnOrder() throws SQLException {
+        String sql = "SELECT COLUMN_NAME, ORDERING_SPECIFICATION FROM INFORMATION_SCHEMA.INDEX_COLUMNS " +
+                "WHERE INDEX_NAME = 'IDX_OFFERS_ITEM_PRICE' ORDER BY ORDINAL_POSITION";
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            assertTrue(rs.next());
+            assertEquals("ITEM_ID", rs.getString(1));
+            assertEquals("ASC", rs.getString(2));
+            assertTrue(rs.next());
+            assertEquals("PRICE", rs.getString(1));
+            assertEquals("DESC", rs.getString(2));
+            assertFalse(rs.next());
+        }
+    }
+
+    private String explain(String sql, Object param) throws SQLException {
+        try (Connection conn = Database.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("EXPLAIN " + sql)) {
+            pstmt.setObject(1, param);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UNIT TEST for the fixed-point {@link Money} amounts.
+ */
+public class MoneyTest {
+
+    @Test
+    public void testParse_PlainDecimals() {
+        assertEquals(1200, Money.parseCents("12"));
+        assertEquals(1250, Money.parseCents("12.5"));
+        assertEquals(1250, Money.parseCents("12.50"));
+        assertEquals(1250, Money.parseCents("12.5000"));
+        assertEquals(5, Money.parseCents(".05"));
+        assertEquals(-5, Money.parseCents("-0.05"));
+        assertEquals(62130, Money.parseCents("+621.30"));
+    }
+
+    @Test
+    public void testParse_RejectsMalformedAndSubCentAmounts() {
+        for (String text : new String[] {"", "-", ".", "1.2.3", "1,00", "1e3", "12.345", " 1", "cheap", "99999999999999999999"}) {
+            assertThrows(NumberFormatException.class, () -> Money.parse(text), text);
+        }
+        assertThrows(NumberFormatException.class, () -> Money.parse(null));
+    }
+
+    @Test
+    public void testToString_TwoDecimals() {
+        assertEquals("0.00", Money.ZERO.toString());
+        assertEquals("0.05", Money.ofCents(5).toString());
+        assertEquals("-0.05", Money.ofCents(-5).toString());
+        assertEquals("1250.50", Money.parse("1250.5").toString());
+        assertEquals("700.00", Money.of(700).toString());
+    }
+
+    /**
+     * Sums that binary floating point gets wrong compare exactly: 0.1 + 0.2
+     * is 0.30000000000000004 as a double.
+     */
+    @Test
+    public void testCompare_IsExact() {
+        Money sum = Money.ofCents(Money.parse("0.1").cents() + Money.parse("0.2").cents());
+
+        assertEquals(Money.parse("0.3"), sum);
+        assertFalse(sum.isGreaterThan(Money.parse("0.30")));
+        assertTrue(Money.parse("621.31").isGreaterThan(Money.parse("621.30")));
+        assertEquals(Money.of(900), Money.max(Money.of(700), Money.of(900)));
+        assertEquals(0, Money.parse("19.99").toBigDecimal().compareTo(new BigDecimal("19.99")));
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UNIT TEST for the memory-mapped offer journal.
+ */
+public class OfferJournalTest {
+
+    private static final int CAPACITY = 64 * 1024;
+
+    @TempDir
+    Path dir;
+
+    private Offer offer(String price) {
+        return new Offer("Ana Núñez", "ana@example.com", UUID.randomUUID(), Money.parse(price),
+                UUID.randomUUID().toString(), new Date());
+    }
+
+    /**
+     * Records appended before a restart are read back in order, field by field.
+     */
+    @Test
+    public void testUnapplied_SurvivesReopen() throws Exception {
+        Path file = dir.resolve("offers.journal");
+        Offer first = offer("100.50");
+        Offer second = offer("200.00");
+
+        try (OfferJournal journal = new OfferJournal(file, CAPACITY)) {
+            journal.sync(journal.append(first));
+            journal.sync(journal.append(second));
+        }
+
+        try (OfferJournal journal = new OfferJournal(file, CAPACITY)) {
+            List<OfferJournal.Entry> entries = journal.unapplied();
+
+            assertEquals(2, entries.size());
+            Offer read = entries.get(0).offer();
+            assertEquals(first.getId(), read.getId());
+            assertEquals(first.getName(), read.getName());
+            assertEquals(first.getEmail(), read.getEmail());
+            assertEquals(first.getPrice(), read.getPrice());
+            assertEquals(first.getItemId(), read.getItemId());
+            assertEquals(first.getCreatedAt(), read.getCreatedAt());
+            assertEquals(second.getId(), entries.get(1).offer().getId());
+            assertEquals(journal.end(), entries.get(1).end(), "New records should go after the replayed ones.");
+        }
+    }
+
+    /**
+     * Records before the checkpoint are not replayed.
+     */
+    @Test
+    public void testCheckpoint_SkipsAppliedRecords() throws Exception {
+        Path file = dir.resolve("offers.journal");
+        Offer pending = offer("300.00");
+
+        try (OfferJournal journal = new OfferJournal(file, CAPACITY)) {
+            journal.append(offer("100.00"));
+            journal.checkpoint(journal.end());
+            journal.sync(journal.append(pending));
+        }
+
+        try (OfferJournal journal = new OfferJournal(file, CAPACITY)) {
+            List<OfferJournal.Entry> entries = journal.unapplied();
+
+            assertEquals(1, entries.size());
+            assertEquals(pending.getId(), entries.get(0).offer().getId());
+        }
+    }
+
+    /**
+     * A record with a bad checksum ends the log.
+     */
+    @Test
+    public void testUnapplied_StopsAtTornRecord() throws Exception {
+        Path file = dir.resolve("offers.journal");
+        long secondStart;
+
+        try (OfferJournal journal = new OfferJournal(file, CAPACITY)) {
+            journal.append(offer("100.00"));
+            secondStart = journal.end();
+            journal.sync(journal.append(offer("200.00")));
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(secondStart + 12);
+            raf.write(0xFF);
+        }
+
+        try (OfferJournal journal = new OfferJournal(file, CAPACITY)) {
+            assertEquals(1, journal.unapplied().size());
+            assertEquals(secondStart, journal.end(), "Appends should overwrite the torn record.");
+        }
+    }
+
+    /**
+     * Once the database caught up, the log starts over; not before.
+     */
+    @Test
+    public void testReset_OnlyWhenCaughtUp() throws IOException, InterruptedException {
+        try (OfferJournal journal = new OfferJournal(dir.resolve("offers.journal"), CAPACITY)) {
+            journal.append(offer("100.00"));
+            long applied = journal.end();
+            journal.append(offer("200.00"));
+
+            assertFalse(journal.reset(applied));
+
+            assertTrue(journal.reset(journal.end()));
+            assertEquals(OfferJournal.HEADER_SIZE, journal.end());
+            assertEquals(OfferJournal.HEADER_SIZE, journal.checkpoint());
+            assertTrue(journal.unapplied().isEmpty());
+        }
+    }
+
+    /**
+     * Once appends are stopped, an append waiting for space fails instead of
+     * waiting forever, and so does every later one.
+     */
+    @Test
+    public void testStopAppends_ReleasesWaitingAppends() throws Exception {
+        try (OfferJournal journal = new OfferJournal(dir.resolve("offers.journal"), 256)) {
+            journal.append(offer("100.00"));
+            journal.append(offer("200.00"));
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            Future<Long> waiting = executor.submit(() -> journal.append(offer("300.00")));
+            Thread.sleep(100);
+            assertFalse(waiting.isDone(), "The journal should be full");
+
+            journal.stopAppends();
+
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> waiting.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, exception.getCause());
+            assertThrows(IllegalStateException.class, () -> journal.append(offer("400.00")));
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UNIT TEST for the in-memory {@link OfferLeaderboard}.
+ */
+public class OfferLeaderboardTest {
+
+    private final OfferLeaderboard leaderboard = new OfferLeaderboard(3);
+    private final UUID item = UUID.randomUUID();
+    private final Instant now = Instant.parse("2026-10-19T10:00:00Z");
+
+    private Offer offer(UUID itemId, String email, long price, int secondsLater) {
+        return new Offer("Bidder " + email, email, UUID.randomUUID(), Money.of(price), itemId,
+                now.plusSeconds(secondsLater), 0);
+    }
+
+    @Test
+    public void testTopBids_HighestFirstAndBounded() {
+        Offer low = offer(item, "a@example.com", 100, 0);
+        Offer high = offer(item, "b@example.com", 400, 1);
+        Offer middle = offer(item, "c@example.com", 300, 2);
+        Offer tooLow = offer(item, "d@example.com", 50, 3);
+        Offer highest = offer(item, "a@example.com", 500, 4);
+        for (Offer offer : List.of(low, high, middle, tooLow, highest)) {
+            leaderboard.offerAdded(offer);
+        }
+
+        assertEquals(List.of(highest, high, middle), leaderboard.topBids(item, 10));
+        assertEquals(List.of(highest), leaderboard.topBids(item, 1));
+        assertEquals(List.of(), leaderboard.topBids(UUID.randomUUID(), 10));
+    }
+
+    @Test
+    public void testEqualBids_EarlierFirst() {
+        Offer later = offer(item, "a@example.com", 100, 5);
+        Offer earlier = offer(item, "b@example.com", 100, 1);
+        leaderboard.offerAdded(later);
+        leaderboard.offerAdded(earlier);
+
+        assertEquals(List.of(earlier, later), leaderboard.topBids(item, 3));
+    }
+
+    @Test
+    public void testOfferAddedTwice_IsRankedOnce() {
+        Offer offer = offer(item, "a@example.com", 100, 0);
+        leaderboard.setTopBids(item, List.of(offer));
+        leaderboard.offerAdded(offer);
+
+        assertEquals(List.of(offer), leaderboard.topBids(item, 3));
+    }
+
+    @Test
+    public void testReloadTopBids_ReplacesOrKeepsTheBids() throws Exception {
+        Offer stale = offer(item, "a@example.com", 100, 0);
+        leaderboard.offerAdded(stale);
+        Offer stored = offer(item, "b@example.com", 200, 1);
+
+        leaderboard.reloadTopBids(item, () -> null);
+        assertEquals(List.of(stale), leaderboard.topBids(item, 10));
+
+        // An offer added while the reload reads is ranked after it, not overwritten.
+        Offer concurrent = offer(item, "c@example.com", 300, 2);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?>[] added = new Future<?>[1];
+        leaderboard.reloadTopBids(item, () -> {
+            added[0] = executor.submit(() -> leaderboard.offerAdded(concurrent));
+            return List.of(stored);
+        });
+        added[0].get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(List.of(concurrent, stored), leaderboard.topBids(item, 10));
+    }
+
+    @Test
+    public void testTopBidders_CountOffersAcrossItemsIgnoringEmailCase() {
+        UUID other = UUID.randomUUID();
+        leaderboard.offerAdded(offer(item, "ana@example.com", 100, 0));
+        leaderboard.offerAdded(offer(item, "bob@example.com", 200, 1));
+        leaderboard.offerAdded(offer(other, "ANA@example.com", 300, 2));
+
+        assertEquals(List.of(new BidderActivity("Bidder ANA@example.com", 2), new BidderActivity("Bidder bob@example.com", 1)),
+                leaderboard.topBidders(10));
+        assertEquals(1, leaderboard.topBidders(1).size());
+    }
+
+    @Test
+    public void testRemovedAndChangedOffers_MoveTheCounts() {
+        Offer first = offer(item, "ana@example.com", 100, 0);
+        Offer second = offer(item, "ana@example.com", 200, 1);
+        leaderboard.offerAdded(first);
+        leaderboard.offerAdded(second);
+        leaderboard.offerAdded(offer(item, "bob@example.com", 300, 2));
+
+        leaderboard.offerChanged(second, new Offer("Carla", "carla@example.com", second.getId(), Money.of(250), item, now, 1));
+        leaderboard.offerRemoved(first);
+
+        assertEquals(List.of(new BidderActivity("Bidder bob@example.com", 1), new BidderActivity("Carla", 1)),
+                leaderboard.topBidders(10));
+    }
+
+    @Test
+    public void testRemoveItem_DropsItsBidsAndCounts() {
+        UUID other = UUID.randomUUID();
+        leaderboard.offerAdded(offer(item, "ana@example.com", 100, 0));
+        leaderboard.offerAdded(offer(item, "ana@example.com", 200, 1));
+        leaderboard.offerAdded(offer(other, "ana@example.com", 300, 2));
+        leaderboard.offerAdded(offer(item, "bob@example.com", 400, 3));
+
+        leaderboard.removeItem(item);
+        leaderboard.offerRemoved(offer(item, "bob@example.com", 400, 3));
+
+        assertEquals(List.of(), leaderboard.topBids(item, 3));
+        assertEquals(List.of(new BidderActivity("Bidder ana@example.com", 1)), leaderboard.topBidders(10));
+    }
+
+    /**
+     * Concurrent bids on two items leave each item's best bids and every
+     * bidder's exact count.
+     */
+    @Test
+    public void testConcurrentBids_KeepCountsExact() throws Exception {
+        UUID other = UUID.randomUUID();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int bid = 1; bid <= 1_000; bid++) {
+                    leaderboard.offerAdded(offer(bid % 2 == 0 ? item : other, "bidder" + thread + "@example.com",
+                            bid * 4L + thread, bid));
+                    leaderboard.topBidders(2);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        List<BidderActivity> bidders = leaderboard.topBidders(10);
+        assertEquals(4, bidders.size());
+        assertTrue(bidders.stream().allMatch(bidder -> bidder.offers() == 1_000), bidders.toString());
+        assertEquals(List.of(Money.of(4003), Money.of(4002), Money.of(4001)),
+                leaderboard.topBids(item, 3).stream().map(Offer::getPrice).toList());
+    }
+}
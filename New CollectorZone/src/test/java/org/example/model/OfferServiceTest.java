@@ -4,16 +4,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -23,12 +20,12 @@ public class OfferServiceTest {
     private final ItemService itemService = new ItemService();
     private final OfferService offerService = new OfferService(itemService);
 
-    private Offer createSampleOffer(String itemId, double price) {
+    private Offer createSampleOffer(String itemId, String price) {
         return new Offer(
                 "Test User",
                 "test@example.com",
                 UUID.randomUUID(),
-                price,
+                Money.parse(price),
                 itemId,
                 new Date()
         );
@@ -52,17 +49,17 @@ public class OfferServiceTest {
     public void testCreateOffer_Success() {
 
         CollectibleItem item = getFirstItem();
-        Offer newOffer = createSampleOffer(item.getId(), 1000.00);
+        Offer newOffer = createSampleOffer(item.getId(), "1000.00");
 
         Offer createdOffer = offerService.createOffer(newOffer);
 
         assertNotNull(createdOffer);
-        assertEquals(1000.00, createdOffer.getPrice());
+        assertEquals(Money.of(1000), createdOffer.getPrice());
         assertEquals(item.getId(), createdOffer.getItemId());
 
         Optional<Offer> lastOffer = offerService.getLastOffer(UUID.fromString(item.getId()));
         assertTrue(lastOffer.isPresent());
-        assertEquals(1000.00, lastOffer.get().getPrice());
+        assertEquals(Money.of(1000), lastOffer.get().getPrice());
     }
 
     /**
@@ -73,7 +70,7 @@ public class OfferServiceTest {
     public void testCreateOffer_Fail_BidTooLow() {
 
         CollectibleItem item = getFirstItem(); // Price is $621.30
-        Offer newOffer = createSampleOffer(item.getId(), 50.00); // $50 is too low
+        Offer newOffer = createSampleOffer(item.getId(), "50.00"); // $50 is too low
 
         ApiException exception = assertThrows(ApiException.class, () -> {
             offerService.createOffer(newOffer);
@@ -91,10 +88,10 @@ public class OfferServiceTest {
     public void testCreateOffer_Fail_BidNotHigherThanLastOffer() {
 
         CollectibleItem item = getFirstItem();
-        Offer firstOffer = createSampleOffer(item.getId(), 1000.00);
+        Offer firstOffer = createSampleOffer(item.getId(), "1000.00");
         offerService.createOffer(firstOffer);
 
-        Offer secondOffer = createSampleOffer(item.getId(), 900.00);
+        Offer secondOffer = createSampleOffer(item.getId(), "900.00");
 
         ApiException exception = assertThrows(ApiException.class, () -> {
             offerService.createOffer(secondOffer);
@@ -111,7 +108,7 @@ public class OfferServiceTest {
     public void testCreateOffer_Fail_ItemNotFound() {
         // Preparation
         String nonExistentId = UUID.randomUUID().toString();
-        Offer newOffer = createSampleOffer(nonExistentId, 5000.00);
+        Offer newOffer = createSampleOffer(nonExistentId, "5000.00");
 
         ApiException exception = assertThrows(ApiException.class, () -> {
             offerService.createOffer(newOffer);
@@ -130,15 +127,15 @@ public class OfferServiceTest {
 
         CollectibleItem item = getFirstItem();
 
-        offerService.createOffer(createSampleOffer(item.getId(), 700.0));
-        offerService.createOffer(createSampleOffer(item.getId(), 900.0));
-        offerService.createOffer(createSampleOffer(item.getId(), 1000.0));
+        offerService.createOffer(createSampleOffer(item.getId(), "700.00"));
+        offerService.createOffer(createSampleOffer(item.getId(), "900.00"));
+        offerService.createOffer(createSampleOffer(item.getId(), "1000.00"));
 
         Optional<Offer> lastOffer = offerService.getLastOffer(UUID.fromString(item.getId()));
 
         assertTrue(lastOffer.isPresent(), "Last offer should be found.");
 
-        assertEquals(1000.0, lastOffer.get().getPrice(), "Last offer should be the highest one ($1000).");
+        assertEquals(Money.of(1000), lastOffer.get().getPrice(), "Last offer should be the highest one ($1000).");
     }
 
     /**
@@ -154,23 +151,175 @@ public class OfferServiceTest {
         assertTrue(lastOffer.isEmpty(), "Last offer optional should be empty.");
     }
 
+    /**
+     * Accepted bids keep the item's denormalized top offer and count current.
+     */
+    @Test
+    public void testCreateOffer_UpdatesItemTotals() {
 
-    private void runInitScript() {
-        String script = "";
-        try (InputStream is = getClass().getClassLoader().getResourceAsStream("setup-dev.sql")) {
-            if (is == null) {
-                throw new RuntimeException("Could not find setup-dev.sql in classpath");
-            }
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
-                script = reader.lines().collect(Collectors.joining("\n"));
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Error reading setup-dev.sql", e);
+        CollectibleItem item = getFirstItem();
+
+        offerService.createOffer(createSampleOffer(item.getId(), "700.00"));
+        offerService.createOffer(createSampleOffer(item.getId(), "900.00"));
+
+        CollectibleItem updated = itemService.getItemById(item.getId());
+        assertEquals(Money.of(900), updated.getCurrentTopOffer(), "Top offer should be the highest bid.");
+        assertEquals(2, updated.getOfferCount(), "Offer count should include both bids.");
+    }
+
+    /**
+     * Deleting the top offer recomputes the item's top offer from what is left.
+     */
+    @Test
+    public void testDeleteOffer_RecomputesItemTotals() {
+
+        CollectibleItem item = getFirstItem();
+
+        offerService.createOffer(createSampleOffer(item.getId(), "700.00"));
+        Offer top = offerService.createOffer(createSampleOffer(item.getId(), "900.00"));
+
+        offerService.deleteOffer(top.getId());
+
+        CollectibleItem updated = itemService.getItemById(item.getId());
+        assertEquals(Money.of(700), updated.getCurrentTopOffer(), "Top offer should fall back to the remaining bid.");
+        assertEquals(1, updated.getOfferCount());
+
+        Offer remaining = offerService.getLastOffer(UUID.fromString(item.getId())).orElseThrow();
+        offerService.deleteOffer(remaining.getId());
+
+        updated = itemService.getItemById(item.getId());
+        assertEquals(Money.ZERO, updated.getCurrentTopOffer(), "Top offer should be cleared when no bids are left.");
+        assertEquals(0, updated.getOfferCount());
+    }
+
+    /**
+     * Updating an offer's price recomputes the item's top offer.
+     */
+    @Test
+    public void testUpdateOffer_RecomputesItemTotals() {
+
+        CollectibleItem item = getFirstItem();
+
+        Offer offer = offerService.createOffer(createSampleOffer(item.getId(), "700.00"));
+        offerService.updateOffer(offer.getId(), createSampleOffer(item.getId(), "1500.00"));
+
+        CollectibleItem updated = itemService.getItemById(item.getId());
+        assertEquals(Money.of(1500), updated.getCurrentTopOffer());
+        assertEquals(1, updated.getOfferCount());
+    }
+
+    /**
+     * An offer update with a stale version is rejected with 412 and changes nothing.
+     */
+    @Test
+    public void testUpdateOffer_StaleVersionIsRejected() {
+
+        CollectibleItem item = getFirstItem();
+
+        Offer offer = offerService.createOffer(createSampleOffer(item.getId(), "700.00"));
+        assertEquals(1, offerService.updateOffer(offer.getId(), createSampleOffer(item.getId(), "1500.00"), 0L).getVersion());
+
+        ApiException exception = assertThrows(ApiException.class,
+                () -> offerService.updateOffer(offer.getId(), createSampleOffer(item.getId(), "2500.00"), 0L));
+
+        assertEquals(412, exception.getStatusCode());
+        assertEquals(Money.of(1500), offerService.getOfferById(offer.getId()).getPrice());
+        assertEquals(Money.of(1500), itemService.getItemById(item.getId()).getCurrentTopOffer());
+    }
+
+    /**
+     * An offer without a creation time is created now.
+     */
+    @Test
+    public void testCreateOffer_DefaultsCreatedAt() {
+
+        CollectibleItem item = getFirstItem();
+        Offer created = offerService.createOffer(new Offer("Test User", "test@example.com", null, Money.of(1000),
+                item.getId(), null));
+
+        assertNotNull(offerService.getOfferById(created.getId()).getCreatedAt());
+    }
+
+    /**
+     * Deleting an offer that does not exist is reported as 404.
+     */
+    @Test
+    public void testDeleteOffer_NotFound() {
+
+        ApiException exception = assertThrows(ApiException.class, () -> offerService.deleteOffer(UUID.randomUUID()));
+
+        assertEquals(404, exception.getStatusCode());
+    }
+
+
+    /**
+     * The bid rankings follow created, updated and deleted offers, from the
+     * leaderboard in single-writer mode and from the database otherwise.
+     * Loading the leaderboard from the database gives the same rankings.
+     */
+    @Test
+    public void testTopBids_FollowOfferWritesAndReloads() {
+
+        for (ItemService items : new ItemService[] {new ItemService(), new ItemService(new ItemCatalog())}) {
+            CollectibleItem item = getFirstItem();
+            items.loadItems();
+            UUID itemId = UUID.fromString(item.getId());
+            OfferService service = new OfferService(items);
+
+            Offer first = service.createOffer(createSampleOffer(item.getId(), "700.00"));
+            Offer second = service.createOffer(createSampleOffer(item.getId(), "900.00"));
+            Offer third = service.createOffer(new Offer("Ana", "ana@example.com", UUID.randomUUID(), Money.of(1000),
+                    item.getId(), new Date()));
+            assertEquals(List.of(third.getId(), second.getId(), first.getId()), ids(service.getTopBids(itemId, 10)));
+            assertEquals(List.of(new BidderActivity("Test User", 2), new BidderActivity("Ana", 1)), service.getTopBidders(10));
+
+            service.updateOffer(first.getId(), new Offer("Ana", "ANA@example.com", UUID.randomUUID(), Money.of(1200),
+                    item.getId(), new Date()));
+            service.deleteOffer(second.getId());
+            assertEquals(List.of(first.getId(), third.getId()), ids(service.getTopBids(itemId, 10)));
+            assertEquals(Money.of(1200), service.getTopBids(itemId, 1).get(0).getPrice());
+            assertEquals(List.of(new BidderActivity("Ana", 2)), service.getTopBidders(10));
+
+            OfferService reloaded = new OfferService(items);
+            reloaded.loadLeaderboard();
+            assertEquals(ids(service.getTopBids(itemId, 10)), ids(reloaded.getTopBids(itemId, 10)));
+            assertEquals(service.getTopBidders(10), reloaded.getTopBidders(10));
         }
+    }
+
+    /**
+     * Updating an item keeps its bids in the rankings; deleting it drops them.
+     */
+    @Test
+    public void testTopBids_ForgetDeletedItems() {
+
+        for (ItemService items : new ItemService[] {new ItemService(), new ItemService(new ItemCatalog())}) {
+            CollectibleItem item = getFirstItem();
+            items.loadItems();
+            OfferService service = new OfferService(items);
+            service.createOffer(createSampleOffer(item.getId(), "700.00"));
+
+            items.updateItem(item.getId(), item);
+            assertEquals(1, service.getTopBids(UUID.fromString(item.getId()), 10).size());
+
+            items.deleteItem(item.getId());
+
+            assertEquals(List.of(), service.getTopBids(UUID.fromString(item.getId()), 10));
+            assertEquals(List.of(), service.getTopBidders(10));
+        }
+    }
+
+    private static List<UUID> ids(List<Offer> offers) {
+        return offers.stream().map(Offer::getId).toList();
+    }
+
+
+    private void runInitScript() {
+        Migrations.migrate();
 
         try (Connection conn = Database.getConnection();
              Statement stmt = conn.createStatement()) {
-            stmt.execute(script);
+            stmt.execute(Migrations.readResource("setup-dev.sql"));
         } catch (SQLException e) {
             throw new RuntimeException("Error executing setup-dev.sql", e);
         }
@@ -0,0 +1,121 @@
+package org.example.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * INTEGRATION TEST for the transactional notification outbox, against the
+ * H2 in-memory database.
+ */
+public class OutboxRelayTest {
+
+    private final ItemService itemService = new ItemService();
+    private final OfferService offerService = new OfferService(itemService);
+
+    private final List<OfferEvent> delivered = new ArrayList<>();
+    private final OutboxRelay relay = new OutboxRelay(delivered::addAll, 10, 10);
+
+    private CollectibleItem item;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        Migrations.migrate();
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(Migrations.readResource("setup-dev.sql"));
+            stmt.execute("DELETE FROM notifications_outbox");
+        }
+        item = itemService.getAllItems().stream()
+                .filter(i -> i.getPrice().equals(Money.parse("621.30")))
+                .findFirst().orElseThrow();
+    }
+
+    private Offer bid(String price) {
+        return new Offer("Bidder", "bidder@example.com", null, Money.parse(price), item.getId(), new Date());
+    }
+
+    /**
+     * Stored offers are delivered once, in sequence order, and then removed from the outbox.
+     */
+    @Test
+    public void testRelayBatch_DeliversInOrder() throws SQLException {
+        offerService.createOffer(bid("700.00"));
+        offerService.createOffer(bid("800.00"));
+
+        assertEquals(2, relay.relayBatch());
+
+        assertEquals(2, delivered.size());
+        assertEquals("¡NEW OFFER! $700.00 on " + item.getName(), delivered.get(0).message());
+        assertEquals("¡NEW OFFER! $800.00 on " + item.getName(), delivered.get(1).message());
+        assertTrue(delivered.get(0).seq() < delivered.get(1).seq());
+        assertEquals(0, outboxSize());
+        assertEquals(0, relay.relayBatch(), "Delivered notifications must not be sent again.");
+    }
+
+    /**
+     * A rejected bid rolls back, so no notification is queued.
+     */
+    @Test
+    public void testRejectedOffer_QueuesNothing() throws SQLException {
+        assertThrows(ApiException.class, () -> offerService.createOffer(bid("10.00")));
+
+        assertEquals(0, outboxSize());
+    }
+
+    /**
+     * When delivery fails, the notifications stay in the outbox for the next attempt.
+     */
+    @Test
+    public void testRelayBatch_KeepsNotificationsWhenDeliveryFails() throws SQLException {
+        offerService.createOffer(bid("700.00"));
+        OutboxRelay failing = new OutboxRelay(events -> {
+            throw new IllegalStateException("Broadcast failed");
+        }, 10, 10);
+
+        assertThrows(IllegalStateException.class, failing::relayBatch);
+
+        assertEquals(1, outboxSize());
+        assertEquals(1, relay.relayBatch());
+        assertEquals(1, delivered.size());
+    }
+
+    /**
+     * The background relay drains the outbox on its own.
+     */
+    @Test
+    public void testStart_DrainsInBackground() throws Exception {
+        offerService.createOffer(bid("700.00"));
+
+        relay.start();
+        try {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (outboxSize() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            relay.close();
+        }
+
+        assertEquals(0, outboxSize());
+        assertEquals(1, delivered.size());
+    }
+
+    private int outboxSize() throws SQLException {
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM notifications_outbox")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.model;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * UNIT TEST for the LISTEN/NOTIFY event bus, with the PostgreSQL connection
+ * mocked. {@link #testPublish_ReachesEveryNode()} runs against a real
+ * PostgreSQL when {@code TEST_POSTGRES_URL} (plus {@code TEST_POSTGRES_USER}
+ * and {@code TEST_POSTGRES_PASS}) is set.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class PostgresEventBusTest {
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PGConnection pgConnection;
+
+    @Mock
+    private PreparedStatement notifyStatement;
+
+    @Mock
+    private Statement listenStatement;
+
+    private final List<List<OfferEvent>> delivered = new ArrayList<>();
+    private PostgresEventBus eventBus;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        when(connection.prepareStatement("SELECT pg_notify(?, ?)")).thenReturn(notifyStatement);
+        when(connection.createStatement()).thenReturn(listenStatement);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        eventBus = new PostgresEventBus(() -> connection, delivered::add);
+    }
+
+    private PGNotification notification(String channel, OfferEvent... events) {
+        PGNotification notification = mock(PGNotification.class);
+        when(notification.getName()).thenReturn(channel);
+        when(notification.getParameter()).thenReturn(new Gson().toJson(events));
+        return notification;
+    }
+
+    /**
+     * A batch is published as one NOTIFY on the offer channel.
+     */
+    @Test
+    public void testPublish_SendsBatchAsOneNotification() throws SQLException {
+        eventBus.publish(List.of(new OfferEvent(1, null, "first"), new OfferEvent(2, null, "second")));
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(notifyStatement).setString(1, PostgresEventBus.CHANNEL);
+        verify(notifyStatement).setString(eq(2), payload.capture());
+        verify(notifyStatement, times(1)).execute();
+        assertTrue(payload.getValue().contains("\"seq\":1") && payload.getValue().contains("second"));
+    }
+
+    /**
+     * Batches too large for one notification are split, without losing events.
+     */
+    @Test
+    public void testPayloads_SplitAtLimit() {
+        List<OfferEvent> events = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            events.add(new OfferEvent(i, null, "¡NEW OFFER! $" + (1000 + i) + ".0 on A rather long item name, number " + i));
+        }
+
+        List<String> payloads = eventBus.payloads(events);
+
+        assertTrue(payloads.size() > 1);
+        int total = 0;
+        for (String payload : payloads) {
+            assertTrue(payload.getBytes(StandardCharsets.UTF_8).length < PostgresEventBus.MAX_PAYLOAD_BYTES);
+            total += new Gson().fromJson(payload, OfferEvent[].class).length;
+        }
+        assertEquals(200, total);
+    }
+
+    /**
+     * A failed NOTIFY is reported so the relay keeps the events for the next attempt.
+     */
+    @Test
+    public void testPublish_FailureIsReported() throws SQLException {
+        when(notifyStatement.execute()).thenThrow(new SQLException("connection lost"));
+
+        assertThrows(IllegalStateException.class, () -> eventBus.publish(List.of(new OfferEvent(1, null, "first"))));
+        verify(connection).close();
+    }
+
+    /**
+     * Notifications received together are delivered as one batch, and events
+     * that arrive twice or on other channels are dropped.
+     */
+    @Test
+    public void testPoll_DeduplicatesAndBatches() throws SQLException {
+        PGNotification[] first = {
+                notification(PostgresEventBus.CHANNEL, new OfferEvent(1, null, "first"), new OfferEvent(2, null, "second")),
+                notification("other_channel", new OfferEvent(9, null, "other")),
+                notification(PostgresEventBus.CHANNEL, new OfferEvent(2, null, "second"), new OfferEvent(3, null, "third"))
+        };
+        PGNotification[] redelivered = {notification(PostgresEventBus.CHANNEL, new OfferEvent(3, null, "third"))};
+        when(pgConnection.getNotifications(100)).thenReturn(first, redelivered, null);
+
+        assertEquals(3, eventBus.poll(100));
+        assertEquals(0, eventBus.poll(100));
+        assertEquals(0, eventBus.poll(100));
+
+        verify(listenStatement, times(1)).execute("LISTEN " + PostgresEventBus.CHANNEL);
+        assertEquals(1, delivered.size());
+        assertEquals(List.of(1L, 2L, 3L), delivered.get(0).stream().map(OfferEvent::seq).toList());
+    }
+
+    /**
+     * Against a real PostgreSQL: an event published by one node reaches the
+     * sessions of every node.
+     */
+    @Test
+    @EnabledIfEnvironmentVariable(named = "TEST_POSTGRES_URL", matches = ".+")
+    public void testPublish_ReachesEveryNode() throws Exception {
+        PostgresEventBus.ConnectionFactory postgres = () -> DriverManager.getConnection(
+                System.getenv("TEST_POSTGRES_URL"), System.getenv("TEST_POSTGRES_USER"), System.getenv("TEST_POSTGRES_PASS"));
+        List<OfferEvent> nodeA = new CopyOnWriteArrayList<>();
+        List<OfferEvent> nodeB = new CopyOnWriteArrayList<>();
+
+        try (PostgresEventBus busA = new PostgresEventBus(postgres, nodeA::addAll);
+             PostgresEventBus busB = new PostgresEventBus(postgres, nodeB::addAll)) {
+            busA.start();
+            busB.start();
+            Thread.sleep(1_000);
+
+            busA.publish(List.of(new OfferEvent(System.nanoTime(), null, "from node A")));
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while ((nodeA.isEmpty() || nodeB.isEmpty()) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+        }
+
+        assertEquals("from node A", nodeA.get(0).message());
+        assertEquals("from node A", nodeB.get(0).message());
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UNIT TEST for the token-bucket rate limiter, with a fake clock.
+ */
+public class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+    private final RateLimiter limiter = new RateLimiter(2, 3, clock::get);
+
+    /**
+     * An idle key may burst, then gets one token per refill interval.
+     */
+    @Test
+    public void testAcquire_BurstThenSteadyRate() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.acquire("client"));
+        }
+        assertEquals(SECOND / 2, limiter.acquire("client"), "The next token is half a second away.");
+
+        clock.addAndGet(SECOND / 2);
+        assertEquals(0, limiter.acquire("client"));
+        assertTrue(limiter.acquire("client") > 0);
+
+        assertEquals(4, limiter.allowedCount());
+        assertEquals(2, limiter.throttledCount());
+    }
+
+    /**
+     * Each key has its own bucket.
+     */
+    @Test
+    public void testAcquire_KeysAreIndependent() {
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("busy");
+        }
+
+        assertTrue(limiter.acquire("busy") > 0);
+        assertEquals(0, limiter.acquire("other"));
+    }
+
+    /**
+     * Buckets that have refilled are dropped, and behave like new ones.
+     */
+    @Test
+    public void testSweep_DropsFullBuckets() {
+        limiter.acquire("idle");
+        limiter.acquire("busy");
+        limiter.acquire("busy");
+        limiter.acquire("busy");
+
+        clock.addAndGet(SECOND / 2);
+        limiter.sweep(clock.get());
+
+        assertEquals(1, limiter.trackedKeys());
+        assertEquals(0, limiter.acquire("idle"));
+    }
+
+    /**
+     * Concurrent callers never get more tokens than the bucket holds.
+     */
+    @Test
+    public void testAcquire_ConcurrentCallersShareTheBurst() throws InterruptedException {
+        RateLimiter frozen = new RateLimiter(1, 100, () -> 0L);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1_000; i++) {
+            pool.execute(() -> {
+                if (frozen.acquire("item") == 0) {
+                    granted.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, granted.get());
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UNIT TEST for the {@link Startup} pipeline.
+ */
+public class StartupTest {
+
+    private final Startup startup = new Startup();
+
+    @Test
+    public void testPhases_AreTimedInOrderAndReportedWhenReady() {
+        startup.phase("pool", () -> { });
+        Map<String, Runnable> tasks = new LinkedHashMap<>();
+        tasks.put("items", () -> { });
+        startup.parallel("warm-up", tasks);
+        assertFalse(startup.isReady());
+
+        startup.markReady();
+
+        assertTrue(startup.isReady());
+        assertEquals(List.of("pool", "warm-up", "warm-up/items"), List.copyOf(startup.phases().keySet()));
+        assertTrue(startup.report().matches(
+                "Ready in \\d+ ms \\(\\d+ ms after JVM start\\): pool \\d+ ms, warm-up \\d+ ms \\[items \\d+ ms]"),
+                startup.report());
+    }
+
+    /**
+     * The tasks of a parallel phase run at the same time: each one waits
+     * until all of them started.
+     */
+    @Test
+    public void testParallel_RunsTasksConcurrently() {
+        CountDownLatch started = new CountDownLatch(3);
+        Runnable task = () -> {
+            started.countDown();
+            try {
+                assertTrue(started.await(10, TimeUnit.SECONDS), "Tasks ran one after the other.");
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+
+        startup.parallel("warm-up", Map.of("a", task, "b", task, "c", task));
+
+        assertEquals(4, startup.phases().size());
+    }
+
+    @Test
+    public void testParallel_RethrowsAfterEveryTaskFinished() {
+        AtomicInteger finished = new AtomicInteger();
+        Map<String, Runnable> tasks = new LinkedHashMap<>();
+        tasks.put("broken", () -> {
+            throw new IllegalStateException("Could not load the items");
+        });
+        tasks.put("slow", () -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            finished.incrementAndGet();
+        });
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> startup.parallel("warm-up", tasks));
+
+        assertTrue(e.getMessage().contains("Could not load the items"), e.getMessage());
+        assertEquals(1, finished.get());
+        assertFalse(startup.isReady());
+    }
+}
@@ -0,0 +1,220 @@
+package org.example.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * INTEGRATION TEST for write-behind bid persistence, against the H2
+ * in-memory database and a journal in a temporary directory.
+ */
+public class WriteBehindOfferStoreTest {
+
+    private static final int CAPACITY = 1024 * 1024;
+
+    @TempDir
+    Path dir;
+
+    private final ItemService itemService = new ItemService();
+
+    private WriteBehindOfferStore store;
+    private OfferService offerService;
+    private CollectibleItem item;
+
+    @BeforeEach
+    public void setup() throws IOException, SQLException {
+        Migrations.migrate();
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(Migrations.readResource("setup-dev.sql"));
+        }
+        item = itemService.getAllItems().stream()
+                .filter(i -> i.getPrice().equals(Money.parse("621.30")))
+                .findFirst().orElseThrow();
+
+        store = new WriteBehindOfferStore(new OfferJournal(journalFile(), CAPACITY), itemService, 100);
+        store.start();
+        offerService = new OfferService(itemService, store);
+    }
+
+    @AfterEach
+    public void closeStore() throws IOException {
+        store.close();
+    }
+
+    private Path journalFile() {
+        return dir.resolve("offers.journal");
+    }
+
+    private Offer bid(String price) {
+        return new Offer("Bidder", "bidder@example.com", null, Money.parse(price), item.getId(), new Date());
+    }
+
+    /**
+     * Accepted bids reach the offers table and the item's totals once flushed.
+     */
+    @Test
+    public void testCreateOffer_WrittenBehind() {
+        Offer first = offerService.createOffer(bid("700.00"));
+        offerService.createOffer(bid("800.00"));
+
+        store.flush();
+
+        assertEquals(Money.of(700), offerService.getOfferById(first.getId()).getPrice());
+        CollectibleItem stored = itemService.getItemById(item.getId());
+        assertEquals(Money.of(800), stored.getCurrentTopOffer());
+        assertEquals(2, stored.getOfferCount());
+    }
+
+    /**
+     * Bids are validated against accepted bids that are not in the database yet.
+     */
+    @Test
+    public void testCreateOffer_RejectsBidBelowPendingTop() {
+        offerService.createOffer(bid("900.00"));
+
+        ApiException exception = assertThrows(ApiException.class, () -> offerService.createOffer(bid("850.00")));
+
+        assertEquals(409, exception.getStatusCode());
+        assertTrue(exception.getMessage().contains("$900.0"));
+    }
+
+    /**
+     * Bids on unknown items are rejected before they are journaled.
+     */
+    @Test
+    public void testCreateOffer_UnknownItem() {
+        Offer offer = new Offer("Bidder", "bidder@example.com", null, Money.of(10), UUID.randomUUID().toString(), new Date());
+
+        ApiException exception = assertThrows(ApiException.class, () -> offerService.createOffer(offer));
+
+        assertEquals(404, exception.getStatusCode());
+    }
+
+    /**
+     * After a crash, journaled bids that never reached the database are
+     * replayed on startup, and bids already stored are not inserted twice.
+     */
+    @Test
+    public void testStart_ReplaysJournalAfterCrash() throws Exception {
+        Offer stored = offerService.createOffer(bid("700.00"));
+        store.flush();
+        store.close();
+
+        Offer lost = new Offer("Bidder", "bidder@example.com", UUID.randomUUID(), Money.of(750), item.getId(), new Date());
+        try (OfferJournal journal = new OfferJournal(journalFile(), CAPACITY)) {
+            journal.checkpoint(OfferJournal.HEADER_SIZE);
+            journal.sync(journal.append(stored));
+            journal.sync(journal.append(lost));
+        }
+
+        store = new WriteBehindOfferStore(new OfferJournal(journalFile(), CAPACITY), itemService, 100);
+        store.start();
+
+        assertEquals(Money.of(750), new OfferService(itemService).getOfferById(lost.getId()).getPrice());
+        CollectibleItem replayed = itemService.getItemById(item.getId());
+        assertEquals(Money.of(750), replayed.getCurrentTopOffer());
+        assertEquals(2, replayed.getOfferCount(), "The offer stored before the crash must not be inserted again.");
+    }
+
+    /**
+     * Deleting an offer writes pending bids first and reloads the item's state.
+     */
+    @Test
+    public void testDeleteOffer_ReloadsItemState() {
+        offerService.createOffer(bid("700.00"));
+        Offer top = offerService.createOffer(bid("800.00"));
+
+        offerService.deleteOffer(top.getId());
+
+        assertDoesNotThrow(() -> offerService.createOffer(bid("750.00")),
+                "After the delete, bids should be checked against the remaining $700 offer.");
+    }
+
+    /**
+     * Bids the offers table cannot store are rejected before they are
+     * journaled and acknowledged.
+     */
+    @Test
+    public void testCreateOffer_RejectsRowsTheDatabaseCannotStore() {
+        Offer tooExpensive = bid("100000000.00");
+        Offer longName = new Offer("x".repeat(256), "bidder@example.com", null, Money.of(700), item.getId(), new Date());
+        Offer noEmail = new Offer("Bidder", null, null, Money.of(700), item.getId(), new Date());
+
+        for (Offer offer : List.of(tooExpensive, longName, noEmail)) {
+            ApiException exception = assertThrows(ApiException.class, () -> offerService.createOffer(offer));
+            assertEquals(400, exception.getStatusCode(), exception.getMessage());
+        }
+        assertDoesNotThrow(() -> offerService.createOffer(bid("99999999.99")));
+    }
+
+    /**
+     * A journaled bid the database rejects is dropped without staying the
+     * item's top offer; later valid bids are checked against what is stored
+     * and still queued.
+     */
+    @Test
+    public void testDroppedOffer_DoesNotBlockLaterBids() {
+        UUID itemId = UUID.fromString(item.getId());
+        offerService.createOffer(bid("700.00"));
+        store.write(bid("100000000.00"), itemId);
+
+        store.flush();
+
+        assertEquals(Money.of(700), itemService.getItemById(item.getId()).getCurrentTopOffer());
+        assertEquals(409, assertThrows(ApiException.class, () -> offerService.createOffer(bid("650.00"))).getStatusCode());
+        Offer accepted = offerService.createOffer(bid("750.00"));
+        store.flush();
+        assertEquals(accepted.getPrice(), itemService.getItemById(item.getId()).getCurrentTopOffer());
+    }
+
+    /**
+     * Bids are checked against this process's accepted bids only, so the
+     * write-behind mode refuses to start unless it is the only writer.
+     */
+    @Test
+    public void testWriteBehind_RequiresSingleWriter() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> BidWriter.forMode("write-behind", itemService));
+        assertTrue(exception.getMessage().contains("ITEM_CATALOG=memory"));
+    }
+
+    /**
+     * When the writer fails, the store stops acknowledging bids and flushes
+     * report the unwritten ones instead of returning as if they were stored.
+     */
+    @Test
+    public void testWriterFailure_RejectsBidsAndFlushes() throws IOException {
+        store.close();
+        ItemService failingOnWriter = new ItemService() {
+            @Override
+            public CollectibleItem getItemById(String id) {
+                if (Thread.currentThread().getName().equals("offer-write-behind")) {
+                    throw new IllegalStateException("Simulated failure");
+                }
+                return super.getItemById(id);
+            }
+        };
+        store = new WriteBehindOfferStore(new OfferJournal(dir.resolve("failing.journal"), CAPACITY), failingOnWriter, 100);
+        store.start();
+        offerService = new OfferService(failingOnWriter, store);
+
+        // The writer looks the item up again after dropping this bid, and fails.
+        store.write(bid("100000000.00"), UUID.fromString(item.getId()));
+
+        assertEquals(503, assertThrows(ApiException.class, store::flush).getStatusCode());
+        assertEquals(503, assertThrows(ApiException.class, () -> offerService.createOffer(bid("700.00"))).getStatusCode());
+    }
+}
@@ -3,7 +3,7 @@
 import { jest, describe, test, expect, beforeEach, beforeAll } from '@jest/globals';
 
 // Import the functions we want to test
-import { log, refreshWindow, setupWebSocket, processToastNotifications } from '../../main/resources/public/scripts/websocket-logic.js';
+import { log, refreshWindow, setupWebSocket, processToastNotifications, nextReconnectDelay } from '../../main/resources/public/scripts/websocket-logic.js';
 
 // Import the mock WebSocket server
 import { WS } from 'jest-websocket-mock';
@@ -141,6 +141,17 @@ describe('WebSocket Logic (Event Listeners)', () => {
     expect(mockDialog.show).toHaveBeenCalledTimes(1);
   });
 
+  test('should show the message of an offer frame', async () => {
+    server.send(JSON.stringify({ type: "offer", epoch: 1, seq: 1, message: "New Offer!" }));
+    expect(mockMessage.innerHTML).toBe("[Server] New Offer!");
+    expect(mockDialog.show).toHaveBeenCalledTimes(1);
+  });
+
+  test('should reload the page on a snapshot frame', async () => {
+    server.send(JSON.stringify({ type: "snapshot", epoch: 1, seq: 5000 }));
+    expect(mockLocation.reload).toHaveBeenCalledTimes(1);
+  });
+
   test('should refresh window when button is clicked', () => {
     mockButton.click();
     expect(mockLocation.reload).toHaveBeenCalledTimes(1);
@@ -151,4 +162,97 @@ describe('WebSocket Logic (Event Listeners)', () => {
     // This test just ensures the functions run for coverage
     expect(true).toBe(true);
   });
-});
\ No newline at end of file
+});
+
+// Group 3: Tests for reconnecting and resuming from the last seen event
+describe('WebSocket Logic (Reconnect)', () => {
+
+  // A minimal WebSocket that records what the client sends
+  const sockets = [];
+  class FakeWebSocket {
+    constructor(url) {
+      this.url = url;
+      this.send = jest.fn();
+      sockets.push(this);
+    }
+    receive(frame) {
+      this.onmessage({ data: JSON.stringify(frame) });
+    }
+  }
+
+  beforeEach(() => {
+    jest.clearAllMocks();
+    jest.clearAllTimers();
+    sockets.length = 0;
+    setupWebSocket(mockWindow, mockDocument, FakeWebSocket);
+  });
+
+  test('nextReconnectDelay() should back off exponentially up to the maximum', () => {
+    const noJitter = () => 1;
+    expect(nextReconnectDelay(0, 500, 30000, noJitter)).toBe(500);
+    expect(nextReconnectDelay(3, 500, 30000, noJitter)).toBe(4000);
+    expect(nextReconnectDelay(20, 500, 30000, noJitter)).toBe(30000);
+    expect(nextReconnectDelay(3, 500, 30000, () => 0)).toBe(2000);
+  });
+
+  test('should reconnect after the connection closes', () => {
+    sockets[0].onclose({});
+    expect(sockets.length).toBe(1);
+
+    jest.advanceTimersByTime(500);
+    expect(sockets.length).toBe(2);
+    expect(sockets[1].url).toBe(sockets[0].url);
+  });
+
+  test('should resume from the last seen event after reconnecting', () => {
+    sockets[0].receive({ type: "hello", epoch: 7, seq: 3 });
+    sockets[0].receive({ type: "offer", epoch: 7, seq: 4, message: "A" });
+    expect(sockets[0].send).not.toHaveBeenCalled();
+
+    sockets[0].onclose({});
+    jest.advanceTimersByTime(500);
+    sockets[1].receive({ type: "hello", epoch: 7, seq: 9 });
+
+    expect(sockets[1].send).toHaveBeenCalledWith(JSON.stringify({ type: "resume", epoch: 7, lastSeq: 4 }));
+  });
+
+  test('should not show an offer it has already seen', () => {
+    sockets[0].receive({ type: "hello", epoch: 7, seq: 3 });
+    sockets[0].receive({ type: "offer", epoch: 7, seq: 3, message: "Old" });
+
+    expect(mockDialog.show).not.toHaveBeenCalled();
+  });
+
+  test('should show live offers that arrive before the replay after it', () => {
+    sockets[0].receive({ type: "hello", epoch: 7, seq: 3 });
+    sockets[0].receive({ type: "offer", epoch: 7, seq: 4, message: "A" });
+    sockets[0].onclose({});
+    jest.advanceTimersByTime(500);
+    sockets[1].receive({ type: "hello", epoch: 7, seq: 6 });
+    jest.clearAllMocks();
+
+    sockets[1].receive({ type: "offer", epoch: 7, seq: 7, message: "Live" });
+    expect(mockDialog.show).not.toHaveBeenCalled();
+
+    sockets[1].receive({ type: "offer", epoch: 7, seq: 5, message: "Missed 1" });
+    expect(mockMessage.innerHTML).toBe("[Server] Missed 1");
+    sockets[1].receive({ type: "offer", epoch: 7, seq: 6, message: "Missed 2" });
+
+    expect(mockDialog.show).toHaveBeenCalledTimes(3);
+    expect(mockMessage.innerHTML).toBe("[Server] Live");
+
+    sockets[1].receive({ type: "offer", epoch: 7, seq: 7, message: "Live" });
+    expect(mockDialog.show).toHaveBeenCalledTimes(3);
+  });
+
+  test('should not hold back live offers when nothing was missed', () => {
+    sockets[0].receive({ type: "hello", epoch: 7, seq: 3 });
+    sockets[0].onclose({});
+    jest.advanceTimersByTime(500);
+    sockets[1].receive({ type: "hello", epoch: 7, seq: 3 });
+
+    sockets[1].receive({ type: "offer", epoch: 7, seq: 4, message: "Live" });
+
+    expect(mockMessage.innerHTML).toBe("[Server] Live");
+  });
+});